@@ -0,0 +1,49 @@
+package com.to.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "extraction")
+public class ExtractionProperties {
+    private Map<String, Limits> limits = new HashMap<>();
+    private boolean sniffMagicBytes = true;
+    private int pdfMaxPages = 500;
+    private int pdfMaxChars = 2_000_000;
+    private int textMaxChars = 2_000_000;
+    private String textFallbackCharset = "windows-1252";
+
+    public Limits limitsFor(String extractorName) {
+        return limits.getOrDefault(extractorName, new Limits());
+    }
+
+    public Map<String, Limits> getLimits() { return limits; }
+    public void setLimits(Map<String, Limits> limits) { this.limits = limits; }
+    public boolean isSniffMagicBytes() { return sniffMagicBytes; }
+    public void setSniffMagicBytes(boolean sniffMagicBytes) { this.sniffMagicBytes = sniffMagicBytes; }
+    public int getPdfMaxPages() { return pdfMaxPages; }
+    public void setPdfMaxPages(int pdfMaxPages) { this.pdfMaxPages = pdfMaxPages; }
+    public int getPdfMaxChars() { return pdfMaxChars; }
+    public void setPdfMaxChars(int pdfMaxChars) { this.pdfMaxChars = pdfMaxChars; }
+    public int getTextMaxChars() { return textMaxChars; }
+    public void setTextMaxChars(int textMaxChars) { this.textMaxChars = textMaxChars; }
+    public String getTextFallbackCharset() { return textFallbackCharset; }
+    public void setTextFallbackCharset(String textFallbackCharset) { this.textFallbackCharset = textFallbackCharset; }
+
+    public static class Limits {
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 64;
+        private Duration timeout = Duration.ofSeconds(60);
+
+        public int getThreads() { return threads; }
+        public void setThreads(int threads) { this.threads = threads; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+        public Duration getTimeout() { return timeout; }
+        public void setTimeout(Duration timeout) { this.timeout = timeout; }
+    }
+}
@@ -0,0 +1,42 @@
+package com.to.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "scan")
+public class ScanProperties {
+    private int workers = Runtime.getRuntime().availableProcessors() * 2;
+    private int batchSize = 1000;
+    private long batchMaxBytes = 8 * 1024 * 1024;
+    private Duration batchFlushInterval = Duration.ofSeconds(2);
+    private String hashAlgorithm = "xxh64";
+    private int maxConcurrentJobs = 2;
+    private int jobQueueCapacity = 20;
+    private int retainedJobs = 100;
+    private int extractionCacheEntries = 100_000;
+    private int analysisCacheEntries = 256;
+
+    public int getWorkers() { return workers; }
+    public void setWorkers(int workers) { this.workers = workers; }
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public long getBatchMaxBytes() { return batchMaxBytes; }
+    public void setBatchMaxBytes(long batchMaxBytes) { this.batchMaxBytes = batchMaxBytes; }
+    public Duration getBatchFlushInterval() { return batchFlushInterval; }
+    public void setBatchFlushInterval(Duration batchFlushInterval) { this.batchFlushInterval = batchFlushInterval; }
+    public String getHashAlgorithm() { return hashAlgorithm; }
+    public void setHashAlgorithm(String hashAlgorithm) { this.hashAlgorithm = hashAlgorithm; }
+    public int getMaxConcurrentJobs() { return maxConcurrentJobs; }
+    public void setMaxConcurrentJobs(int maxConcurrentJobs) { this.maxConcurrentJobs = maxConcurrentJobs; }
+    public int getJobQueueCapacity() { return jobQueueCapacity; }
+    public void setJobQueueCapacity(int jobQueueCapacity) { this.jobQueueCapacity = jobQueueCapacity; }
+    public int getRetainedJobs() { return retainedJobs; }
+    public void setRetainedJobs(int retainedJobs) { this.retainedJobs = retainedJobs; }
+    public int getExtractionCacheEntries() { return extractionCacheEntries; }
+    public void setExtractionCacheEntries(int extractionCacheEntries) { this.extractionCacheEntries = extractionCacheEntries; }
+    public int getAnalysisCacheEntries() { return analysisCacheEntries; }
+    public void setAnalysisCacheEntries(int analysisCacheEntries) { this.analysisCacheEntries = analysisCacheEntries; }
+}
@@ -0,0 +1,27 @@
+package com.to.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "search")
+public class SearchProperties {
+    private String backend = "mongo";
+    private String indexDirectory = "search-index";
+    private Duration refreshInterval = Duration.ofSeconds(1);
+    private Duration commitInterval = Duration.ofSeconds(30);
+    private int snippetPassages = 3;
+
+    public String getBackend() { return backend; }
+    public void setBackend(String backend) { this.backend = backend; }
+    public String getIndexDirectory() { return indexDirectory; }
+    public void setIndexDirectory(String indexDirectory) { this.indexDirectory = indexDirectory; }
+    public Duration getRefreshInterval() { return refreshInterval; }
+    public void setRefreshInterval(Duration refreshInterval) { this.refreshInterval = refreshInterval; }
+    public Duration getCommitInterval() { return commitInterval; }
+    public void setCommitInterval(Duration commitInterval) { this.commitInterval = commitInterval; }
+    public int getSnippetPassages() { return snippetPassages; }
+    public void setSnippetPassages(int snippetPassages) { this.snippetPassages = snippetPassages; }
+}
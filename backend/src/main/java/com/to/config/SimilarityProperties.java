@@ -0,0 +1,28 @@
+package com.to.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "similarity")
+public class SimilarityProperties {
+    private int shingleSize = 3;
+    private int bands = 32;
+    private int rows = 4;
+    private int maxBucketSize = 1000;
+    private int rebuildBatchSize = 500;
+    private long directoryMinFiles = 2;
+
+    public int getShingleSize() { return shingleSize; }
+    public void setShingleSize(int shingleSize) { this.shingleSize = shingleSize; }
+    public int getBands() { return bands; }
+    public void setBands(int bands) { this.bands = bands; }
+    public int getRows() { return rows; }
+    public void setRows(int rows) { this.rows = rows; }
+    public int getMaxBucketSize() { return maxBucketSize; }
+    public void setMaxBucketSize(int maxBucketSize) { this.maxBucketSize = maxBucketSize; }
+    public int getRebuildBatchSize() { return rebuildBatchSize; }
+    public void setRebuildBatchSize(int rebuildBatchSize) { this.rebuildBatchSize = rebuildBatchSize; }
+    public long getDirectoryMinFiles() { return directoryMinFiles; }
+    public void setDirectoryMinFiles(long directoryMinFiles) { this.directoryMinFiles = directoryMinFiles; }
+}
@@ -0,0 +1,24 @@
+package com.to.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "versions")
+public class VersionsProperties {
+    private String mode = "greedy";
+    private String keywordsFile;
+    private Duration keywordsReloadInterval = Duration.ofSeconds(30);
+    private int rebuildBatchSize = 1000;
+
+    public String getMode() { return mode; }
+    public void setMode(String mode) { this.mode = mode; }
+    public String getKeywordsFile() { return keywordsFile; }
+    public void setKeywordsFile(String keywordsFile) { this.keywordsFile = keywordsFile; }
+    public Duration getKeywordsReloadInterval() { return keywordsReloadInterval; }
+    public void setKeywordsReloadInterval(Duration keywordsReloadInterval) { this.keywordsReloadInterval = keywordsReloadInterval; }
+    public int getRebuildBatchSize() { return rebuildBatchSize; }
+    public void setRebuildBatchSize(int rebuildBatchSize) { this.rebuildBatchSize = rebuildBatchSize; }
+}
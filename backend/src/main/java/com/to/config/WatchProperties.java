@@ -0,0 +1,32 @@
+package com.to.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "watch")
+public class WatchProperties {
+    private boolean enabled = false;
+    private String mode = "native";
+    private Duration pollInterval = Duration.ofMinutes(10);
+    private Duration debounce = Duration.ofSeconds(2);
+    private int batchSize = 100;
+    private List<String> roots = new ArrayList<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getMode() { return mode; }
+    public void setMode(String mode) { this.mode = mode; }
+    public Duration getPollInterval() { return pollInterval; }
+    public void setPollInterval(Duration pollInterval) { this.pollInterval = pollInterval; }
+    public Duration getDebounce() { return debounce; }
+    public void setDebounce(Duration debounce) { this.debounce = debounce; }
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public List<String> getRoots() { return roots; }
+    public void setRoots(List<String> roots) { this.roots = roots; }
+}
@@ -1,16 +1,31 @@
 package com.to.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.to.logic.FileNameMatchMode;
+import com.to.logic.FileSortOrder;
+import com.to.logic.VersionGroupingMode;
 import com.to.model.FileDocument;
+import com.to.model.ScanJob;
+import com.to.model.SearchFilter;
 import com.to.service.FileService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/files")
@@ -18,9 +33,11 @@ import java.util.Map;
 public class FileController {
 
     private final FileService fileService;
+    private final ObjectMapper objectMapper;
 
-    public FileController(FileService fileService) {
+    public FileController(FileService fileService, ObjectMapper objectMapper) {
         this.fileService = fileService;
+        this.objectMapper = objectMapper;
     }
     @GetMapping
     public String greeting() {
@@ -28,17 +45,44 @@ public class FileController {
     }
 
     @PostMapping("/scan")
-    @Operation(summary = "Scan directory", description = "Scans a directory and saves file data to the database.")
-    @ApiResponse(responseCode = "200", description = "Directory scanned successfully")
-    public String scanDirectory(@RequestParam String directoryPath) {
+    @Operation(summary = "Scan directory", description = "Starts a background job that scans a directory and saves file data to the database. With incremental=true only new or changed files are processed and the existing index and logs are kept.")
+    @ApiResponse(responseCode = "202", description = "Scan job queued")
+    @ApiResponse(responseCode = "400", description = "The path is not a directory")
+    @ApiResponse(responseCode = "503", description = "Too many scan jobs are queued")
+    public ResponseEntity<?> scanDirectory(@RequestParam String directoryPath, @RequestParam(defaultValue = "false") boolean incremental) {
         try {
-            fileService.processDirectory(directoryPath);
-            return "Directory scanned successfully!";
-        } catch (Exception e) {
-            return "Error: " + e.getMessage();
+            return ResponseEntity.accepted().body(fileService.submitScan(directoryPath, incremental));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body("Error: " + e.getMessage());
         }
     }
 
+    @GetMapping("/scan")
+    @Operation(summary = "List scan jobs", description = "Returns queued, running and recently finished scan jobs, newest first.")
+    public List<ScanJob> getScanJobs() {
+        return fileService.getScanJobs();
+    }
+
+    @GetMapping("/scan/{id}")
+    @Operation(summary = "Get scan job", description = "Returns status, files and bytes processed, throughput, ETA and errors of a scan job.")
+    @ApiResponse(responseCode = "200", description = "Scan job found")
+    @ApiResponse(responseCode = "404", description = "Unknown scan job")
+    public ResponseEntity<ScanJob> getScanJob(@PathVariable String id) {
+        return ResponseEntity.of(fileService.getScanJob(id));
+    }
+
+    @DeleteMapping("/scan/{id}")
+    @Operation(summary = "Cancel scan job", description = "Asks a scan job to stop. Files already being processed are finished and saved.")
+    @ApiResponse(responseCode = "202", description = "Cancellation requested")
+    @ApiResponse(responseCode = "404", description = "Unknown scan job")
+    public ResponseEntity<ScanJob> cancelScanJob(@PathVariable String id) {
+        return fileService.cancelScanJob(id)
+                .map(job -> ResponseEntity.accepted().body(job))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/deleteAll")
     @Operation(summary = "Delete all files", description = "Deletes all files from the database.")
     public String deleteAllFiles() {
@@ -53,42 +97,208 @@ public class FileController {
     @GetMapping("/all")
     @Operation(
             summary = "Get all files",
-            description = "Returns a list of all files stored in the database."
+            description = "Returns the first 1000 files ordered by id, without their extracted text. Use /all/page or /all/stream to read every file.",
+            deprecated = true
     )
     @ApiResponse(responseCode = "200", description = "List of all files retrieved successfully.")
     public List<FileDocument> getAllFiles() {
         return fileService.getAllFiles();
     }
 
+    @GetMapping("/all/page")
+    @Operation(
+            summary = "Get a page of files",
+            description = "Returns up to limit (at most 1000) files ordered by id, or by path with order=path. Pass nextCursor from the previous page as cursor to continue; files added meanwhile are not skipped or repeated."
+    )
+    @ApiResponse(responseCode = "200", description = "Page of files retrieved successfully.")
+    @ApiResponse(responseCode = "400", description = "Invalid limit, order or cursor")
+    public ResponseEntity<?> getFilesPage(@RequestParam(defaultValue = "100") int limit,
+                                          @RequestParam(defaultValue = "id") String order,
+                                          @RequestParam(required = false) String cursor) {
+        try {
+            FileSortOrder sortOrder = FileSortOrder.valueOf(order.toUpperCase(Locale.ROOT));
+            return ResponseEntity.ok(fileService.getFilesPage(limit, sortOrder, cursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping(value = "/all/stream", produces = "application/x-ndjson")
+    @Operation(
+            summary = "Stream all files",
+            description = "Streams every file as newline-delimited JSON while reading it from the database, so the response starts immediately and the server does not hold the whole list."
+    )
+    @ApiResponse(responseCode = "200", description = "Files streamed successfully.")
+    public ResponseEntity<StreamingResponseBody> streamAllFiles() {
+        // one generator for the whole response, so output is flushed as its buffer fills rather than per file
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = output -> {
+            try (Stream<FileDocument> files = fileService.streamAllFiles();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                for (FileDocument fileDocument : (Iterable<FileDocument>) files::iterator) {
+                    writer.writeValue(generator, fileDocument);
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    @GetMapping("/find")
+    @Operation(
+            summary = "Find files by name",
+            description = "Looks file names up in an in-memory index, ignoring case. mode=prefix matches names starting with query, mode=substring names containing it and mode=fuzzy names within maxDistance (at most 3) edits of it, with or without their extension, closest first. Returns up to limit (at most 1000) files without their extracted text."
+    )
+    @ApiResponse(responseCode = "200", description = "Matching files retrieved successfully.")
+    @ApiResponse(responseCode = "400", description = "Empty query, unknown mode or invalid limit or maxDistance")
+    @ApiResponse(responseCode = "503", description = "The file name index is still loading")
+    public ResponseEntity<?> findFilesByName(@RequestParam String query,
+                                             @RequestParam(defaultValue = "substring") String mode,
+                                             @RequestParam(defaultValue = "1") int maxDistance,
+                                             @RequestParam(defaultValue = "20") int limit) {
+        try {
+            FileNameMatchMode matchMode = FileNameMatchMode.valueOf(mode.toUpperCase(Locale.ROOT));
+            return ResponseEntity.ok(fileService.findFilesByName(query, matchMode, maxDistance, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body("Error: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/find/reload")
+    @Operation(
+            summary = "Reload file name index",
+            description = "Loads the in-memory file name index again from the database, e.g. after the files collection was changed outside the application. Returns the number of indexed files."
+    )
+    @ApiResponse(responseCode = "200", description = "File name index reloaded.")
+    public long reloadFileNameIndex() {
+        return fileService.reloadFileNameIndex();
+    }
+
+    @GetMapping(value = "/{id}/content", produces = MediaType.TEXT_PLAIN_VALUE)
+    @Operation(
+            summary = "Get file content",
+            description = "Returns the text extracted from a file during the scan."
+    )
+    @ApiResponse(responseCode = "200", description = "Extracted text returned successfully.")
+    @ApiResponse(responseCode = "404", description = "Unknown file or no extracted text")
+    public ResponseEntity<String> getFileContent(@PathVariable String id) {
+        return ResponseEntity.of(fileService.getFileContent(id));
+    }
+
+    @PostMapping("/content/migrate")
+    @Operation(
+            summary = "Migrate inline content",
+            description = "Moves the text stored inside file documents by older versions into the extracted contents collection, so lists and analyses no longer load it. Returns the number of migrated files."
+    )
+    @ApiResponse(responseCode = "200", description = "Inline content migrated.")
+    public long migrateInlineContent() {
+        return fileService.migrateInlineContent();
+    }
+
     @GetMapping("/duplicates")
     @Operation(
             summary = "Find duplicate files",
-            description = "Returns groups of files with identical content based on hash comparison."
+            description = "Returns a page of groups of files with identical content based on hash comparison, most wasted bytes (size x (count - 1)) first. Pass nextCursor from the previous page as cursor to continue."
     )
     @ApiResponse(responseCode = "200", description = "List of duplicate file groups retrieved successfully.")
+    @ApiResponse(responseCode = "400", description = "Invalid limit or cursor")
     @ApiResponse(responseCode = "500", description = "An unexpected error occurred.")
-    public List<List<FileDocument>> getDuplicates() {
-        return fileService.findDuplicates();
+    public ResponseEntity<?> getDuplicates(@RequestParam(defaultValue = "20") int limit,
+                                           @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(fileService.findDuplicates(limit, cursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
     @GetMapping("/versions")
     @Operation(
             summary = "Find file versions",
-            description = "Returns groups of files that are considered versions of each other based on Edit Distance of their filenames."
+            description = "Returns groups of files that are considered versions of each other based on Edit Distance of their filenames. mode=greedy lets each file claim its direct matches in index order; mode=transitive returns connected groups of matching files. Defaults to versions.mode."
     )
     @ApiResponse(responseCode = "200", description = "List of file version groups retrieved successfully.")
-    public List<List<FileDocument>> getFileVersions(@RequestParam(defaultValue = "3") int threshold) {
-        return fileService.findFileVersions(threshold);
+    @ApiResponse(responseCode = "400", description = "Unknown mode")
+    public ResponseEntity<?> getFileVersions(@RequestParam(defaultValue = "3") int threshold,
+                                             @RequestParam(required = false) String mode) {
+        try {
+            VersionGroupingMode groupingMode = mode == null ? null : VersionGroupingMode.valueOf(mode.toUpperCase(Locale.ROOT));
+            return ResponseEntity.ok(fileService.findFileVersions(threshold, groupingMode));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/versions/rebuild-names")
+    @Operation(
+            summary = "Rebuild normalized file names",
+            description = "Recomputes the keyword-stripped file names used for version detection, e.g. after editing the keywords file. Returns the number of updated files."
+    )
+    @ApiResponse(responseCode = "200", description = "Normalized names rebuilt.")
+    public long rebuildNormalizedNames() {
+        return fileService.rebuildNormalizedNames();
+    }
+
+    @GetMapping("/similar")
+    @Operation(
+            summary = "Find near-duplicate content",
+            description = "Returns groups of files whose extracted text is nearly the same, e.g. edited copies of a report under different names. threshold is the minimum estimated Jaccard similarity of the texts' word shingles. Byte-identical copies are reported by /duplicates instead."
+    )
+    @ApiResponse(responseCode = "200", description = "List of similar content groups retrieved successfully.")
+    @ApiResponse(responseCode = "400", description = "Threshold outside (0, 1]")
+    public ResponseEntity<?> getSimilarContent(@RequestParam(defaultValue = "0.8") double threshold) {
+        try {
+            return ResponseEntity.ok(fileService.findSimilarContent(threshold));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/similar/rebuild-signatures")
+    @Operation(
+            summary = "Rebuild content signatures",
+            description = "Computes MinHash signatures for extracted texts that have none, e.g. content extracted by an older version. With all=true every text is signed again, which is needed after changing similarity.* settings. Returns the number of updated contents."
+    )
+    @ApiResponse(responseCode = "200", description = "Signatures rebuilt.")
+    public long rebuildContentSignatures(@RequestParam(defaultValue = "false") boolean all) {
+        return fileService.rebuildContentSignatures(all);
+    }
+
+    @GetMapping("/directories/duplicates")
+    @Operation(
+            summary = "Find duplicate directories",
+            description = "Returns groups of directories holding the same files, largest waste first. similarity=1 matches directories whose whole subtrees have equal names, sizes and content hashes; a group is marked identical only when every file in it was hashed in full rather than sampled, and needsRescan marks groups whose files were only sampled when scanned: rescan them (incremental is enough) after /files/duplicates has fully hashed their files to verify them; lower values also match directories whose file contents overlap by at least that fraction, whatever the names. Groups nested inside an already reported group are left out. Directory hashes are built by scans; directories changed since the last scan are skipped."
+    )
+    @ApiResponse(responseCode = "200", description = "List of duplicate directory groups retrieved successfully.")
+    @ApiResponse(responseCode = "400", description = "Similarity outside (0, 1]")
+    public ResponseEntity<?> getDuplicateDirectories(@RequestParam(defaultValue = "1") double similarity) {
+        try {
+            return ResponseEntity.ok(fileService.findDuplicateDirectories(similarity));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
     @GetMapping("/largest")
     @Operation(
             summary = "Find largest files",
-            description = "Returns largest files in a directory."
+            description = "Returns a page of the largest files, optionally filtered by extension and path prefix. Pass nextCursor from the previous page as cursor to continue."
     )
     @ApiResponse(responseCode = "200", description = "List of file largest files retrieved successfully.")
-    public List<FileDocument> getLargestFiles(@RequestParam(defaultValue = "10") int limit) {
-        return fileService.findLargestFiles(limit);
+    @ApiResponse(responseCode = "400", description = "Invalid limit or cursor")
+    public ResponseEntity<?> getLargestFiles(@RequestParam(defaultValue = "10") int limit,
+                                             @RequestParam(required = false) String extension,
+                                             @RequestParam(required = false) String pathPrefix,
+                                             @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(fileService.findLargestFiles(limit, extension, pathPrefix, cursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
     @PostMapping("/open")
@@ -226,16 +436,46 @@ public class FileController {
     @GetMapping("/search")
     @Operation(
             summary = "Search for files by keyword",
-            description = "Searches the database for files containing the specified keyword in their content. Only text-based files are considered."
+            description = "Searches extracted file contents and returns a page of hits, best match first, without the file contents. Results can be narrowed by extension, path prefix, size range (bytes) and last-modified range (ISO date-time). With search.backend=lucene hits are ranked by BM25 over names and texts, support \"phrases\", prefix* queries and AND/OR, and carry a highlighted snippet; otherwise they are ranked by Mongo's text score. Pass nextCursor from the previous page as cursor to continue."
     )
     @ApiResponse(responseCode = "200", description = "Search results returned successfully.")
+    @ApiResponse(responseCode = "400", description = "Invalid query, limit or cursor")
+    @ApiResponse(responseCode = "503", description = "The search index was rebuilt since the cursor was issued")
     @ApiResponse(responseCode = "500", description = "Internal server error.")
-    public ResponseEntity<List<FileDocument>> searchFilesByKeyword(@RequestParam String keyword) {
+    public ResponseEntity<?> searchFilesByKeyword(@RequestParam String keyword,
+                                                  @RequestParam(defaultValue = "20") int limit,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) String extension,
+                                                  @RequestParam(required = false) String pathPrefix,
+                                                  @RequestParam(required = false) Long minSize,
+                                                  @RequestParam(required = false) Long maxSize,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime modifiedFrom,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime modifiedTo) {
+        SearchFilter filter = new SearchFilter();
+        filter.setExtension(extension);
+        filter.setPathPrefix(pathPrefix);
+        filter.setMinSize(minSize);
+        filter.setMaxSize(maxSize);
+        filter.setModifiedFrom(modifiedFrom);
+        filter.setModifiedTo(modifiedTo);
         try {
-            List<FileDocument> results = fileService.searchFilesByKeyword(keyword);
-            return ResponseEntity.ok(results);
+            return ResponseEntity.ok(fileService.searchFiles(keyword, filter, limit, cursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body("Error: " + e.getMessage());
         } catch (Exception e) {
-            return ResponseEntity.status(500).body(null);
+            return ResponseEntity.status(500).body("Error: " + e.getMessage());
         }
     }
+
+    @PostMapping("/search/reindex")
+    @Operation(
+            summary = "Rebuild search index",
+            description = "Rebuilds the embedded search index from the stored files and extracted texts. Returns the number of indexed files, or -1 when search.backend is not lucene."
+    )
+    @ApiResponse(responseCode = "200", description = "Search index rebuilt.")
+    public long rebuildSearchIndex() {
+        return fileService.rebuildSearchIndex();
+    }
 }
@@ -0,0 +1,86 @@
+package com.to.logic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Burkhard-Keller tree over Levenshtein distance. By the triangle inequality a search only needs to descend
+// into children whose edge distance is within maxDistance of the distance to the current node.
+public class BKTree<T> {
+
+    private static class Node<T> {
+        private final String key;
+        private final List<T> values = new ArrayList<>(1);
+        private Map<Integer, Node<T>> children;
+        private int maxChildDistance;
+
+        private Node(String key) {
+            this.key = key;
+        }
+    }
+
+    private Node<T> root;
+    private int size;
+
+    public void add(String key, T value) {
+        if (root == null) {
+            root = new Node<>(key);
+        }
+        Node<T> node = root;
+        while (true) {
+            int distance = EditDistanceCalculator.calculate(key, node.key);
+            if (distance == 0) {
+                node.values.add(value);
+                size++;
+                return;
+            }
+            if (node.children == null) {
+                node.children = new HashMap<>();
+            }
+            Node<T> child = node.children.get(distance);
+            if (child == null) {
+                child = new Node<>(key);
+                child.values.add(value);
+                node.children.put(distance, child);
+                node.maxChildDistance = Math.max(node.maxChildDistance, distance);
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    // Values of every key within maxDistance of query, in no particular order.
+    public List<T> search(String query, int maxDistance) {
+        List<T> matches = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+        Deque<Node<T>> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node<T> node = pending.pop();
+            // beyond maxChildDistance + maxDistance neither the node nor any child can match, so the exact value is not needed
+            int distance = EditDistanceCalculator.calculate(query, node.key, node.maxChildDistance + maxDistance);
+            if (distance <= maxDistance) {
+                matches.addAll(node.values);
+            }
+            if (node.children == null) {
+                continue;
+            }
+            for (Map.Entry<Integer, Node<T>> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                    pending.push(child.getValue());
+                }
+            }
+        }
+        return matches;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,200 @@
+package com.to.logic;
+
+import java.nio.ByteBuffer;
+
+// Plain BLAKE3 hash mode with a 32-byte output, following the structure of the reference implementation.
+public class Blake3Algorithm implements HashAlgorithm {
+    private static final int OUT_LEN = 32;
+    private static final int BLOCK_LEN = 64;
+    private static final int CHUNK_LEN = 1024;
+    private static final int CHUNK_START = 1;
+    private static final int CHUNK_END = 1 << 1;
+    private static final int PARENT = 1 << 2;
+    private static final int ROOT = 1 << 3;
+    private static final int[] IV = {
+            0x6A09E667, 0xBB67AE85, 0x3C6EF372, 0xA54FF53A, 0x510E527F, 0x9B05688C, 0x1F83D9AB, 0x5BE0CD19
+    };
+    private static final int[] MSG_PERMUTATION = {2, 6, 3, 10, 7, 0, 4, 13, 1, 11, 12, 5, 9, 14, 15, 8};
+
+    @Override
+    public String getName() {
+        return "blake3";
+    }
+
+    @Override
+    public Hasher newHasher() {
+        return new Blake3Hasher();
+    }
+
+    private static void g(int[] state, int a, int b, int c, int d, int mx, int my) {
+        state[a] = state[a] + state[b] + mx;
+        state[d] = Integer.rotateRight(state[d] ^ state[a], 16);
+        state[c] = state[c] + state[d];
+        state[b] = Integer.rotateRight(state[b] ^ state[c], 12);
+        state[a] = state[a] + state[b] + my;
+        state[d] = Integer.rotateRight(state[d] ^ state[a], 8);
+        state[c] = state[c] + state[d];
+        state[b] = Integer.rotateRight(state[b] ^ state[c], 7);
+    }
+
+    private static void round(int[] state, int[] m) {
+        g(state, 0, 4, 8, 12, m[0], m[1]);
+        g(state, 1, 5, 9, 13, m[2], m[3]);
+        g(state, 2, 6, 10, 14, m[4], m[5]);
+        g(state, 3, 7, 11, 15, m[6], m[7]);
+        g(state, 0, 5, 10, 15, m[8], m[9]);
+        g(state, 1, 6, 11, 12, m[10], m[11]);
+        g(state, 2, 7, 8, 13, m[12], m[13]);
+        g(state, 3, 4, 9, 14, m[14], m[15]);
+    }
+
+    private static int[] compress(int[] chainingValue, int[] blockWords, long counter, int blockLen, int flags) {
+        int[] state = {
+                chainingValue[0], chainingValue[1], chainingValue[2], chainingValue[3],
+                chainingValue[4], chainingValue[5], chainingValue[6], chainingValue[7],
+                IV[0], IV[1], IV[2], IV[3],
+                (int) counter, (int) (counter >>> 32), blockLen, flags
+        };
+        int[] block = blockWords.clone();
+        int[] permuted = new int[16];
+        for (int i = 0; i < 7; i++) {
+            round(state, block);
+            if (i < 6) {
+                for (int j = 0; j < 16; j++) {
+                    permuted[j] = block[MSG_PERMUTATION[j]];
+                }
+                int[] swap = block;
+                block = permuted;
+                permuted = swap;
+            }
+        }
+        for (int i = 0; i < 8; i++) {
+            state[i] ^= state[i + 8];
+            state[i + 8] ^= chainingValue[i];
+        }
+        return state;
+    }
+
+    private static int[] first8(int[] words) {
+        int[] result = new int[8];
+        System.arraycopy(words, 0, result, 0, 8);
+        return result;
+    }
+
+    private static int[] wordsFromBlock(byte[] block) {
+        int[] words = new int[16];
+        for (int i = 0; i < 16; i++) {
+            int offset = i * 4;
+            words[i] = (block[offset] & 0xFF)
+                    | (block[offset + 1] & 0xFF) << 8
+                    | (block[offset + 2] & 0xFF) << 16
+                    | (block[offset + 3] & 0xFF) << 24;
+        }
+        return words;
+    }
+
+    private record Output(int[] inputChainingValue, int[] blockWords, long counter, int blockLen, int flags) {
+
+        int[] chainingValue() {
+            return first8(compress(inputChainingValue, blockWords, counter, blockLen, flags));
+        }
+
+        byte[] rootOutputBytes() {
+            int[] words = compress(inputChainingValue, blockWords, 0, blockLen, flags | ROOT);
+            byte[] out = new byte[OUT_LEN];
+            for (int i = 0; i < OUT_LEN / 4; i++) {
+                out[i * 4] = (byte) words[i];
+                out[i * 4 + 1] = (byte) (words[i] >>> 8);
+                out[i * 4 + 2] = (byte) (words[i] >>> 16);
+                out[i * 4 + 3] = (byte) (words[i] >>> 24);
+            }
+            return out;
+        }
+    }
+
+    private static Output parentOutput(int[] leftChildCv, int[] rightChildCv) {
+        int[] blockWords = new int[16];
+        System.arraycopy(leftChildCv, 0, blockWords, 0, 8);
+        System.arraycopy(rightChildCv, 0, blockWords, 8, 8);
+        return new Output(IV, blockWords, 0, BLOCK_LEN, PARENT);
+    }
+
+    private static final class ChunkState {
+        private int[] chainingValue = IV;
+        private final long chunkCounter;
+        private final byte[] block = new byte[BLOCK_LEN];
+        private int blockLen;
+        private int blocksCompressed;
+
+        ChunkState(long chunkCounter) {
+            this.chunkCounter = chunkCounter;
+        }
+
+        int length() {
+            return BLOCK_LEN * blocksCompressed + blockLen;
+        }
+
+        int startFlag() {
+            return blocksCompressed == 0 ? CHUNK_START : 0;
+        }
+
+        void update(ByteBuffer input, int length) {
+            int remaining = length;
+            while (remaining > 0) {
+                if (blockLen == BLOCK_LEN) {
+                    chainingValue = first8(compress(chainingValue, wordsFromBlock(block), chunkCounter, BLOCK_LEN, startFlag()));
+                    blocksCompressed++;
+                    blockLen = 0;
+                }
+                int take = Math.min(BLOCK_LEN - blockLen, remaining);
+                input.get(block, blockLen, take);
+                blockLen += take;
+                remaining -= take;
+            }
+        }
+
+        Output output() {
+            byte[] lastBlock = new byte[BLOCK_LEN];
+            System.arraycopy(block, 0, lastBlock, 0, blockLen);
+            return new Output(chainingValue, wordsFromBlock(lastBlock), chunkCounter, blockLen, startFlag() | CHUNK_END);
+        }
+    }
+
+    private static final class Blake3Hasher implements Hasher {
+        private ChunkState chunkState = new ChunkState(0);
+        private final int[][] chainingValueStack = new int[54][];
+        private int stackLength;
+
+        @Override
+        public void update(ByteBuffer data) {
+            while (data.hasRemaining()) {
+                if (chunkState.length() == CHUNK_LEN) {
+                    int[] chunkCv = chunkState.output().chainingValue();
+                    long totalChunks = chunkState.chunkCounter + 1;
+                    addChunkChainingValue(chunkCv, totalChunks);
+                    chunkState = new ChunkState(totalChunks);
+                }
+                int take = Math.min(CHUNK_LEN - chunkState.length(), data.remaining());
+                chunkState.update(data, take);
+            }
+        }
+
+        private void addChunkChainingValue(int[] chainingValue, long totalChunks) {
+            int[] newCv = chainingValue;
+            while ((totalChunks & 1) == 0) {
+                newCv = parentOutput(chainingValueStack[--stackLength], newCv).chainingValue();
+                totalChunks >>= 1;
+            }
+            chainingValueStack[stackLength++] = newCv;
+        }
+
+        @Override
+        public byte[] digest() {
+            Output output = chunkState.output();
+            for (int i = stackLength - 1; i >= 0; i--) {
+                output = parentOutput(chainingValueStack[i], output.chainingValue());
+            }
+            return output.rootOutputBytes();
+        }
+    }
+}
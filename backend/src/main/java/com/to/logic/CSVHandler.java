@@ -1,6 +1,9 @@
 package com.to.logic;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 
@@ -9,11 +12,24 @@ public class CSVHandler {
         ClassLoader classLoader = CSVHandler.class.getClassLoader();
         try (InputStream inputStream = classLoader.getResourceAsStream("versions_keywords.csv");
              BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-            String line = reader.readLine();
-            return Arrays.asList(line.split(","));
+            return parseKeywords(reader);
         } catch (IOException e) {
             e.printStackTrace();
             return List.of();
         }
     }
+
+    public static List<String> getKeywords(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parseKeywords(reader);
+        }
+    }
+
+    private static List<String> parseKeywords(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return List.of();
+        }
+        return Arrays.asList(line.split(","));
+    }
 }
@@ -0,0 +1,49 @@
+package com.to.logic;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Lock-free disjoint sets over 0..size-1. Roots are always linked under the smaller index, so parents only ever
+// point downwards (no cycles) and every set ends up rooted at its smallest member, whatever order unions ran in.
+public class ConcurrentUnionFind {
+    private final AtomicIntegerArray parent;
+
+    public ConcurrentUnionFind(int size) {
+        parent = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    public int find(int element) {
+        int current = element;
+        while (true) {
+            int next = parent.get(current);
+            if (next == current) {
+                return current;
+            }
+            int grandparent = parent.get(next);
+            // path halving; losing the race only means a longer path next time
+            parent.compareAndSet(current, next, grandparent);
+            current = grandparent;
+        }
+    }
+
+    public void union(int first, int second) {
+        while (true) {
+            int firstRoot = find(first);
+            int secondRoot = find(second);
+            if (firstRoot == secondRoot) {
+                return;
+            }
+            int lower = Math.min(firstRoot, secondRoot);
+            int higher = Math.max(firstRoot, secondRoot);
+            if (parent.compareAndSet(higher, higher, lower)) {
+                return;
+            }
+        }
+    }
+
+    public int size() {
+        return parent.length();
+    }
+}
@@ -0,0 +1,25 @@
+package com.to.logic;
+
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Objects;
+
+public record DigestKey(String algorithm, byte[] digest) {
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DigestKey other)) return false;
+        return Objects.equals(algorithm, other.algorithm) && Arrays.equals(digest, other.digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(algorithm) + Arrays.hashCode(digest);
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + ":" + HexFormat.of().formatHex(digest);
+    }
+}
@@ -0,0 +1,152 @@
+package com.to.logic;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Builds directory hashes bottom-up while a ParallelFileWalker runs. A directory completes once the walk has left it
+// and all of its files and subdirectories have completed, whatever order the workers finish in; it then adds itself
+// to its parent. The Merkle hash covers every entry's name, kind and hash, so equal hashes mean equal subtrees as far
+// as the file hashes go: a file only sampled by its partial hash enters as such, and fullyHashed tells whether the
+// subtree held any. The MinHash covers the partial hashes of all files below and estimates how much two subtrees share.
+public class DirectoryHashRollup implements ParallelFileWalker.DirectoryListener {
+
+    public record CompletedDirectory(Path path, byte[] merkleHash, boolean fullyHashed, long fileCount, long totalSize,
+                                     int[] minHash) {
+    }
+
+    // kind is 'D' for a subdirectory, 'F' for a fully hashed file and 'P' for a file with only a partial hash
+    private record Entry(String name, char kind, byte[] hash) {
+    }
+
+    private static class Node {
+        private final Path path;
+        private final Node parent;
+        private final List<Entry> entries = new ArrayList<>();
+        // one for the walk itself, one for every queued file and entered subdirectory
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final int[] minHash;
+        private long fileCount;
+        private long totalSize;
+        private boolean incomplete;
+        private boolean sampled;
+
+        private Node(Path path, Node parent, int[] minHash) {
+            this.path = path;
+            this.parent = parent;
+            this.minHash = minHash;
+        }
+    }
+
+    private final HashAlgorithm algorithm;
+    private final MinHasher minHasher;
+    private final Consumer<CompletedDirectory> completed;
+    private final Map<Path, Node> openDirectories = new ConcurrentHashMap<>();
+
+    public DirectoryHashRollup(HashAlgorithm algorithm, MinHasher minHasher, Consumer<CompletedDirectory> completed) {
+        this.algorithm = algorithm;
+        this.minHasher = minHasher;
+        this.completed = completed;
+    }
+
+    @Override
+    public void directoryEntered(Path dir) {
+        Node parent = openDirectories.get(dir.getParent());
+        if (parent != null) {
+            parent.pending.incrementAndGet();
+        }
+        openDirectories.put(dir, new Node(dir, parent, minHasher.emptySignature()));
+    }
+
+    @Override
+    public void fileQueued(Path file) {
+        openDirectories.get(file.getParent()).pending.incrementAndGet();
+    }
+
+    @Override
+    public void directoryLeft(Path dir) {
+        release(openDirectories.get(dir));
+    }
+
+    // partialHash is null when the file could not be read; its directory and all above it then get no Merkle hash.
+    // fullHash is null when the file has not been hashed in full yet.
+    public void fileCompleted(Path file, long size, byte[] partialHash, byte[] fullHash) {
+        Node node = openDirectories.get(file.getParent());
+        synchronized (node) {
+            if (partialHash == null) {
+                node.incomplete = true;
+            } else {
+                byte[] contentHash = fullHash != null ? fullHash : partialHash;
+                node.entries.add(new Entry(file.getFileName().toString(), fullHash != null ? 'F' : 'P',
+                        ByteBuffer.allocate(contentHash.length + Long.BYTES).put(contentHash).putLong(size).array()));
+                node.sampled |= fullHash == null;
+                minHasher.add(node.minHash, contentElement(size, partialHash));
+            }
+            node.fileCount++;
+            node.totalSize += size;
+        }
+        release(node);
+    }
+
+    private void release(Node node) {
+        if (node.pending.decrementAndGet() > 0) {
+            return;
+        }
+        openDirectories.remove(node.path);
+        byte[] merkleHash;
+        synchronized (node) {
+            merkleHash = node.incomplete ? null : merkleHash(node.entries);
+        }
+        completed.accept(new CompletedDirectory(node.path, merkleHash, !node.sampled, node.fileCount, node.totalSize,
+                node.minHash));
+
+        Node parent = node.parent;
+        if (parent == null) {
+            return;
+        }
+        synchronized (parent) {
+            if (merkleHash == null) {
+                parent.incomplete = true;
+            } else {
+                parent.entries.add(new Entry(node.path.getFileName().toString(), 'D', merkleHash));
+            }
+            parent.sampled |= node.sampled;
+            MinHasher.merge(parent.minHash, node.minHash);
+            parent.fileCount += node.fileCount;
+            parent.totalSize += node.totalSize;
+        }
+        release(parent);
+    }
+
+    // Files are set elements by content alone, so renamed copies still count as shared.
+    private static long contentElement(long size, byte[] contentHash) {
+        long element = size;
+        for (byte b : contentHash) {
+            element = element * 31 + b;
+        }
+        return element;
+    }
+
+    private byte[] merkleHash(List<Entry> entries) {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(Entry::name));
+        HashAlgorithm.Hasher hasher = algorithm.newHasher();
+        for (Entry entry : sorted) {
+            byte[] name = entry.name().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocate(1 + Integer.BYTES + name.length + Integer.BYTES + entry.hash().length);
+            buffer.put((byte) entry.kind())
+                    .putInt(name.length).put(name)
+                    .putInt(entry.hash().length).put(entry.hash())
+                    .flip();
+            hasher.update(buffer);
+        }
+        return hasher.digest();
+    }
+}
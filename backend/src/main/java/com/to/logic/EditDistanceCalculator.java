@@ -1,26 +1,133 @@
 package com.to.logic;
 
 public class EditDistanceCalculator {
+    private static final int ASCII = 128;
+
+    // Per-thread scratch space so repeated calls don't allocate: the Myers match masks and the two DP rows.
+    private static final ThreadLocal<long[]> PATTERN_MASKS = ThreadLocal.withInitial(() -> new long[ASCII]);
+    private static final ThreadLocal<int[][]> ROWS = ThreadLocal.withInitial(() -> new int[2][0]);
 
     public static int calculate(String str1, String str2) {
-        int[][] dp = new int[str1.length() + 1][str2.length() + 1];
-
-        for (int i = 0; i <= str1.length(); i++) {
-            for (int j = 0; j <= str2.length(); j++) {
-                if (i == 0) {
-                    dp[i][j] = j;
-                } else if (j == 0) {
-                    dp[i][j] = i;
-                } else if (str1.charAt(i - 1) == str2.charAt(j - 1)) {
-                    dp[i][j] = dp[i - 1][j - 1];
-                } else {
-                    dp[i][j] = 1 + Math.min(dp[i - 1][j - 1],
-                            Math.min(dp[i - 1][j], dp[i][j - 1]));
+        return calculate(str1, str2, Math.max(str1.length(), str2.length()));
+    }
+
+    // Returns the edit distance if it is at most max, otherwise max + 1.
+    public static int calculate(String str1, String str2, int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("max must not be negative: " + max);
+        }
+        String shorter = str1.length() <= str2.length() ? str1 : str2;
+        String longer = shorter == str1 ? str2 : str1;
+        max = Math.min(max, longer.length());
+        if (longer.length() - shorter.length() > max) {
+            return max + 1;
+        }
+        if (shorter.isEmpty()) {
+            return longer.length();
+        }
+        if (shorter.length() <= Long.SIZE) {
+            return myers(shorter, longer, max);
+        }
+        return banded(shorter, longer, max);
+    }
+
+    // Hyyrö's formulation of Myers' bit-vector algorithm: one 64-bit word holds a whole DP column of the pattern.
+    private static int myers(String pattern, String text, int max) {
+        int m = pattern.length();
+        int n = text.length();
+        long[] masks = PATTERN_MASKS.get();
+        for (int i = 0; i < m; i++) {
+            char c = pattern.charAt(i);
+            if (c < ASCII) {
+                masks[c] |= 1L << i;
+            }
+        }
+
+        try {
+            long last = 1L << (m - 1);
+            long pv = -1L;
+            long mv = 0L;
+            int score = m;
+            for (int j = 0; j < n; j++) {
+                char c = text.charAt(j);
+                long eq = c < ASCII ? masks[c] : matchMask(pattern, c);
+                long xv = eq | mv;
+                long xh = (((eq & pv) + pv) ^ pv) | eq;
+                long ph = mv | ~(xh | pv);
+                long mh = pv & xh;
+                if ((ph & last) != 0) {
+                    score++;
+                } else if ((mh & last) != 0) {
+                    score--;
+                }
+                // the score can drop by at most one per remaining text character
+                if (score - (n - j - 1) > max) {
+                    return max + 1;
+                }
+                ph = (ph << 1) | 1L;
+                mh <<= 1;
+                pv = mh | ~(xv | ph);
+                mv = ph & xv;
+            }
+            return score <= max ? score : max + 1;
+        } finally {
+            for (int i = 0; i < m; i++) {
+                char c = pattern.charAt(i);
+                if (c < ASCII) {
+                    masks[c] = 0L;
                 }
             }
         }
+    }
 
-        return dp[str1.length()][str2.length()];
+    private static long matchMask(String pattern, char c) {
+        long mask = 0L;
+        for (int i = 0; i < pattern.length(); i++) {
+            if (pattern.charAt(i) == c) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
     }
-}
 
+    // Ukkonen's cut-off: only cells within max of the diagonal can lead to a distance <= max.
+    private static int banded(String str1, String str2, int max) {
+        int m = str1.length();
+        int n = str2.length();
+        int outside = max + 1;
+        int[][] rows = ROWS.get();
+        if (rows[0].length < n + 1) {
+            rows[0] = new int[n + 1];
+            rows[1] = new int[n + 1];
+        }
+        int[] previous = rows[0];
+        int[] current = rows[1];
+
+        for (int j = 0; j <= n; j++) {
+            previous[j] = Math.min(j, outside);
+        }
+        for (int i = 1; i <= m; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(n, i + max);
+            current[from - 1] = from == 1 ? Math.min(i, outside) : outside;
+            int rowMin = current[from - 1];
+            char c = str1.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int value = previous[j - 1] + (c == str2.charAt(j - 1) ? 0 : 1);
+                value = Math.min(value, Math.min(previous[j], current[j - 1]) + 1);
+                current[j] = Math.min(value, outside);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < n) {
+                current[to + 1] = outside;
+            }
+            if (rowMin > max) {
+                return outside;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[n];
+    }
+}
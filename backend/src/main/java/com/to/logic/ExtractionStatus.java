@@ -0,0 +1,10 @@
+package com.to.logic;
+
+public enum ExtractionStatus {
+    SUCCESS,
+    TRUNCATED,
+    FAILED,
+    TIMED_OUT,
+    // the extraction pool stayed full; nothing was extracted and nothing is stored, so the next scan tries again
+    BUSY
+}
@@ -0,0 +1,72 @@
+package com.to.logic;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+public class FileHasher {
+    public static final int PARTIAL_SAMPLE_BYTES = 4 * 1024;
+    private static final int READ_BUFFER_BYTES = 1024 * 1024;
+    private static final BlockingQueue<ByteBuffer> READ_BUFFERS = new ArrayBlockingQueue<>(64);
+
+    public static byte[] fullHash(File file, HashAlgorithm algorithm) throws IOException {
+        HashAlgorithm.Hasher hasher = algorithm.newHasher();
+        ByteBuffer buffer = borrowBuffer();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                hasher.update(buffer);
+                buffer.clear();
+            }
+        } finally {
+            returnBuffer(buffer);
+        }
+        return hasher.digest();
+    }
+
+    // Hashes the first and last PARTIAL_SAMPLE_BYTES of the file, which is the whole file when it is small enough.
+    public static byte[] partialHash(File file, HashAlgorithm algorithm) throws IOException {
+        HashAlgorithm.Hasher hasher = algorithm.newHasher();
+        ByteBuffer buffer = ByteBuffer.allocate(PARTIAL_SAMPLE_BYTES);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            readAt(channel, 0, buffer);
+            hasher.update(buffer);
+            if (length > PARTIAL_SAMPLE_BYTES) {
+                readAt(channel, Math.max(PARTIAL_SAMPLE_BYTES, length - PARTIAL_SAMPLE_BYTES), buffer);
+                hasher.update(buffer);
+            }
+        }
+        return hasher.digest();
+    }
+
+    public static boolean isCoveredByPartialHash(long size) {
+        return size <= 2L * PARTIAL_SAMPLE_BYTES;
+    }
+
+    private static void readAt(FileChannel channel, long offset, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read == -1) {
+                break;
+            }
+            position += read;
+        }
+        buffer.flip();
+    }
+
+    private static ByteBuffer borrowBuffer() {
+        ByteBuffer buffer = READ_BUFFERS.poll();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+    }
+
+    private static void returnBuffer(ByteBuffer buffer) {
+        READ_BUFFERS.offer(buffer);
+    }
+}
@@ -0,0 +1,7 @@
+package com.to.logic;
+
+public enum FileNameMatchMode {
+    PREFIX,
+    SUBSTRING,
+    FUZZY
+}
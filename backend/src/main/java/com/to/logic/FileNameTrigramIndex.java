@@ -0,0 +1,229 @@
+package com.to.logic;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+// Trigram postings over lower-cased file names, so prefix, substring and edit-distance lookups only verify names
+// sharing the query's trigrams instead of scanning all of them. Every path owns a slot and slots are only ever
+// appended, which keeps each posting list sorted. Removed slots stay in the postings and are skipped until they
+// make up half of all slots, when the postings are rebuilt. Not thread-safe.
+public class FileNameTrigramIndex {
+    // marks the start of a name so that prefixes of two or more characters have a trigram of their own
+    private static final char START = '\0';
+    private static final int MIN_COMPACTION_SLOTS = 1024;
+
+    private final Map<String, Integer> slotsByPath = new HashMap<>();
+    private List<String> paths = new ArrayList<>();
+    private List<String> names = new ArrayList<>();
+    private Map<Long, Postings> postings = new HashMap<>();
+    private int removed;
+
+    public void put(String path, String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        Integer slot = slotsByPath.get(path);
+        if (slot != null) {
+            if (names.get(slot).equals(key)) {
+                return;
+            }
+            remove(path);
+        }
+        add(path, key);
+    }
+
+    public void remove(String path) {
+        Integer slot = slotsByPath.remove(path);
+        if (slot == null) {
+            return;
+        }
+        paths.set(slot, null);
+        names.set(slot, null);
+        removed++;
+        if (removed >= MIN_COMPACTION_SLOTS && removed * 2 >= paths.size()) {
+            compact();
+        }
+    }
+
+    public void clear() {
+        slotsByPath.clear();
+        paths = new ArrayList<>();
+        names = new ArrayList<>();
+        postings = new HashMap<>();
+        removed = 0;
+    }
+
+    public int size() {
+        return slotsByPath.size();
+    }
+
+    // Paths of names starting with query, in insertion order.
+    public List<String> prefix(String query, int limit) {
+        String key = query.toLowerCase(Locale.ROOT);
+        return collect(trigrams(START + key), limit, name -> name.startsWith(key));
+    }
+
+    // Paths of names containing query, in insertion order.
+    public List<String> substring(String query, int limit) {
+        String key = query.toLowerCase(Locale.ROOT);
+        return collect(trigrams(key), limit, name -> name.contains(key));
+    }
+
+    // Paths of names within maxDistance edits of query, closest first. A name also matches by its part before the
+    // extension, so "reprot" finds report.pdf. A single edit changes at most three of the query's trigrams, so a
+    // match lacks at most 3 * maxDistance of them and therefore appears in one of the 3 * maxDistance + 1 shortest
+    // posting lists. Only those are walked, and each name on them is verified with the bounded edit distance.
+    // Queries too short for the bound are verified against every name.
+    public List<String> fuzzy(String query, int maxDistance, int limit) {
+        String key = query.toLowerCase(Locale.ROOT);
+        Set<Long> queryTrigrams = trigrams(key);
+        int maxMissing = 3 * maxDistance;
+
+        List<int[]> matches = new ArrayList<>();
+        if (queryTrigrams.size() <= maxMissing) {
+            for (int slot = 0; slot < names.size(); slot++) {
+                addIfClose(matches, slot, key, maxDistance);
+            }
+        } else {
+            List<Postings> lists = new ArrayList<>();
+            for (Long trigram : queryTrigrams) {
+                lists.add(postings.getOrDefault(trigram, Postings.EMPTY));
+            }
+            lists.sort(Comparator.comparingInt(slots -> slots.size));
+            // the lists are sorted, so merging them visits every candidate once
+            int[] positions = new int[maxMissing + 1];
+            while (true) {
+                int slot = Integer.MAX_VALUE;
+                for (int i = 0; i <= maxMissing; i++) {
+                    Postings slots = lists.get(i);
+                    if (positions[i] < slots.size) {
+                        slot = Math.min(slot, slots.slots[positions[i]]);
+                    }
+                }
+                if (slot == Integer.MAX_VALUE) {
+                    break;
+                }
+                for (int i = 0; i <= maxMissing; i++) {
+                    Postings slots = lists.get(i);
+                    if (positions[i] < slots.size && slots.slots[positions[i]] == slot) {
+                        positions[i]++;
+                    }
+                }
+                addIfClose(matches, slot, key, maxDistance);
+            }
+        }
+        matches.sort(Comparator.<int[]>comparingInt(match -> match[1]).thenComparingInt(match -> match[0]));
+        List<String> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < Math.min(limit, matches.size()); i++) {
+            result.add(paths.get(matches.get(i)[0]));
+        }
+        return result;
+    }
+
+    private void addIfClose(List<int[]> matches, int slot, String key, int maxDistance) {
+        String name = names.get(slot);
+        if (name == null) {
+            return;
+        }
+        int dot = name.lastIndexOf('.');
+        boolean nameFits = Math.abs(name.length() - key.length()) <= maxDistance;
+        boolean baseFits = dot > 0 && Math.abs(dot - key.length()) <= maxDistance;
+        if (!nameFits && !baseFits) {
+            return;
+        }
+        int distance = nameFits ? EditDistanceCalculator.calculate(key, name, maxDistance) : maxDistance + 1;
+        if (distance > 0 && baseFits) {
+            distance = Math.min(distance, EditDistanceCalculator.calculate(key, name.substring(0, dot), maxDistance));
+        }
+        if (distance <= maxDistance) {
+            matches.add(new int[]{slot, distance});
+        }
+    }
+
+    private List<String> collect(Set<Long> queryTrigrams, int limit, Predicate<String> matches) {
+        List<String> result = new ArrayList<>();
+        if (queryTrigrams.isEmpty()) {
+            for (int slot = 0; slot < names.size() && result.size() < limit; slot++) {
+                if (names.get(slot) != null && matches.test(names.get(slot))) {
+                    result.add(paths.get(slot));
+                }
+            }
+            return result;
+        }
+
+        List<Postings> lists = new ArrayList<>();
+        for (Long trigram : queryTrigrams) {
+            Postings slots = postings.get(trigram);
+            if (slots == null) {
+                return result;
+            }
+            lists.add(slots);
+        }
+        lists.sort(Comparator.comparingInt(slots -> slots.size));
+        Postings shortest = lists.get(0);
+        for (int i = 0; i < shortest.size && result.size() < limit; i++) {
+            int slot = shortest.slots[i];
+            if (names.get(slot) == null || !inAll(lists, slot)) {
+                continue;
+            }
+            if (matches.test(names.get(slot))) {
+                result.add(paths.get(slot));
+            }
+        }
+        return result;
+    }
+
+    private static boolean inAll(List<Postings> lists, int slot) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(slot)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(String path, String key) {
+        int slot = paths.size();
+        paths.add(path);
+        names.add(key);
+        slotsByPath.put(path, slot);
+        for (Long trigram : trigrams(START + key)) {
+            postings.computeIfAbsent(trigram, t -> new Postings()).add(slot);
+        }
+    }
+
+    private void compact() {
+        List<String> livePaths = paths;
+        List<String> liveNames = names;
+        clear();
+        for (int slot = 0; slot < livePaths.size(); slot++) {
+            if (livePaths.get(slot) != null) {
+                add(livePaths.get(slot), liveNames.get(slot));
+            }
+        }
+    }
+
+    private static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    private static class Postings {
+        private static final Postings EMPTY = new Postings();
+
+        private int[] slots = new int[2];
+        private int size;
+
+        private void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        private boolean contains(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.to.logic;
+
+import java.nio.ByteBuffer;
+
+// Implementations are looked up by name through HashAlgorithms; extra ones can be added with ServiceLoader.
+public interface HashAlgorithm {
+
+    String getName();
+
+    Hasher newHasher();
+
+    interface Hasher {
+        void update(ByteBuffer data);
+
+        byte[] digest();
+    }
+}
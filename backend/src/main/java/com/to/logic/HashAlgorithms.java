@@ -0,0 +1,36 @@
+package com.to.logic;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+public class HashAlgorithms {
+    private static final Map<String, HashAlgorithm> ALGORITHMS = new LinkedHashMap<>();
+
+    static {
+        register(new MessageDigestHashAlgorithm("md5", "MD5"));
+        register(new MessageDigestHashAlgorithm("sha-256", "SHA-256"));
+        register(new XxHash64Algorithm());
+        register(new Blake3Algorithm());
+        for (HashAlgorithm algorithm : ServiceLoader.load(HashAlgorithm.class)) {
+            register(algorithm);
+        }
+    }
+
+    public static HashAlgorithm forName(String name) {
+        HashAlgorithm algorithm = ALGORITHMS.get(name.toLowerCase());
+        if (algorithm == null) {
+            throw new IllegalArgumentException("Unsupported hash algorithm: " + name + ", expected one of " + names());
+        }
+        return algorithm;
+    }
+
+    public static Set<String> names() {
+        return ALGORITHMS.keySet();
+    }
+
+    private static void register(HashAlgorithm algorithm) {
+        ALGORITHMS.put(algorithm.getName().toLowerCase(), algorithm);
+    }
+}
@@ -0,0 +1,9 @@
+package com.to.logic;
+
+public enum HashLevel {
+    NONE,
+    PARTIAL,
+    FULL,
+    // hashing failed, e.g. the file was unreadable; retried once a scan indexes the file again
+    UNREADABLE
+}
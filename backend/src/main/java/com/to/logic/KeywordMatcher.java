@@ -0,0 +1,120 @@
+package com.to.logic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Aho-Corasick automaton over the version keywords: finds every keyword occurrence in one pass over a name.
+// Overlapping matches are resolved leftmost first, longest first, like repeated String.replace would for a single keyword.
+public class KeywordMatcher {
+    private static final int[] NO_OUTPUTS = new int[0];
+
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final List<int[]> outputs = new ArrayList<>();
+    private int[] failure;
+
+    public KeywordMatcher(List<String> keywords) {
+        addState();
+        for (String keyword : keywords) {
+            if (keyword.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                Integer next = transitions.get(state).get(c);
+                if (next == null) {
+                    next = addState();
+                    transitions.get(state).put(c, next);
+                }
+                state = next;
+            }
+            outputs.set(state, append(outputs.get(state), keyword.length()));
+        }
+        buildFailureLinks();
+    }
+
+    public String strip(String text) {
+        if (text == null || transitions.get(0).isEmpty()) {
+            return text;
+        }
+        // best match length starting at each index
+        int[] matchLength = null;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            for (int length : outputs.get(state)) {
+                if (matchLength == null) {
+                    matchLength = new int[text.length()];
+                }
+                int start = i - length + 1;
+                matchLength[start] = Math.max(matchLength[start], length);
+            }
+        }
+        if (matchLength == null) {
+            return text;
+        }
+
+        StringBuilder stripped = new StringBuilder(text.length());
+        int i = 0;
+        while (i < text.length()) {
+            if (matchLength[i] > 0) {
+                i += matchLength[i];
+            } else {
+                stripped.append(text.charAt(i++));
+            }
+        }
+        return stripped.toString();
+    }
+
+    private int next(int state, char c) {
+        while (true) {
+            Integer next = transitions.get(state).get(c);
+            if (next != null) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failure[state];
+        }
+    }
+
+    private void buildFailureLinks() {
+        failure = new int[transitions.size()];
+        Deque<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                int child = edge.getValue();
+                int fallback = failure[state];
+                while (fallback != 0 && !transitions.get(fallback).containsKey(edge.getKey())) {
+                    fallback = failure[fallback];
+                }
+                Integer target = transitions.get(fallback).get(edge.getKey());
+                failure[child] = target != null && target != child ? target : 0;
+                // a state also reports every keyword that is a suffix of it
+                for (int length : outputs.get(failure[child])) {
+                    outputs.set(child, append(outputs.get(child), length));
+                }
+                queue.add(child);
+            }
+        }
+    }
+
+    private int addState() {
+        transitions.add(new HashMap<>());
+        outputs.add(NO_OUTPUTS);
+        return transitions.size() - 1;
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] extended = Arrays.copyOf(values, values.length + 1);
+        extended[values.length] = value;
+        return extended;
+    }
+}
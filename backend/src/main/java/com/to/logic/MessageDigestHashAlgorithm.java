@@ -0,0 +1,41 @@
+package com.to.logic;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class MessageDigestHashAlgorithm implements HashAlgorithm {
+    private final String name;
+    private final String jcaName;
+
+    public MessageDigestHashAlgorithm(String name, String jcaName) {
+        this.name = name;
+        this.jcaName = jcaName;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Hasher newHasher() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(jcaName);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Hash algorithm not available: " + jcaName, e);
+        }
+        return new Hasher() {
+            @Override
+            public void update(ByteBuffer data) {
+                digest.update(data);
+            }
+
+            @Override
+            public byte[] digest() {
+                return digest.digest();
+            }
+        };
+    }
+}
@@ -0,0 +1,152 @@
+package com.to.logic;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// MinHash signatures over shingles of consecutive words, split into LSH bands. Two texts whose shingle sets have
+// Jaccard similarity s agree on a signature slot with probability s, and share at least one band key with
+// probability 1 - (1 - s^rows)^bands. Seeds are fixed, so signatures stay comparable across restarts.
+public class MinHasher {
+    private static final long SEED = 0x5DEECE66DL;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int shingleSize;
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+
+    public MinHasher(int shingleSize, int bands, int rows) {
+        if (shingleSize < 1 || bands < 1 || rows < 1) {
+            throw new IllegalArgumentException("Shingle size, bands and rows must be positive");
+        }
+        this.shingleSize = shingleSize;
+        this.bands = bands;
+        this.rows = rows;
+        this.seeds = new long[bands * rows];
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+    }
+
+    public int getSignatureLength() {
+        return seeds.length;
+    }
+
+    // Words are maximal runs of letters and digits, compared case-insensitively. A text shorter than one shingle
+    // is a single shingle; a text without words has no signature (null).
+    public int[] signature(String text) {
+        int[] signature = emptySignature();
+        long[] window = new long[shingleSize];
+        long words = 0;
+        long wordHash = FNV_OFFSET;
+        boolean inWord = false;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                wordHash = (wordHash ^ Character.toLowerCase(c)) * FNV_PRIME;
+                inWord = true;
+                continue;
+            }
+            if (!inWord) {
+                continue;
+            }
+            window[(int) (words % shingleSize)] = wordHash;
+            words++;
+            wordHash = FNV_OFFSET;
+            inWord = false;
+            if (words >= shingleSize) {
+                addShingle(signature, window, words, shingleSize);
+            }
+        }
+        if (words == 0) {
+            return null;
+        }
+        if (words < shingleSize) {
+            addShingle(signature, window, words, (int) words);
+        }
+        return signature;
+    }
+
+    // Signatures of sets built element by element: the signature of a union is the slot-wise minimum of the parts.
+    public int[] emptySignature() {
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        return signature;
+    }
+
+    public void add(int[] signature, long element) {
+        long base = mix(element);
+        for (int i = 0; i < seeds.length; i++) {
+            // 31 bits keep the minimum a plain signed comparison
+            int value = (int) (mix(base ^ seeds[i]) >>> 33);
+            if (value < signature[i]) {
+                signature[i] = value;
+            }
+        }
+    }
+
+    public static void merge(int[] signature, int[] other) {
+        for (int i = 0; i < signature.length; i++) {
+            signature[i] = Math.min(signature[i], other[i]);
+        }
+    }
+
+    // One key per band; equal keys mean the band's rows are (almost certainly) equal.
+    public List<Long> bandKeys(int[] signature) {
+        List<Long> keys = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            long key = mix(band + 1);
+            for (int row = band * rows; row < (band + 1) * rows; row++) {
+                key = mix(key ^ signature[row]);
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    // Estimated Jaccard similarity; signatures from a different configuration never match.
+    public static double similarity(int[] first, int[] second) {
+        if (first == null || second == null || first.length != second.length || first.length == 0) {
+            return 0;
+        }
+        int equal = 0;
+        for (int i = 0; i < first.length; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / first.length;
+    }
+
+    public static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    public static int[] fromBytes(byte[] bytes) {
+        int[] signature = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    private void addShingle(int[] signature, long[] window, long words, int length) {
+        long shingle = 0;
+        for (long word = words - length; word < words; word++) {
+            shingle = shingle * FNV_PRIME + window[(int) (word % shingleSize)];
+        }
+        add(signature, shingle);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,145 @@
+package com.to.logic;
+
+import com.to.model.ScanProgress;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Walks the tree on the calling thread and processes files on at most `workers` virtual threads at once.
+// A cancel request on the progress stops the walk; files already handed to a worker still finish.
+public class ParallelFileWalker {
+
+    @FunctionalInterface
+    public interface FileTask {
+        void process(Path file, BasicFileAttributes attrs) throws Exception;
+    }
+
+    // Called on the walking thread: a directory is left once all its entries have been queued, which may be before
+    // its files were processed.
+    public interface DirectoryListener {
+        void directoryEntered(Path dir);
+
+        void fileQueued(Path file);
+
+        void directoryLeft(Path dir);
+    }
+
+    private static final DirectoryListener NO_DIRECTORY_LISTENER = new DirectoryListener() {
+        @Override
+        public void directoryEntered(Path dir) {
+        }
+
+        @Override
+        public void fileQueued(Path file) {
+        }
+
+        @Override
+        public void directoryLeft(Path dir) {
+        }
+    };
+
+    private final int workers;
+
+    public ParallelFileWalker(int workers) {
+        this.workers = Math.max(1, workers);
+    }
+
+    public void walk(Path root, ScanProgress progress, FileTask task) throws IOException, NoSuchAlgorithmException {
+        walk(root, progress, task, NO_DIRECTORY_LISTENER);
+    }
+
+    public void walk(Path root, ScanProgress progress, FileTask task, DirectoryListener directoryListener)
+            throws IOException, NoSuchAlgorithmException {
+        Semaphore permits = new Semaphore(workers);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (failure.get() != null || progress.isCancelRequested()) {
+                        return FileVisitResult.TERMINATE;
+                    }
+                    if (!dir.equals(root) && dir.toFile().isHidden()) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    directoryListener.directoryEntered(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                    if (exc != null) {
+                        throw exc;
+                    }
+                    directoryListener.directoryLeft(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    if (failure.get() != null || progress.isCancelRequested()) {
+                        return FileVisitResult.TERMINATE;
+                    }
+                    if (file.toFile().isHidden()) {
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    progress.recordDiscovered(attrs.size());
+                    try {
+                        permits.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Directory walk interrupted at: " + file);
+                    }
+                    directoryListener.fileQueued(file);
+                    executor.submit(() -> {
+                        try {
+                            task.process(file, attrs);
+                        } catch (Exception e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                    if (exc instanceof FileSystemLoopException) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    throw exc;
+                }
+            });
+            progress.markDiscoveryComplete();
+        }
+
+        Exception e = failure.get();
+        if (e instanceof IOException ioException) {
+            throw ioException;
+        }
+        if (e instanceof NoSuchAlgorithmException algorithmException) {
+            throw algorithmException;
+        }
+        if (e instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (e != null) {
+            throw new IOException("Failed to process directory: " + root, e);
+        }
+    }
+}
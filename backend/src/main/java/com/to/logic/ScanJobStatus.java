@@ -0,0 +1,9 @@
+package com.to.logic;
+
+public enum ScanJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
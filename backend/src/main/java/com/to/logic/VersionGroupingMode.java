@@ -0,0 +1,6 @@
+package com.to.logic;
+
+public enum VersionGroupingMode {
+    GREEDY,
+    TRANSITIVE
+}
@@ -0,0 +1,110 @@
+package com.to.logic;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Streaming XXH64 with seed 0. The digest is the canonical big-endian form of the 64-bit result.
+public class XxHash64Algorithm implements HashAlgorithm {
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+    private static final int STRIPE = 32;
+
+    @Override
+    public String getName() {
+        return "xxh64";
+    }
+
+    @Override
+    public Hasher newHasher() {
+        return new XxHash64Hasher();
+    }
+
+    private static final class XxHash64Hasher implements Hasher {
+        private long v1 = PRIME1 + PRIME2;
+        private long v2 = PRIME2;
+        private long v3 = 0;
+        private long v4 = -PRIME1;
+        private long totalLength;
+        private final ByteBuffer pending = ByteBuffer.allocate(STRIPE).order(ByteOrder.LITTLE_ENDIAN);
+
+        @Override
+        public void update(ByteBuffer data) {
+            ByteBuffer input = data.slice().order(ByteOrder.LITTLE_ENDIAN);
+            totalLength += input.remaining();
+            data.position(data.limit());
+
+            if (pending.position() > 0) {
+                while (pending.hasRemaining() && input.hasRemaining()) {
+                    pending.put(input.get());
+                }
+                if (pending.hasRemaining()) {
+                    return;
+                }
+                pending.flip();
+                consumeStripe(pending);
+                pending.clear();
+            }
+            while (input.remaining() >= STRIPE) {
+                consumeStripe(input);
+            }
+            pending.put(input);
+        }
+
+        private void consumeStripe(ByteBuffer input) {
+            v1 = round(v1, input.getLong());
+            v2 = round(v2, input.getLong());
+            v3 = round(v3, input.getLong());
+            v4 = round(v4, input.getLong());
+        }
+
+        @Override
+        public byte[] digest() {
+            long hash;
+            if (totalLength >= STRIPE) {
+                hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+                hash = mergeRound(hash, v1);
+                hash = mergeRound(hash, v2);
+                hash = mergeRound(hash, v3);
+                hash = mergeRound(hash, v4);
+            } else {
+                hash = PRIME5;
+            }
+            hash += totalLength;
+
+            ByteBuffer tail = pending.flip();
+            while (tail.remaining() >= 8) {
+                hash ^= round(0, tail.getLong());
+                hash = Long.rotateLeft(hash, 27) * PRIME1 + PRIME4;
+            }
+            if (tail.remaining() >= 4) {
+                hash ^= (tail.getInt() & 0xFFFFFFFFL) * PRIME1;
+                hash = Long.rotateLeft(hash, 23) * PRIME2 + PRIME3;
+            }
+            while (tail.hasRemaining()) {
+                hash ^= (tail.get() & 0xFFL) * PRIME5;
+                hash = Long.rotateLeft(hash, 11) * PRIME1;
+            }
+
+            hash ^= hash >>> 33;
+            hash *= PRIME2;
+            hash ^= hash >>> 29;
+            hash *= PRIME3;
+            hash ^= hash >>> 32;
+            return ByteBuffer.allocate(8).putLong(hash).array();
+        }
+
+        private static long round(long acc, long lane) {
+            acc += lane * PRIME2;
+            acc = Long.rotateLeft(acc, 31);
+            return acc * PRIME1;
+        }
+
+        private static long mergeRound(long acc, long value) {
+            acc ^= round(0, value);
+            return acc * PRIME1 + PRIME4;
+        }
+    }
+}
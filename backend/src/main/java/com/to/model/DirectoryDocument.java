@@ -0,0 +1,62 @@
+package com.to.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+// merkleHash is null while the directory is stale (a file below changed outside a scan) or had unreadable files.
+// fullyHashed is false when some file below entered the Merkle hash with only its partial hash.
+@Document(collection = "directories")
+public class DirectoryDocument {
+    @Id
+    private String id;
+    @Indexed(unique = true)
+    private String path;
+    @Indexed
+    private String parentPath;
+    private String name;
+    private String hashAlgorithm;
+    @Indexed
+    private byte[] merkleHash;
+    private boolean fullyHashed;
+    private long fileCount;
+    private long totalSize;
+    private byte[] minHash;
+    @Indexed
+    private List<Long> lshBands;
+    private LocalDateTime scannedAt;
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+    public String getParentPath() { return parentPath; }
+    public void setParentPath(String parentPath) { this.parentPath = parentPath; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getHashAlgorithm() { return hashAlgorithm; }
+    public void setHashAlgorithm(String hashAlgorithm) { this.hashAlgorithm = hashAlgorithm; }
+    @JsonIgnore
+    public byte[] getMerkleHash() { return merkleHash; }
+    public void setMerkleHash(byte[] merkleHash) { this.merkleHash = merkleHash; }
+    public String getHash() { return merkleHash == null ? null : HexFormat.of().formatHex(merkleHash); }
+    public boolean isFullyHashed() { return fullyHashed; }
+    public void setFullyHashed(boolean fullyHashed) { this.fullyHashed = fullyHashed; }
+    public long getFileCount() { return fileCount; }
+    public void setFileCount(long fileCount) { this.fileCount = fileCount; }
+    public long getTotalSize() { return totalSize; }
+    public void setTotalSize(long totalSize) { this.totalSize = totalSize; }
+    @JsonIgnore
+    public byte[] getMinHash() { return minHash; }
+    public void setMinHash(byte[] minHash) { this.minHash = minHash; }
+    @JsonIgnore
+    public List<Long> getLshBands() { return lshBands; }
+    public void setLshBands(List<Long> lshBands) { this.lshBands = lshBands; }
+    public LocalDateTime getScannedAt() { return scannedAt; }
+    public void setScannedAt(LocalDateTime scannedAt) { this.scannedAt = scannedAt; }
+}
@@ -0,0 +1,27 @@
+package com.to.model;
+
+import java.util.List;
+
+// needsRescan is set when the directories' Merkle hashes match but some files below were only partially hashed when
+// they were scanned; full hashes computed since, e.g. by duplicate detection, count once the directories are rescanned.
+public class DirectoryGroup {
+    private boolean identical;
+    private boolean needsRescan;
+    private double similarity;
+    private long totalSize;
+    private long wastedBytes;
+    private List<DirectoryDocument> directories;
+
+    public boolean isIdentical() { return identical; }
+    public void setIdentical(boolean identical) { this.identical = identical; }
+    public boolean isNeedsRescan() { return needsRescan; }
+    public void setNeedsRescan(boolean needsRescan) { this.needsRescan = needsRescan; }
+    public double getSimilarity() { return similarity; }
+    public void setSimilarity(double similarity) { this.similarity = similarity; }
+    public long getTotalSize() { return totalSize; }
+    public void setTotalSize(long totalSize) { this.totalSize = totalSize; }
+    public long getWastedBytes() { return wastedBytes; }
+    public void setWastedBytes(long wastedBytes) { this.wastedBytes = wastedBytes; }
+    public List<DirectoryDocument> getDirectories() { return directories; }
+    public void setDirectories(List<DirectoryDocument> directories) { this.directories = directories; }
+}
@@ -0,0 +1,28 @@
+package com.to.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+public class DuplicateGroup {
+    private String hash;
+    private long size;
+    private int count;
+    private long wastedBytes;
+    private List<String> fileIds;
+    private List<FileDocument> files;
+
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+    public long getWastedBytes() { return wastedBytes; }
+    public void setWastedBytes(long wastedBytes) { this.wastedBytes = wastedBytes; }
+    @JsonIgnore
+    public List<String> getFileIds() { return fileIds; }
+    public void setFileIds(List<String> fileIds) { this.fileIds = fileIds; }
+    public List<FileDocument> getFiles() { return files; }
+    public void setFiles(List<FileDocument> files) { this.files = files; }
+}
@@ -0,0 +1,41 @@
+package com.to.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Document(collection = "extracted_contents")
+public class ExtractedContent {
+    @Id
+    private String id;
+    @TextIndexed
+    private String text;
+    private int textLength;
+    private String status;
+    private String errorMessage;
+    private LocalDateTime extractedAt;
+    private byte[] minHash;
+    @Indexed
+    private List<Long> lshBands;
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+    public int getTextLength() { return textLength; }
+    public void setTextLength(int textLength) { this.textLength = textLength; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    public LocalDateTime getExtractedAt() { return extractedAt; }
+    public void setExtractedAt(LocalDateTime extractedAt) { this.extractedAt = extractedAt; }
+    public byte[] getMinHash() { return minHash; }
+    public void setMinHash(byte[] minHash) { this.minHash = minHash; }
+    public List<Long> getLshBands() { return lshBands; }
+    public void setLshBands(List<Long> lshBands) { this.lshBands = lshBands; }
+}
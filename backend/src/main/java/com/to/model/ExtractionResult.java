@@ -0,0 +1,39 @@
+package com.to.model;
+
+import com.to.logic.ExtractionStatus;
+
+public class ExtractionResult {
+    private final String text;
+    private final ExtractionStatus status;
+    private final String errorMessage;
+
+    private ExtractionResult(String text, ExtractionStatus status, String errorMessage) {
+        this.text = text;
+        this.status = status;
+        this.errorMessage = errorMessage;
+    }
+
+    public static ExtractionResult success(String text) {
+        return new ExtractionResult(text, ExtractionStatus.SUCCESS, null);
+    }
+
+    public static ExtractionResult truncated(String text) {
+        return new ExtractionResult(text, ExtractionStatus.TRUNCATED, null);
+    }
+
+    public static ExtractionResult failed(String errorMessage) {
+        return new ExtractionResult(null, ExtractionStatus.FAILED, errorMessage);
+    }
+
+    public static ExtractionResult timedOut(String errorMessage) {
+        return new ExtractionResult(null, ExtractionStatus.TIMED_OUT, errorMessage);
+    }
+
+    public static ExtractionResult busy(String errorMessage) {
+        return new ExtractionResult(null, ExtractionStatus.BUSY, errorMessage);
+    }
+
+    public String getText() { return text; }
+    public ExtractionStatus getStatus() { return status; }
+    public String getErrorMessage() { return errorMessage; }
+}
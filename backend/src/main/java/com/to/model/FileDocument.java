@@ -1,38 +1,79 @@
 package com.to.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.TextIndexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 
 @Document(collection = "files")
+@CompoundIndexes({
+        @CompoundIndex(name = "size_desc_id_desc", def = "{'size': -1, '_id': -1}"),
+        @CompoundIndex(name = "filePath_id", def = "{'filePath': 1, '_id': 1}")
+})
 public class FileDocument {
     @Id
     private String id;
     private String fileName;
+    @Indexed
+    private String normalizedName;
+    @Indexed
     private String filePath;
     private long size;
     private String hash;
+    private String hashAlgorithm;
+    @Indexed
+    private byte[] digest;
+    private byte[] partialDigest;
+    private String hashLevel;
     private LocalDateTime createdAt;
     private LocalDateTime lastModified;
-    @TextIndexed
+    private String fileKey;
+    @Indexed
+    private String contentRef;
+    // Inline text of files indexed before extracted_contents existed; FileContentService.migrateInlineContent
+    // moves it out. Lists and analyses load documents without it.
     private String content;
+    private String extractionStatus;
+    private String extractionError;
 
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
     public String getFileName() { return fileName; }
     public void setFileName(String fileName) { this.fileName = fileName; }
+    public String getNormalizedName() { return normalizedName; }
+    public void setNormalizedName(String normalizedName) { this.normalizedName = normalizedName; }
     public String getFilePath() { return filePath; }
     public void setFilePath(String filePath) { this.filePath = filePath; }
     public long getSize() { return size; }
     public void setSize(long size) { this.size = size; }
-    public String getHash() { return hash; }
+    public String getHash() { return digest != null ? HexFormat.of().formatHex(digest) : hash; }
     public void setHash(String hash) { this.hash = hash; }
+    public String getHashAlgorithm() { return hashAlgorithm; }
+    public void setHashAlgorithm(String hashAlgorithm) { this.hashAlgorithm = hashAlgorithm; }
+    public byte[] getDigest() { return digest; }
+    public void setDigest(byte[] digest) { this.digest = digest; }
+    public byte[] getPartialDigest() { return partialDigest; }
+    public void setPartialDigest(byte[] partialDigest) { this.partialDigest = partialDigest; }
+    public String getHashLevel() { return hashLevel; }
+    public void setHashLevel(String hashLevel) { this.hashLevel = hashLevel; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public LocalDateTime getLastModified() { return lastModified; }
     public void setLastModified(LocalDateTime lastModified) { this.lastModified = lastModified; }
+    public String getFileKey() { return fileKey; }
+    public void setFileKey(String fileKey) { this.fileKey = fileKey; }
+    public String getContentRef() { return contentRef; }
+    public void setContentRef(String contentRef) { this.contentRef = contentRef; }
+    @JsonIgnore
     public String getContent() { return content; }
     public void setContent(String content) { this.content = content; }
+    public String getExtractionStatus() { return extractionStatus; }
+    public void setExtractionStatus(String extractionStatus) { this.extractionStatus = extractionStatus; }
+    public String getExtractionError() { return extractionError; }
+    public void setExtractionError(String extractionError) { this.extractionError = extractionError; }
 }
@@ -0,0 +1,73 @@
+package com.to.model;
+
+import com.to.logic.ScanJobStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public class ScanJob {
+    private final String id;
+    private final String directoryPath;
+    private final boolean incremental;
+    private final ScanProgress progress = new ScanProgress();
+    private final Instant submittedAt = Instant.now();
+    private volatile ScanJobStatus status = ScanJobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String errorMessage;
+
+    public ScanJob(String id, String directoryPath, boolean incremental) {
+        this.id = id;
+        this.directoryPath = directoryPath;
+        this.incremental = incremental;
+    }
+
+    public String getId() { return id; }
+    public String getDirectoryPath() { return directoryPath; }
+    public boolean isIncremental() { return incremental; }
+    public ScanProgress getProgress() { return progress; }
+    public Instant getSubmittedAt() { return submittedAt; }
+    public ScanJobStatus getStatus() { return status; }
+    public void setStatus(ScanJobStatus status) { this.status = status; }
+    public Instant getStartedAt() { return startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public boolean isFinished() {
+        return status == ScanJobStatus.COMPLETED || status == ScanJobStatus.FAILED || status == ScanJobStatus.CANCELLED;
+    }
+
+    public double getFilesPerSecond() {
+        double seconds = elapsedSeconds();
+        return seconds > 0 ? progress.getFilesProcessed() / seconds : 0;
+    }
+
+    public double getBytesPerSecond() {
+        double seconds = elapsedSeconds();
+        return seconds > 0 ? progress.getBytesProcessed() / seconds : 0;
+    }
+
+    // Based on what the walk has discovered so far, so it only becomes exact once discovery is complete.
+    public Long getEtaSeconds() {
+        if (status != ScanJobStatus.RUNNING) {
+            return null;
+        }
+        double bytesPerSecond = getBytesPerSecond();
+        if (bytesPerSecond <= 0) {
+            return null;
+        }
+        long remainingBytes = Math.max(0, progress.getBytesDiscovered() - progress.getBytesProcessed());
+        return (long) Math.ceil(remainingBytes / bytesPerSecond);
+    }
+
+    private double elapsedSeconds() {
+        if (startedAt == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        return Duration.between(startedAt, end).toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,65 @@
+package com.to.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ScanProgress {
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final AtomicLong filesDiscovered = new AtomicLong();
+    private final AtomicLong bytesDiscovered = new AtomicLong();
+    private final AtomicLong filesProcessed = new AtomicLong();
+    private final AtomicLong bytesProcessed = new AtomicLong();
+    private final AtomicLong filesWritten = new AtomicLong();
+    private final AtomicLong filesFailed = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+    private volatile boolean discoveryComplete;
+    private volatile boolean cancelRequested;
+
+    public void recordDiscovered(long bytes) {
+        filesDiscovered.incrementAndGet();
+        bytesDiscovered.addAndGet(bytes);
+    }
+
+    public void recordProcessed(long bytes) {
+        filesProcessed.incrementAndGet();
+        bytesProcessed.addAndGet(bytes);
+    }
+
+    public void recordWritten(int count) {
+        filesWritten.addAndGet(count);
+    }
+
+    public void recordFailed(int count, String error) {
+        filesFailed.addAndGet(count);
+        synchronized (errors) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    public void markDiscoveryComplete() {
+        discoveryComplete = true;
+    }
+
+    public void requestCancel() {
+        cancelRequested = true;
+    }
+
+    public long getFilesDiscovered() { return filesDiscovered.get(); }
+    public long getBytesDiscovered() { return bytesDiscovered.get(); }
+    public long getFilesProcessed() { return filesProcessed.get(); }
+    public long getBytesProcessed() { return bytesProcessed.get(); }
+    public long getFilesWritten() { return filesWritten.get(); }
+    public long getFilesFailed() { return filesFailed.get(); }
+    public boolean isDiscoveryComplete() { return discoveryComplete; }
+    public boolean isCancelRequested() { return cancelRequested; }
+
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+}
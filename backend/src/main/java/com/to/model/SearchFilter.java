@@ -0,0 +1,35 @@
+package com.to.model;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+public class SearchFilter {
+    private String extension;
+    private String pathPrefix;
+    private Long minSize;
+    private Long maxSize;
+    private LocalDateTime modifiedFrom;
+    private LocalDateTime modifiedTo;
+
+    public String getExtension() { return extension; }
+    public void setExtension(String extension) { this.extension = extension; }
+    public String getPathPrefix() { return pathPrefix; }
+    public void setPathPrefix(String pathPrefix) { this.pathPrefix = pathPrefix; }
+    public Long getMinSize() { return minSize; }
+    public void setMinSize(Long minSize) { this.minSize = minSize; }
+    public Long getMaxSize() { return maxSize; }
+    public void setMaxSize(Long maxSize) { this.maxSize = maxSize; }
+    public LocalDateTime getModifiedFrom() { return modifiedFrom; }
+    public void setModifiedFrom(LocalDateTime modifiedFrom) { this.modifiedFrom = modifiedFrom; }
+    public LocalDateTime getModifiedTo() { return modifiedTo; }
+    public void setModifiedTo(LocalDateTime modifiedTo) { this.modifiedTo = modifiedTo; }
+
+    // Extension without the leading dot, lower case; null when not filtered.
+    public String normalizedExtension() {
+        if (extension == null || extension.isBlank()) {
+            return null;
+        }
+        String trimmed = extension.startsWith(".") ? extension.substring(1) : extension;
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+}
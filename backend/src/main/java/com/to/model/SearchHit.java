@@ -0,0 +1,23 @@
+package com.to.model;
+
+public class SearchHit {
+    private FileDocument file;
+    private double score;
+    private String snippet;
+
+    public SearchHit() {
+    }
+
+    public SearchHit(FileDocument file, double score, String snippet) {
+        this.file = file;
+        this.score = score;
+        this.snippet = snippet;
+    }
+
+    public FileDocument getFile() { return file; }
+    public void setFile(FileDocument file) { this.file = file; }
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+    public String getSnippet() { return snippet; }
+    public void setSnippet(String snippet) { this.snippet = snippet; }
+}
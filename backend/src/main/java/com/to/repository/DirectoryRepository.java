@@ -0,0 +1,17 @@
+package com.to.repository;
+
+import com.to.model.DirectoryDocument;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface DirectoryRepository extends MongoRepository<DirectoryDocument, String>, DirectoryRepositoryCustom {
+
+    @Query(value = "{ '_id' : { $in : ?0 } }", fields = "{ 'minHash' : 1, 'path' : 1 }")
+    List<DirectoryDocument> findSignaturesByIdIn(Collection<String> ids);
+
+    @Query(value = "{ '_id' : { $in : ?0 } }", fields = "{ 'minHash' : 0, 'lshBands' : 0 }")
+    List<DirectoryDocument> findWithoutSignatureByIdIn(Collection<String> ids);
+}
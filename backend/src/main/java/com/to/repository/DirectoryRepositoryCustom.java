@@ -0,0 +1,24 @@
+package com.to.repository;
+
+import com.to.model.DirectoryDocument;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface DirectoryRepositoryCustom {
+
+    void bulkUpsertByPath(List<DirectoryDocument> directories);
+
+    // Drops merkleHash and signature of the given directories until the next scan rebuilds them.
+    void markStale(Collection<String> paths);
+
+    // Removes the directory and everything below it that was not written since scannedSince.
+    void deleteNotScannedSince(String path, LocalDateTime scannedSince);
+
+    // Ids of directories with equal Merkle hashes, one list per hash with at least two members.
+    List<List<String>> findIdenticalGroups(String algorithm, long minFiles);
+
+    // Ids of directories sharing an LSH band key, one list per key with 2..maxBucketSize members.
+    List<List<String>> findLshBuckets(long minFiles, int maxBucketSize);
+}
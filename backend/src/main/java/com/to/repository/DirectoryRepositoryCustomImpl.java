@@ -0,0 +1,93 @@
+package com.to.repository;
+
+import com.to.model.DirectoryDocument;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class DirectoryRepositoryCustomImpl implements DirectoryRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public DirectoryRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void bulkUpsertByPath(List<DirectoryDocument> directories) {
+        if (directories.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DirectoryDocument.class);
+        for (DirectoryDocument directory : directories) {
+            Query byPath = Query.query(Criteria.where("path").is(directory.getPath()));
+            bulkOperations.replaceOne(byPath, directory, FindAndReplaceOptions.options().upsert());
+        }
+        bulkOperations.execute();
+    }
+
+    @Override
+    public void markStale(Collection<String> paths) {
+        if (paths.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(Query.query(Criteria.where("path").in(paths)),
+                new Update().unset("merkleHash").unset("minHash").set("lshBands", List.of()),
+                DirectoryDocument.class);
+    }
+
+    @Override
+    public void deleteNotScannedSince(String path, LocalDateTime scannedSince) {
+        Criteria underPath = new Criteria().orOperator(
+                Criteria.where("path").is(path),
+                Criteria.where("path").regex("^" + Pattern.quote(path + File.separator)));
+        mongoTemplate.remove(Query.query(new Criteria().andOperator(underPath,
+                Criteria.where("scannedAt").lt(scannedSince))), DirectoryDocument.class);
+    }
+
+    @Override
+    public List<List<String>> findIdenticalGroups(String algorithm, long minFiles) {
+        return groupIds(List.of(
+                Aggregation.match(Criteria.where("hashAlgorithm").is(algorithm).and("merkleHash").ne(null)
+                        .and("fileCount").gte(minFiles)),
+                context -> new Document("$group", new Document("_id", "$merkleHash")
+                        .append("count", new Document("$sum", 1))
+                        .append("ids", new Document("$push", "$_id"))),
+                context -> new Document("$match", new Document("count", new Document("$gt", 1)))));
+    }
+
+    @Override
+    public List<List<String>> findLshBuckets(long minFiles, int maxBucketSize) {
+        return groupIds(List.of(
+                Aggregation.match(Criteria.where("lshBands.0").exists(true).and("fileCount").gte(minFiles)),
+                context -> new Document("$project", new Document("lshBands", 1)),
+                Aggregation.unwind("lshBands"),
+                context -> new Document("$group", new Document("_id", "$lshBands")
+                        .append("count", new Document("$sum", 1))
+                        .append("ids", new Document("$push", "$_id"))),
+                context -> new Document("$match", new Document("count", new Document("$gt", 1).append("$lte", maxBucketSize)))));
+    }
+
+    private List<List<String>> groupIds(List<AggregationOperation> pipeline) {
+        return mongoTemplate.aggregate(Aggregation.newAggregation(pipeline)
+                                .withOptions(AggregationOptions.builder().allowDiskUse(true).build()),
+                        mongoTemplate.getCollectionName(DirectoryDocument.class), Document.class)
+                .getMappedResults()
+                .stream()
+                .map(group -> group.getList("ids", Object.class).stream().map(String::valueOf).toList())
+                .toList();
+    }
+}
@@ -0,0 +1,24 @@
+package com.to.repository;
+
+import com.to.model.ExtractedContent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ExtractedContentRepository extends MongoRepository<ExtractedContent, String>, ExtractedContentRepositoryCustom {
+
+    @Query(value = "{ '_id' : ?0 }", fields = "{ 'textLength' : 1, 'status' : 1, 'errorMessage' : 1 }")
+    Optional<ExtractedContent> findMetadataById(String id);
+
+    @Query(value = "{ '_id' : ?0 }", fields = "{ 'text' : 1 }")
+    Optional<ExtractedContent> findTextById(String id);
+
+    @Query(value = "{ '_id' : { $in : ?0 } }", fields = "{ 'text' : 1 }")
+    List<ExtractedContent> findTextByIdIn(Collection<String> ids);
+
+    @Query(value = "{ '_id' : { $in : ?0 } }", fields = "{ 'minHash' : 1 }")
+    List<ExtractedContent> findSignaturesByIdIn(Collection<String> ids);
+}
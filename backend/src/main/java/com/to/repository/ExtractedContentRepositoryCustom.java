@@ -0,0 +1,23 @@
+package com.to.repository;
+
+import com.to.model.ExtractedContent;
+import com.to.model.SearchFilter;
+import com.to.model.SearchHit;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface ExtractedContentRepositoryCustom {
+
+    // Ids of contents sharing an LSH band key, one list per key with 2..maxBucketSize members.
+    List<List<String>> findLshBuckets(int maxBucketSize);
+
+    // Runs signer on every content with text (only those without a signature unless all) and writes back minHash
+    // and lshBands; returns the number of contents written.
+    long updateSignatures(Consumer<ExtractedContent> signer, boolean all, int batchSize);
+
+    // Files whose extracted text matches the $text query, best textScore first, then by content and file id, without
+    // content. afterScore/afterContentId/afterFileId continue from the last hit of the previous page.
+    List<SearchHit> searchFiles(String query, SearchFilter filter, Double afterScore, String afterContentId,
+                                String afterFileId, int limit);
+}
@@ -0,0 +1,173 @@
+package com.to.repository;
+
+import com.to.model.ExtractedContent;
+import com.to.model.FileDocument;
+import com.to.model.SearchFilter;
+import com.to.model.SearchHit;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class ExtractedContentRepositoryCustomImpl implements ExtractedContentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ExtractedContentRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<List<String>> findLshBuckets(int maxBucketSize) {
+        List<AggregationOperation> pipeline = List.of(
+                Aggregation.match(Criteria.where("lshBands.0").exists(true)),
+                context -> new Document("$project", new Document("lshBands", 1)),
+                Aggregation.unwind("lshBands"),
+                context -> new Document("$group", new Document("_id", "$lshBands")
+                        .append("count", new Document("$sum", 1))
+                        .append("contentIds", new Document("$push", "$_id"))),
+                // oversized buckets come from boilerplate shared by many texts and would cost quadratic comparisons
+                context -> new Document("$match", new Document("count", new Document("$gt", 1).append("$lte", maxBucketSize))),
+                context -> new Document("$project", new Document("contentIds", 1)));
+
+        return mongoTemplate.aggregate(Aggregation.newAggregation(pipeline)
+                                .withOptions(AggregationOptions.builder().allowDiskUse(true).build()),
+                        mongoTemplate.getCollectionName(ExtractedContent.class), Document.class)
+                .getMappedResults()
+                .stream()
+                .map(bucket -> bucket.getList("contentIds", Object.class).stream().map(String::valueOf).toList())
+                .toList();
+    }
+
+    @Override
+    public long updateSignatures(Consumer<ExtractedContent> signer, boolean all, int batchSize) {
+        Criteria withText = Criteria.where("textLength").gt(0);
+        Query query = Query.query(all ? withText : withText.and("minHash").is(null));
+        query.fields().include("text");
+        long updated = 0;
+        BulkOperations bulkOperations = null;
+        int pending = 0;
+        try (Stream<ExtractedContent> contents = mongoTemplate.stream(query, ExtractedContent.class)) {
+            for (ExtractedContent content : (Iterable<ExtractedContent>) contents::iterator) {
+                signer.accept(content);
+                if (bulkOperations == null) {
+                    bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ExtractedContent.class);
+                }
+                bulkOperations.updateOne(Query.query(Criteria.where("id").is(content.getId())),
+                        new Update().set("minHash", content.getMinHash()).set("lshBands", content.getLshBands()));
+                if (++pending == batchSize) {
+                    updated += bulkOperations.execute().getModifiedCount();
+                    bulkOperations = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (bulkOperations != null) {
+            updated += bulkOperations.execute().getModifiedCount();
+        }
+        return updated;
+    }
+
+    // Contents are scored and sorted before files are joined, so the join stops once the page is full.
+    @Override
+    public List<SearchHit> searchFiles(String query, SearchFilter filter, Double afterScore, String afterContentId,
+                                       String afterFileId, int limit) {
+        List<AggregationOperation> pipeline = new ArrayList<>();
+        pipeline.add(context -> new Document("$match", new Document("$text", new Document("$search", query))));
+        pipeline.add(context -> new Document("$project", new Document("score", new Document("$meta", "textScore"))));
+        if (afterScore != null) {
+            pipeline.add(context -> new Document("$match", new Document("$or", List.of(
+                    new Document("score", new Document("$lt", afterScore)),
+                    new Document("score", afterScore).append("_id", new Document("$gte", afterContentId))))));
+        }
+        pipeline.add(context -> new Document("$sort", new Document("score", -1).append("_id", 1)));
+
+        List<Document> filePipeline = new ArrayList<>();
+        Document fileFilter = fileFilter(filter);
+        if (!fileFilter.isEmpty()) {
+            filePipeline.add(new Document("$match", fileFilter));
+        }
+        filePipeline.add(new Document("$sort", new Document("_id", 1)));
+        filePipeline.add(new Document("$project", new Document("content", 0)));
+        pipeline.add(context -> new Document("$lookup", new Document("from", mongoTemplate.getCollectionName(FileDocument.class))
+                .append("localField", "_id")
+                .append("foreignField", "contentRef")
+                .append("pipeline", filePipeline)
+                .append("as", "file")));
+        pipeline.add(context -> new Document("$unwind", "$file"));
+        if (afterScore != null) {
+            // files of the last content that were already on the previous page
+            pipeline.add(context -> new Document("$match", new Document("$nor", List.of(new Document("score", afterScore)
+                    .append("_id", afterContentId)
+                    .append("file._id", new Document("$lte", objectIdOrString(afterFileId)))))));
+        }
+        pipeline.add(context -> new Document("$limit", limit));
+
+        List<SearchHit> hits = new ArrayList<>();
+        for (Document result : mongoTemplate.aggregate(Aggregation.newAggregation(pipeline)
+                        .withOptions(AggregationOptions.builder().allowDiskUse(true).build()),
+                mongoTemplate.getCollectionName(ExtractedContent.class), Document.class).getMappedResults()) {
+            FileDocument fileDocument = mongoTemplate.getConverter().read(FileDocument.class, result.get("file", Document.class));
+            hits.add(new SearchHit(fileDocument, ((Number) result.get("score")).doubleValue(), null));
+        }
+        return hits;
+    }
+
+    private Document fileFilter(SearchFilter filter) {
+        Document match = new Document();
+        if (filter == null) {
+            return match;
+        }
+        if (filter.normalizedExtension() != null) {
+            match.append("fileName", new Document("$regex", Pattern.quote("." + filter.normalizedExtension()) + "$").append("$options", "i"));
+        }
+        if (filter.getPathPrefix() != null && !filter.getPathPrefix().isBlank()) {
+            match.append("filePath", new Document("$regex", "^" + Pattern.quote(filter.getPathPrefix())));
+        }
+        Document size = new Document();
+        if (filter.getMinSize() != null) {
+            size.append("$gte", filter.getMinSize());
+        }
+        if (filter.getMaxSize() != null) {
+            size.append("$lte", filter.getMaxSize());
+        }
+        if (!size.isEmpty()) {
+            match.append("size", size);
+        }
+        Document modified = new Document();
+        if (filter.getModifiedFrom() != null) {
+            modified.append("$gte", toDate(filter.getModifiedFrom()));
+        }
+        if (filter.getModifiedTo() != null) {
+            modified.append("$lte", toDate(filter.getModifiedTo()));
+        }
+        if (!modified.isEmpty()) {
+            match.append("lastModified", modified);
+        }
+        return match;
+    }
+
+    // Spring Data stores LocalDateTime as a Date in the system zone; raw stages must do the same.
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static Object objectIdOrString(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
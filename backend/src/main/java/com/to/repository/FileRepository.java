@@ -4,13 +4,32 @@ import com.to.model.FileDocument;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface FileRepository extends MongoRepository<FileDocument, String> {
+public interface FileRepository extends MongoRepository<FileDocument, String>, FileRepositoryCustom {
 
     Optional<FileDocument> findByFilePath(String filePath);
 
-    @Query("{ $text: { $search: ?0 } }")
-    List<FileDocument> searchByKeyword(String keyword);
+    @Query(fields = "{ 'filePath' : 1 }")
+    List<FileDocument> findByFilePathStartingWith(String pathPrefix);
+
+    @Query(value = "{}", fields = "{ 'content' : 0 }")
+    List<FileDocument> findAllWithoutContent();
+
+    @Query(value = "{ 'contentRef' : { $in : ?0 } }", fields = "{ 'content' : 0 }")
+    List<FileDocument> findByContentRefIn(Collection<String> contentRefs);
+
+    @Query(value = "{ 'filePath' : { $in : ?0 } }", fields = "{ 'content' : 0 }")
+    List<FileDocument> findByFilePathIn(Collection<String> filePaths);
+
+    @Query(value = "{ '_id' : ?0 }", fields = "{ 'contentRef' : 1, 'content' : 1 }")
+    Optional<FileDocument> findContentById(String id);
+
+    @Query(value = "{ 'size' : ?0 }", fields = "{ 'content' : 0 }")
+    List<FileDocument> findBySize(long size);
+
+    @Query(value = "{ '_id' : { $in : ?0 } }", fields = "{ 'content' : 0 }")
+    List<FileDocument> findWithoutContentByIdIn(Collection<String> ids);
 }
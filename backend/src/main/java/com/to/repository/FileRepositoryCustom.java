@@ -0,0 +1,48 @@
+package com.to.repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.to.logic.FileSortOrder;
+import com.to.model.DuplicateGroup;
+import com.to.model.FileDocument;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+public interface FileRepositoryCustom {
+
+    BulkWriteResult bulkUpsertByFilePath(List<FileDocument> fileDocuments);
+
+    // Largest first, ties broken by id; afterSize/afterId continue from the last row of the previous page.
+    List<FileDocument> findLargest(int limit, String extension, String pathPrefix, Long afterSize, String afterId);
+
+    // Files without content in id or (filePath, id) order; afterPath/afterId continue from the last row of the
+    // previous page, afterPath being ignored for ID order.
+    List<FileDocument> findPage(FileSortOrder order, int limit, String afterPath, String afterId);
+
+    // All files without content, read through a server-side cursor; the caller must close the stream.
+    Stream<FileDocument> streamAllWithoutContent();
+
+    // Sizes shared by several files where some file still needs a partial hash, or a full hash because its partial
+    // hash collides, before duplicates can be grouped. Files hashed before digests existed need hashing once their
+    // size is shared with newer files.
+    List<Long> findSizesNeedingHash(String algorithm);
+
+    void updateHashes(Collection<FileDocument> fileDocuments);
+
+    // Groups files by full digest (or legacy hex hash), worst wasted bytes first. fileIds are set, files are not.
+    List<DuplicateGroup> findDuplicateGroups(String algorithm, long offset, int limit);
+
+    // Sets only the path, so moving a document loaded without some fields does not drop them.
+    void updateFilePath(String id, String filePath);
+
+    // Hands every file still holding inline content to store, then sets the returned contentRef and unsets content.
+    // Each written batch is passed to migrated, as the documents now stand. Returns the number of files migrated.
+    long moveInlineContent(Function<FileDocument, String> store, Consumer<List<FileDocument>> migrated, int batchSize);
+
+    // Recomputes normalizedName from fileName for every file; returns the number of files written.
+    long updateNormalizedNames(UnaryOperator<String> normalizer, int batchSize);
+}
@@ -0,0 +1,295 @@
+package com.to.repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.to.logic.FileSortOrder;
+import com.to.logic.HashLevel;
+import com.to.model.DuplicateGroup;
+import com.to.model.FileDocument;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class FileRepositoryCustomImpl implements FileRepositoryCustom {
+    private static final int STREAM_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public FileRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public BulkWriteResult bulkUpsertByFilePath(List<FileDocument> fileDocuments) {
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FileDocument.class);
+        for (FileDocument fileDocument : fileDocuments) {
+            Query byPath = Query.query(Criteria.where("filePath").is(fileDocument.getFilePath()));
+            bulkOperations.replaceOne(byPath, fileDocument, FindAndReplaceOptions.options().upsert());
+        }
+        return bulkOperations.execute();
+    }
+
+    @Override
+    public List<FileDocument> findLargest(int limit, String extension, String pathPrefix, Long afterSize, String afterId) {
+        List<Criteria> filters = new ArrayList<>();
+        if (extension != null && !extension.isBlank()) {
+            String suffix = extension.startsWith(".") ? extension : "." + extension;
+            filters.add(Criteria.where("fileName").regex(Pattern.quote(suffix) + "$", "i"));
+        }
+        if (pathPrefix != null && !pathPrefix.isBlank()) {
+            filters.add(Criteria.where("filePath").regex("^" + Pattern.quote(pathPrefix)));
+        }
+        if (afterSize != null && afterId != null) {
+            filters.add(new Criteria().orOperator(
+                    Criteria.where("size").lt(afterSize),
+                    Criteria.where("size").is(afterSize).and("id").lt(afterId)));
+        }
+
+        Query query = filters.isEmpty() ? new Query() : Query.query(new Criteria().andOperator(filters));
+        query.with(Sort.by(Sort.Order.desc("size"), Sort.Order.desc("id"))).limit(limit);
+        query.fields().exclude("content");
+        return mongoTemplate.find(query, FileDocument.class);
+    }
+
+    @Override
+    public List<FileDocument> findPage(FileSortOrder order, int limit, String afterPath, String afterId) {
+        Query query = new Query();
+        if (order == FileSortOrder.PATH) {
+            if (afterId != null) {
+                query.addCriteria(new Criteria().orOperator(
+                        Criteria.where("filePath").gt(afterPath),
+                        Criteria.where("filePath").is(afterPath).and("id").gt(afterId)));
+            }
+            query.with(Sort.by(Sort.Order.asc("filePath"), Sort.Order.asc("id")));
+        } else {
+            if (afterId != null) {
+                query.addCriteria(Criteria.where("id").gt(afterId));
+            }
+            query.with(Sort.by(Sort.Order.asc("id")));
+        }
+        query.limit(limit);
+        query.fields().exclude("content");
+        return mongoTemplate.find(query, FileDocument.class);
+    }
+
+    @Override
+    public Stream<FileDocument> streamAllWithoutContent() {
+        Query query = new Query().cursorBatchSize(STREAM_BATCH_SIZE);
+        query.fields().exclude("content");
+        return mongoTemplate.stream(query, FileDocument.class);
+    }
+
+    @Override
+    public List<Long> findSizesNeedingHash(String algorithm) {
+        Document sameAlgorithm = new Document("$eq", List.of("$hashAlgorithm", algorithm));
+        Document full = new Document("$and", List.of(sameAlgorithm,
+                new Document("$eq", List.of("$hashLevel", HashLevel.FULL.toString())), isSet("$digest")));
+        Document unreadable = new Document("$and", List.of(sameAlgorithm,
+                new Document("$eq", List.of("$hashLevel", HashLevel.UNREADABLE.toString()))));
+        Document partial = new Document("$and", List.of(sameAlgorithm, isSet("$partialDigest"),
+                new Document("$not", List.of(unreadable))));
+        Document legacy = new Document("$and", List.of(
+                new Document("$not", List.of(isSet("$digest"))),
+                new Document("$not", List.of(isSet("$hashLevel"))),
+                isSet("$hash")));
+        Document settled = new Document("$or", List.of(full, legacy, unreadable));
+
+        List<AggregationOperation> pipeline = List.of(
+                context -> new Document("$group", new Document("_id", new Document("size", "$size")
+                                .append("partialDigest", new Document("$cond", List.of(partial, "$partialDigest", null))))
+                        .append("count", new Document("$sum", 1))
+                        .append("legacy", countWhere(legacy))
+                        .append("unsettled", countWhere(new Document("$not", List.of(settled))))),
+                // a file without a full digest still needs hashing when it has no partial hash yet or shares its
+                // partial hash with another file; legacy files are grouped by their hex hash as they are, unless
+                // their size also holds newer files, whose digests a hex hash can never match
+                context -> new Document("$group", new Document("_id", "$_id.size")
+                        .append("count", new Document("$sum", "$count"))
+                        .append("legacy", new Document("$sum", "$legacy"))
+                        .append("open", new Document("$max", new Document("$cond", List.of(
+                                new Document("$and", List.of(
+                                        new Document("$gt", List.of("$unsettled", 0)),
+                                        new Document("$or", List.of(
+                                                new Document("$eq", List.of("$_id.partialDigest", null)),
+                                                new Document("$gt", List.of("$count", 1)))))),
+                                1, 0))))),
+                context -> new Document("$match", new Document("count", new Document("$gt", 1))
+                        .append("$or", List.of(
+                                new Document("open", 1),
+                                new Document("$expr", new Document("$and", List.of(
+                                        new Document("$gt", List.of("$legacy", 0)),
+                                        new Document("$lt", List.of("$legacy", "$count")))))))),
+                context -> new Document("$project", new Document("_id", 1)));
+
+        return mongoTemplate.aggregate(aggregation(pipeline), mongoTemplate.getCollectionName(FileDocument.class), Document.class)
+                .getMappedResults()
+                .stream()
+                .map(group -> ((Number) group.get("_id")).longValue())
+                .toList();
+    }
+
+    @Override
+    public void updateHashes(Collection<FileDocument> fileDocuments) {
+        if (fileDocuments.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FileDocument.class);
+        for (FileDocument fileDocument : fileDocuments) {
+            Query byId = Query.query(Criteria.where("id").is(fileDocument.getId()));
+            bulkOperations.updateOne(byId, new Update()
+                    .set("hashAlgorithm", fileDocument.getHashAlgorithm())
+                    .set("digest", fileDocument.getDigest())
+                    .set("partialDigest", fileDocument.getPartialDigest())
+                    .set("hashLevel", fileDocument.getHashLevel()));
+        }
+        bulkOperations.execute();
+    }
+
+    @Override
+    public List<DuplicateGroup> findDuplicateGroups(String algorithm, long offset, int limit) {
+        Criteria hashed = new Criteria().orOperator(
+                Criteria.where("hashAlgorithm").is(algorithm).and("hashLevel").is(HashLevel.FULL.toString()).and("digest").ne(null),
+                Criteria.where("digest").is(null).and("hashLevel").is(null).and("hash").ne(null));
+
+        List<AggregationOperation> pipeline = List.of(
+                Aggregation.match(hashed),
+                context -> new Document("$group", new Document("_id", new Document("$ifNull", List.of("$digest", "$hash")))
+                        .append("size", new Document("$first", "$size"))
+                        .append("count", new Document("$sum", 1))
+                        .append("fileIds", new Document("$push", "$_id"))),
+                context -> new Document("$match", new Document("count", new Document("$gt", 1))),
+                context -> new Document("$addFields", new Document("wastedBytes",
+                        new Document("$multiply", List.of("$size", new Document("$subtract", List.of("$count", 1)))))),
+                context -> new Document("$sort", new Document("wastedBytes", -1).append("_id", 1)),
+                Aggregation.skip(offset),
+                Aggregation.limit(limit));
+
+        return mongoTemplate.aggregate(aggregation(pipeline), mongoTemplate.getCollectionName(FileDocument.class), Document.class)
+                .getMappedResults()
+                .stream()
+                .map(this::toDuplicateGroup)
+                .toList();
+    }
+
+    @Override
+    public void updateFilePath(String id, String filePath) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(id)), new Update().set("filePath", filePath),
+                FileDocument.class);
+    }
+
+    @Override
+    public long moveInlineContent(Function<FileDocument, String> store, Consumer<List<FileDocument>> migrated, int batchSize) {
+        Query query = Query.query(Criteria.where("content").ne(null));
+        long moved = 0;
+        BulkOperations bulkOperations = null;
+        List<FileDocument> batch = new ArrayList<>();
+        try (Stream<FileDocument> files = mongoTemplate.stream(query, FileDocument.class)) {
+            for (FileDocument fileDocument : (Iterable<FileDocument>) files::iterator) {
+                String contentRef = store.apply(fileDocument);
+                if (bulkOperations == null) {
+                    bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FileDocument.class);
+                }
+                Update update = new Update().unset("content");
+                if (contentRef != null) {
+                    update.set("contentRef", contentRef);
+                }
+                bulkOperations.updateOne(Query.query(Criteria.where("id").is(fileDocument.getId())), update);
+                fileDocument.setContent(null);
+                fileDocument.setContentRef(contentRef);
+                batch.add(fileDocument);
+                if (batch.size() == batchSize) {
+                    moved += bulkOperations.execute().getModifiedCount();
+                    migrated.accept(batch);
+                    bulkOperations = null;
+                    batch = new ArrayList<>();
+                }
+            }
+        }
+        if (bulkOperations != null) {
+            moved += bulkOperations.execute().getModifiedCount();
+            migrated.accept(batch);
+        }
+        return moved;
+    }
+
+    @Override
+    public long updateNormalizedNames(UnaryOperator<String> normalizer, int batchSize) {
+        Query query = new Query();
+        query.fields().include("fileName").include("normalizedName");
+        long updated = 0;
+        BulkOperations bulkOperations = null;
+        int pending = 0;
+        try (Stream<FileDocument> files = mongoTemplate.stream(query, FileDocument.class)) {
+            for (FileDocument fileDocument : (Iterable<FileDocument>) files::iterator) {
+                String normalizedName = normalizer.apply(fileDocument.getFileName());
+                if (Objects.equals(normalizedName, fileDocument.getNormalizedName())) {
+                    continue;
+                }
+                if (bulkOperations == null) {
+                    bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FileDocument.class);
+                }
+                bulkOperations.updateOne(Query.query(Criteria.where("id").is(fileDocument.getId())),
+                        new Update().set("normalizedName", normalizedName));
+                if (++pending == batchSize) {
+                    updated += bulkOperations.execute().getModifiedCount();
+                    bulkOperations = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (bulkOperations != null) {
+            updated += bulkOperations.execute().getModifiedCount();
+        }
+        return updated;
+    }
+
+    private DuplicateGroup toDuplicateGroup(Document group) {
+        DuplicateGroup duplicateGroup = new DuplicateGroup();
+        Object key = group.get("_id");
+        if (key instanceof byte[] digest) {
+            duplicateGroup.setHash(HexFormat.of().formatHex(digest));
+        } else if (key instanceof Binary binary) {
+            duplicateGroup.setHash(HexFormat.of().formatHex(binary.getData()));
+        } else {
+            duplicateGroup.setHash(String.valueOf(key));
+        }
+        duplicateGroup.setSize(((Number) group.get("size")).longValue());
+        duplicateGroup.setCount(((Number) group.get("count")).intValue());
+        duplicateGroup.setWastedBytes(((Number) group.get("wastedBytes")).longValue());
+        duplicateGroup.setFileIds(group.getList("fileIds", Object.class).stream().map(String::valueOf).toList());
+        return duplicateGroup;
+    }
+
+    private Aggregation aggregation(List<AggregationOperation> pipeline) {
+        return Aggregation.newAggregation(pipeline)
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+    }
+
+    private static Document isSet(String field) {
+        return new Document("$ne", Arrays.asList(new Document("$ifNull", Arrays.asList(field, null)), null));
+    }
+
+    private static Document countWhere(Document condition) {
+        return new Document("$sum", new Document("$cond", List.of(condition, 1, 0)));
+    }
+}
@@ -25,11 +25,14 @@ public class ActionLogService {
     private final ActionLogRepository actionLogRepository;
     private final FileRepository fileRepository;
     private final FileProcessingService fileProcessingService;
+    private final List<FileChangeListener> changeListeners;
 
-    public ActionLogService(ActionLogRepository actionLogRepository, FileRepository fileRepository, FileProcessingService fileProcessingService) {
+    public ActionLogService(ActionLogRepository actionLogRepository, FileRepository fileRepository, FileProcessingService fileProcessingService,
+                            List<FileChangeListener> changeListeners) {
         this.actionLogRepository = actionLogRepository;
         this.fileRepository = fileRepository;
         this.fileProcessingService = fileProcessingService;
+        this.changeListeners = changeListeners;
     }
 
     public List<ActionLog> getAllActionLogs() {
@@ -120,9 +123,16 @@ public class ActionLogService {
                     Optional<FileDocument> file = fileRepository.findByFilePath(retrievedLog.getTargetPath());
                     if (file.isPresent()) {
                         FileDocument existingFile = file.get();
+                        FileDocument previousLocation = new FileDocument();
+                        previousLocation.setId(existingFile.getId());
+                        previousLocation.setFilePath(existingFile.getFilePath());
                         existingFile.setFilePath(sourcePath);
                         existingFile.setLastModified(LocalDateTime.now());
                         fileRepository.save(existingFile);
+                        changeListeners.forEach(listener -> {
+                            listener.onFilesRemoved(List.of(previousLocation));
+                            listener.onFilesUpserted(List.of(existingFile));
+                        });
                     }
 
                     File parentFolder = destinationPath.getParentFile();
@@ -0,0 +1,93 @@
+package com.to.service;
+
+import com.to.config.ScanProperties;
+import com.to.model.FileDocument;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Keeps the results of the analyses (largest files, duplicates, versions) keyed by analysis and parameters until
+// the index changes. A result computed while the index changed is returned but not stored, so a stale answer is
+// never served after the change that made it stale.
+@Service
+public class AnalysisCache implements FileChangeListener {
+
+    private record Key(String analysis, List<Object> parameters) {
+    }
+
+    private final Map<Key, Object> results;
+    private final AtomicLong generation = new AtomicLong();
+    private final boolean enabled;
+
+    public AnalysisCache(ScanProperties scanProperties) {
+        int maxEntries = scanProperties.getAnalysisCacheEntries();
+        this.enabled = maxEntries > 0;
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String analysis, Supplier<T> compute, Object... parameters) {
+        if (!enabled) {
+            return compute.get();
+        }
+        Key key = new Key(analysis, Arrays.asList(parameters));
+        long startGeneration = generation.get();
+        synchronized (results) {
+            Object cached = results.get(key);
+            if (cached != null) {
+                return (T) cached;
+            }
+        }
+
+        T result = compute.get();
+        synchronized (results) {
+            if (result != null && generation.get() == startGeneration) {
+                results.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    public void invalidate() {
+        synchronized (results) {
+            generation.incrementAndGet();
+            results.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    @Override
+    public void onFilesUpserted(Collection<FileDocument> fileDocuments) {
+        if (!fileDocuments.isEmpty()) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void onFilesRemoved(Collection<FileDocument> fileDocuments) {
+        if (!fileDocuments.isEmpty()) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void onIndexReset() {
+        invalidate();
+    }
+}
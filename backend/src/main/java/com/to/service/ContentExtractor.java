@@ -0,0 +1,23 @@
+package com.to.service;
+
+import com.to.model.ExtractionResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+
+public interface ContentExtractor {
+
+    // Key for extraction.limits.<name>.* settings.
+    String getName();
+
+    // Lower-case extensions without the dot.
+    Set<String> getExtensions();
+
+    // Used for files whose extension no extractor claims.
+    default boolean matchesMagic(byte[] header) {
+        return false;
+    }
+
+    ExtractionResult extract(File file) throws IOException;
+}
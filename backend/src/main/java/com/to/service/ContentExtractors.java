@@ -0,0 +1,80 @@
+package com.to.service;
+
+import com.to.config.ExtractionProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Picks the ContentExtractor for a file by extension, then by magic bytes, and runs it on that extractor's own pool
+// so slow types (PDF) cannot starve the cheap ones.
+@Service
+public class ContentExtractors {
+    private static final int MAGIC_BYTES = 8;
+
+    private final ExtractionProperties extractionProperties;
+    private final List<ContentExtractor> extractors;
+    private final Map<String, ContentExtractor> byExtension = new HashMap<>();
+    private final Map<ContentExtractor, ExtractionPool> pools = new LinkedHashMap<>();
+
+    public ContentExtractors(List<ContentExtractor> extractors, ExtractionProperties extractionProperties) {
+        this.extractionProperties = extractionProperties;
+        this.extractors = extractors;
+        for (ContentExtractor extractor : extractors) {
+            for (String extension : extractor.getExtensions()) {
+                byExtension.putIfAbsent(extension, extractor);
+            }
+            pools.put(extractor, new ExtractionPool(extractor, extractionProperties.limitsFor(extractor.getName())));
+        }
+    }
+
+    // Returns null when no extractor handles the file.
+    public ExtractionCache.TextExtractor extractorFor(File file) throws IOException {
+        ContentExtractor extractor = find(file);
+        if (extractor == null) {
+            return null;
+        }
+        ExtractionPool pool = pools.get(extractor);
+        return () -> pool.extract(file);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pools.values().forEach(ExtractionPool::shutdown);
+    }
+
+    private ContentExtractor find(File file) throws IOException {
+        String fileName = file.getName().toLowerCase(Locale.ROOT);
+        int dot = fileName.lastIndexOf('.');
+        if (dot >= 0) {
+            ContentExtractor extractor = byExtension.get(fileName.substring(dot + 1));
+            if (extractor != null) {
+                return extractor;
+            }
+        }
+        if (!extractionProperties.isSniffMagicBytes() || file.length() == 0) {
+            return null;
+        }
+        byte[] header = readHeader(file);
+        for (ContentExtractor extractor : extractors) {
+            if (extractor.matchesMagic(header)) {
+                return extractor;
+            }
+        }
+        return null;
+    }
+
+    private byte[] readHeader(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return in.readNBytes(MAGIC_BYTES);
+        }
+    }
+}
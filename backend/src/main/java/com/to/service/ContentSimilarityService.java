@@ -0,0 +1,136 @@
+package com.to.service;
+
+import com.to.config.SimilarityProperties;
+import com.to.logic.ConcurrentUnionFind;
+import com.to.logic.MinHasher;
+import com.to.model.ExtractedContent;
+import com.to.model.FileDocument;
+import com.to.repository.ExtractedContentRepository;
+import com.to.repository.FileRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+// Near-duplicate content: every extracted text gets a MinHash signature and LSH band keys. Only contents sharing
+// a band key are compared, and contents whose estimated Jaccard similarity reaches the threshold are clustered.
+@Service
+public class ContentSimilarityService {
+    private static final int SIGNATURE_FETCH_SIZE = 1000;
+
+    private final ExtractedContentRepository extractedContentRepository;
+    private final FileRepository fileRepository;
+    private final SimilarityProperties similarityProperties;
+    private final AnalysisCache analysisCache;
+    private final MinHasher minHasher;
+
+    public ContentSimilarityService(ExtractedContentRepository extractedContentRepository, FileRepository fileRepository,
+                                    SimilarityProperties similarityProperties, AnalysisCache analysisCache) {
+        this.extractedContentRepository = extractedContentRepository;
+        this.fileRepository = fileRepository;
+        this.similarityProperties = similarityProperties;
+        this.analysisCache = analysisCache;
+        this.minHasher = new MinHasher(similarityProperties.getShingleSize(), similarityProperties.getBands(),
+                similarityProperties.getRows());
+    }
+
+    // A text without words gets an empty signature, so it is not picked up again as unsigned.
+    public void sign(ExtractedContent content) {
+        int[] signature = content.getText() == null ? null : minHasher.signature(content.getText());
+        content.setMinHash(signature == null ? new byte[0] : MinHasher.toBytes(signature));
+        content.setLshBands(signature == null ? List.of() : minHasher.bandKeys(signature));
+    }
+
+    // Signs contents extracted before signatures existed, or all of them after similarity.* settings changed.
+    public long rebuildSignatures(boolean all) {
+        long updated = extractedContentRepository.updateSignatures(this::sign, all, similarityProperties.getRebuildBatchSize());
+        if (updated > 0) {
+            analysisCache.invalidate();
+        }
+        return updated;
+    }
+
+    // Groups of files whose contents are near-duplicates of each other. Byte-identical copies share one content,
+    // so a group always spans at least two different contents; files within a group are sorted by path.
+    public List<List<FileDocument>> findSimilarContent(double threshold) {
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException("Threshold must be in (0, 1]: " + threshold);
+        }
+        return analysisCache.get("similar", () -> computeSimilarContent(threshold), threshold);
+    }
+
+    private List<List<FileDocument>> computeSimilarContent(double threshold) {
+        List<List<String>> buckets = extractedContentRepository.findLshBuckets(similarityProperties.getMaxBucketSize());
+        Map<String, Integer> indexes = new HashMap<>();
+        List<String> contentIds = new ArrayList<>();
+        for (List<String> bucket : buckets) {
+            for (String contentId : bucket) {
+                indexes.computeIfAbsent(contentId, id -> {
+                    contentIds.add(id);
+                    return contentIds.size() - 1;
+                });
+            }
+        }
+
+        int[][] signatures = loadSignatures(contentIds, indexes);
+        ConcurrentUnionFind clusters = new ConcurrentUnionFind(contentIds.size());
+        for (List<String> bucket : buckets) {
+            for (int i = 0; i < bucket.size(); i++) {
+                int first = indexes.get(bucket.get(i));
+                for (int j = i + 1; j < bucket.size(); j++) {
+                    int second = indexes.get(bucket.get(j));
+                    // the same pair usually shares several bands; compare it only while it is still apart
+                    if (clusters.find(first) != clusters.find(second)
+                            && MinHasher.similarity(signatures[first], signatures[second]) >= threshold) {
+                        clusters.union(first, second);
+                    }
+                }
+            }
+        }
+
+        Map<Integer, List<String>> contentGroups = new LinkedHashMap<>();
+        for (int i = 0; i < contentIds.size(); i++) {
+            contentGroups.computeIfAbsent(clusters.find(i), root -> new ArrayList<>()).add(contentIds.get(i));
+        }
+        List<List<String>> similarContents = contentGroups.values().stream()
+                .filter(group -> group.size() > 1)
+                .toList();
+        return attachFiles(similarContents);
+    }
+
+    private int[][] loadSignatures(List<String> contentIds, Map<String, Integer> indexes) {
+        int[][] signatures = new int[contentIds.size()][];
+        for (int from = 0; from < contentIds.size(); from += SIGNATURE_FETCH_SIZE) {
+            List<String> batch = contentIds.subList(from, Math.min(contentIds.size(), from + SIGNATURE_FETCH_SIZE));
+            for (ExtractedContent content : extractedContentRepository.findSignaturesByIdIn(batch)) {
+                if (content.getMinHash() != null) {
+                    signatures[indexes.get(content.getId())] = MinHasher.fromBytes(content.getMinHash());
+                }
+            }
+        }
+        return signatures;
+    }
+
+    // Contents no longer referenced by any file are dropped; largest groups first.
+    private List<List<FileDocument>> attachFiles(List<List<String>> similarContents) {
+        List<String> contentRefs = similarContents.stream().flatMap(List::stream).toList();
+        Map<String, List<FileDocument>> filesByContent = new HashMap<>();
+        for (FileDocument fileDocument : fileRepository.findByContentRefIn(contentRefs)) {
+            filesByContent.computeIfAbsent(fileDocument.getContentRef(), ref -> new ArrayList<>()).add(fileDocument);
+        }
+
+        List<List<FileDocument>> groups = new ArrayList<>();
+        for (List<String> contents : similarContents) {
+            List<FileDocument> files = contents.stream()
+                    .filter(filesByContent::containsKey)
+                    .flatMap(contentRef -> filesByContent.get(contentRef).stream())
+                    .sorted(Comparator.comparing(FileDocument::getFilePath, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .toList();
+            long distinctContents = contents.stream().filter(filesByContent::containsKey).count();
+            if (distinctContents > 1) {
+                groups.add(files);
+            }
+        }
+        groups.sort(Comparator.comparingInt((List<FileDocument> group) -> group.size()).reversed());
+        return groups;
+    }
+}
@@ -0,0 +1,306 @@
+package com.to.service;
+
+import com.to.config.ScanProperties;
+import com.to.config.SimilarityProperties;
+import com.to.logic.ConcurrentUnionFind;
+import com.to.logic.DirectoryHashRollup;
+import com.to.logic.HashAlgorithm;
+import com.to.logic.HashAlgorithms;
+import com.to.logic.MinHasher;
+import com.to.model.DirectoryDocument;
+import com.to.model.DirectoryGroup;
+import com.to.model.FileDocument;
+import com.to.repository.DirectoryRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps one DirectoryDocument per scanned directory with its Merkle hash and a MinHash of the file contents below
+// it. Scans rebuild them during the walk; a file changed outside a scan only marks its ancestors stale.
+@Service
+public class DirectoryIndexService implements FileChangeListener {
+    private static final int WRITE_BATCH_SIZE = 500;
+    private static final int FETCH_SIZE = 1000;
+
+    private final DirectoryRepository directoryRepository;
+    private final ScanProperties scanProperties;
+    private final SimilarityProperties similarityProperties;
+    private final AnalysisCache analysisCache;
+    private final MinHasher minHasher;
+    private final Map<Path, Integer> activeRoots = new ConcurrentHashMap<>();
+
+    public DirectoryIndexService(DirectoryRepository directoryRepository, ScanProperties scanProperties,
+                                 SimilarityProperties similarityProperties, AnalysisCache analysisCache) {
+        this.directoryRepository = directoryRepository;
+        this.scanProperties = scanProperties;
+        this.similarityProperties = similarityProperties;
+        this.analysisCache = analysisCache;
+        this.minHasher = new MinHasher(similarityProperties.getShingleSize(), similarityProperties.getBands(),
+                similarityProperties.getRows());
+    }
+
+    public DirectoryScan startScan(Path root) {
+        return new DirectoryScan(root.toAbsolutePath());
+    }
+
+    // Feeds the walk's rollup and writes completed directories in batches. When the root completed, directories
+    // below it that the walk did not see any more are removed on close.
+    public class DirectoryScan implements AutoCloseable {
+        private final Path root;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final HashAlgorithm algorithm = HashAlgorithms.forName(scanProperties.getHashAlgorithm());
+        private final DirectoryHashRollup rollup;
+        private List<DirectoryDocument> buffer = new ArrayList<>();
+        private volatile boolean rootCompleted;
+
+        private DirectoryScan(Path root) {
+            this.root = root;
+            this.rollup = new DirectoryHashRollup(algorithm, minHasher, this::completed);
+            activeRoots.merge(root, 1, Integer::sum);
+        }
+
+        public DirectoryHashRollup getRollup() {
+            return rollup;
+        }
+
+        private void completed(DirectoryHashRollup.CompletedDirectory directory) {
+            List<DirectoryDocument> batch = null;
+            synchronized (this) {
+                buffer.add(toDocument(directory));
+                if (buffer.size() >= WRITE_BATCH_SIZE) {
+                    batch = buffer;
+                    buffer = new ArrayList<>();
+                }
+            }
+            if (batch != null) {
+                directoryRepository.bulkUpsertByPath(batch);
+            }
+            if (directory.path().toAbsolutePath().equals(root)) {
+                rootCompleted = true;
+            }
+        }
+
+        private DirectoryDocument toDocument(DirectoryHashRollup.CompletedDirectory directory) {
+            File file = directory.path().toFile();
+            DirectoryDocument document = new DirectoryDocument();
+            document.setPath(file.getAbsolutePath());
+            document.setParentPath(file.getParent());
+            document.setName(file.getName());
+            document.setHashAlgorithm(algorithm.getName());
+            document.setMerkleHash(directory.merkleHash());
+            document.setFullyHashed(directory.fullyHashed());
+            document.setFileCount(directory.fileCount());
+            document.setTotalSize(directory.totalSize());
+            if (directory.fileCount() > 0) {
+                document.setMinHash(MinHasher.toBytes(directory.minHash()));
+                document.setLshBands(minHasher.bandKeys(directory.minHash()));
+            } else {
+                document.setLshBands(List.of());
+            }
+            document.setScannedAt(LocalDateTime.now());
+            return document;
+        }
+
+        @Override
+        public void close() {
+            List<DirectoryDocument> batch;
+            synchronized (this) {
+                batch = buffer;
+                buffer = new ArrayList<>();
+            }
+            try {
+                directoryRepository.bulkUpsertByPath(batch);
+                if (rootCompleted) {
+                    directoryRepository.deleteNotScannedSince(root.toFile().getAbsolutePath(), startedAt);
+                }
+            } finally {
+                activeRoots.computeIfPresent(root, (path, count) -> count == 1 ? null : count - 1);
+                analysisCache.invalidate();
+            }
+        }
+    }
+
+    @Override
+    public void onFilesUpserted(Collection<FileDocument> fileDocuments) {
+        markAncestorsStale(fileDocuments);
+    }
+
+    @Override
+    public void onFilesRemoved(Collection<FileDocument> fileDocuments) {
+        markAncestorsStale(fileDocuments);
+    }
+
+    @Override
+    public void onIndexReset() {
+        directoryRepository.deleteAll();
+    }
+
+    // Writes from a running scan are skipped: the scan rebuilds those directories itself.
+    private void markAncestorsStale(Collection<FileDocument> fileDocuments) {
+        Set<String> ancestors = new HashSet<>();
+        for (FileDocument fileDocument : fileDocuments) {
+            if (fileDocument.getFilePath() == null) {
+                continue;
+            }
+            Path path = Path.of(fileDocument.getFilePath());
+            if (activeRoots.keySet().stream().anyMatch(path::startsWith)) {
+                continue;
+            }
+            Path parent = path.getParent();
+            while (parent != null && ancestors.add(parent.toString())) {
+                parent = parent.getParent();
+            }
+        }
+        directoryRepository.markStale(ancestors);
+    }
+
+    // similarity 1 returns directories with equal Merkle hashes: same names, sizes and content hashes all the way
+    // down. Such a group is reported identical only when every file below was hashed in full; otherwise some files
+    // only matched on their sampled partial hashes and the group needs a rescan to be verified. Directory hashes only
+    // change on scans, so full hashes that duplicate detection computes later are picked up by the next (incremental)
+    // scan of those directories. Below 1, directories whose file contents overlap by at least that estimated Jaccard
+    // similarity, regardless of names. A group whose directories all lie inside directories of a group already
+    // reported is left out, so two copied projects show up once rather than once per subfolder.
+    public List<DirectoryGroup> findDuplicateDirectories(double similarity) {
+        if (similarity <= 0 || similarity > 1) {
+            throw new IllegalArgumentException("Similarity must be in (0, 1]: " + similarity);
+        }
+        return analysisCache.get("directories", () -> computeDuplicateDirectories(similarity), similarity,
+                scanProperties.getHashAlgorithm());
+    }
+
+    private List<DirectoryGroup> computeDuplicateDirectories(double similarity) {
+        List<DirectoryGroup> groups = new ArrayList<>();
+        if (similarity >= 1) {
+            String algorithm = HashAlgorithms.forName(scanProperties.getHashAlgorithm()).getName();
+            for (List<String> ids : directoryRepository.findIdenticalGroups(algorithm, similarityProperties.getDirectoryMinFiles())) {
+                List<DirectoryDocument> directories = fetchDirectories(ids);
+                groups.add(toGroup(directories, directories.stream().allMatch(DirectoryDocument::isFullyHashed), 1));
+            }
+        } else {
+            groups.addAll(findSimilarDirectories(similarity));
+        }
+        groups.sort(Comparator.comparingLong(DirectoryGroup::getWastedBytes).reversed()
+                .thenComparingInt(group -> group.getDirectories().stream()
+                        .mapToInt(directory -> directory.getPath().length()).min().orElse(0)));
+        return collapseNested(groups);
+    }
+
+    private List<DirectoryGroup> findSimilarDirectories(double similarity) {
+        List<List<String>> buckets = directoryRepository.findLshBuckets(similarityProperties.getDirectoryMinFiles(),
+                similarityProperties.getMaxBucketSize());
+        Map<String, Integer> indexes = new HashMap<>();
+        List<String> ids = new ArrayList<>();
+        for (List<String> bucket : buckets) {
+            for (String id : bucket) {
+                indexes.computeIfAbsent(id, key -> {
+                    ids.add(key);
+                    return ids.size() - 1;
+                });
+            }
+        }
+
+        int[][] signatures = new int[ids.size()][];
+        String[] paths = new String[ids.size()];
+        for (int from = 0; from < ids.size(); from += FETCH_SIZE) {
+            for (DirectoryDocument directory : directoryRepository.findSignaturesByIdIn(ids.subList(from, Math.min(ids.size(), from + FETCH_SIZE)))) {
+                int index = indexes.get(directory.getId());
+                paths[index] = directory.getPath();
+                signatures[index] = directory.getMinHash() == null ? null : MinHasher.fromBytes(directory.getMinHash());
+            }
+        }
+
+        ConcurrentUnionFind clusters = new ConcurrentUnionFind(ids.size());
+        double[] weakestLink = new double[ids.size()];
+        Arrays.fill(weakestLink, 1);
+        for (List<String> bucket : buckets) {
+            for (int i = 0; i < bucket.size(); i++) {
+                int first = indexes.get(bucket.get(i));
+                for (int j = i + 1; j < bucket.size(); j++) {
+                    int second = indexes.get(bucket.get(j));
+                    // a directory trivially resembles the subdirectory holding most of its files
+                    if (clusters.find(first) == clusters.find(second) || isNested(paths[first], paths[second])) {
+                        continue;
+                    }
+                    double estimate = MinHasher.similarity(signatures[first], signatures[second]);
+                    if (estimate >= similarity) {
+                        double link = Math.min(estimate, Math.min(weakestLink[clusters.find(first)], weakestLink[clusters.find(second)]));
+                        clusters.union(first, second);
+                        weakestLink[clusters.find(first)] = link;
+                    }
+                }
+            }
+        }
+
+        Map<Integer, List<String>> clustered = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            clustered.computeIfAbsent(clusters.find(i), root -> new ArrayList<>()).add(ids.get(i));
+        }
+        List<DirectoryGroup> groups = new ArrayList<>();
+        for (Map.Entry<Integer, List<String>> cluster : clustered.entrySet()) {
+            if (cluster.getValue().size() > 1) {
+                List<DirectoryDocument> directories = fetchDirectories(cluster.getValue());
+                boolean identical = directories.stream().allMatch(directory -> directory.getMerkleHash() != null
+                        && directory.isFullyHashed()
+                        && Arrays.equals(directory.getMerkleHash(), directories.getFirst().getMerkleHash()));
+                groups.add(toGroup(directories, identical, weakestLink[cluster.getKey()]));
+            }
+        }
+        return groups;
+    }
+
+    private List<DirectoryDocument> fetchDirectories(List<String> ids) {
+        List<DirectoryDocument> directories = new ArrayList<>(directoryRepository.findWithoutSignatureByIdIn(ids));
+        directories.sort(Comparator.comparing(DirectoryDocument::getPath));
+        return directories;
+    }
+
+    private DirectoryGroup toGroup(List<DirectoryDocument> directories, boolean identical, double similarity) {
+        long largest = directories.stream().mapToLong(DirectoryDocument::getTotalSize).max().orElse(0);
+        long total = directories.stream().mapToLong(DirectoryDocument::getTotalSize).sum();
+        DirectoryGroup group = new DirectoryGroup();
+        group.setDirectories(directories);
+        group.setIdentical(identical);
+        group.setNeedsRescan(!identical && directories.stream().allMatch(directory -> directory.getMerkleHash() != null
+                && Arrays.equals(directory.getMerkleHash(), directories.getFirst().getMerkleHash())));
+        group.setSimilarity(similarity);
+        group.setTotalSize(largest);
+        group.setWastedBytes(total - largest);
+        return group;
+    }
+
+    private List<DirectoryGroup> collapseNested(List<DirectoryGroup> groups) {
+        Set<String> reported = new HashSet<>();
+        List<DirectoryGroup> collapsed = new ArrayList<>();
+        for (DirectoryGroup group : groups) {
+            boolean covered = group.getDirectories().stream().allMatch(directory -> hasReportedAncestor(directory.getPath(), reported));
+            if (!covered) {
+                collapsed.add(group);
+                group.getDirectories().forEach(directory -> reported.add(directory.getPath()));
+            }
+        }
+        return collapsed;
+    }
+
+    private boolean hasReportedAncestor(String path, Set<String> reported) {
+        for (Path parent = Path.of(path).getParent(); parent != null; parent = parent.getParent()) {
+            if (reported.contains(parent.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isNested(String first, String second) {
+        if (first == null || second == null) {
+            return false;
+        }
+        Path firstPath = Path.of(first);
+        Path secondPath = Path.of(second);
+        return firstPath.startsWith(secondPath) || secondPath.startsWith(firstPath);
+    }
+}
@@ -0,0 +1,157 @@
+package com.to.service;
+
+import com.to.config.ScanProperties;
+import com.to.logic.ExtractionStatus;
+import com.to.model.ExtractedContent;
+import com.to.model.ExtractionResult;
+import com.to.repository.ExtractedContentRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+// Extracts the text of each distinct content hash once. Results live in the extracted_contents collection,
+// and a bounded LRU of known hashes saves the lookup for content that was seen recently.
+@Service
+public class ExtractionCache {
+
+    @FunctionalInterface
+    public interface TextExtractor {
+        ExtractionResult extract() throws IOException;
+    }
+
+    private final ExtractedContentRepository extractedContentRepository;
+    private final ContentSimilarityService contentSimilarityService;
+    private final Map<String, ExtractedContent> knownContents;
+    private final Map<String, CompletableFuture<ExtractedContent>> inFlight = new ConcurrentHashMap<>();
+
+    public ExtractionCache(ExtractedContentRepository extractedContentRepository, ScanProperties scanProperties,
+                           ContentSimilarityService contentSimilarityService) {
+        this.extractedContentRepository = extractedContentRepository;
+        this.contentSimilarityService = contentSimilarityService;
+        int maxEntries = Math.max(1, scanProperties.getExtractionCacheEntries());
+        this.knownContents = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ExtractedContent> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // Returns the extraction metadata (without text) for the content, running the extractor only if this content
+    // was never extracted. Failures are stored too, so a broken document is not retried on every copy. A timeout is
+    // stored but retried by later lookups, since a slow machine or a busy moment may have caused it; a BUSY result
+    // means the pool never got to the document and is neither stored nor remembered.
+    public ExtractedContent ensureExtracted(String contentRef, TextExtractor extractor) throws IOException {
+        ExtractedContent known = lookup(contentRef);
+        if (known != null) {
+            return known;
+        }
+
+        CompletableFuture<ExtractedContent> result = new CompletableFuture<>();
+        CompletableFuture<ExtractedContent> running = inFlight.putIfAbsent(contentRef, result);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            ExtractedContent metadata = extractAndStore(contentRef, extractor);
+            if (isFinal(metadata)) {
+                remember(metadata);
+            }
+            result.complete(metadata);
+            return metadata;
+        } catch (IOException | RuntimeException e) {
+            result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(contentRef);
+        }
+    }
+
+    public Optional<String> getText(String contentRef) {
+        return extractedContentRepository.findTextById(contentRef).map(ExtractedContent::getText);
+    }
+
+    // For entries rewritten outside the cache, e.g. by the inline content migration.
+    public void forget(String contentRef) {
+        synchronized (knownContents) {
+            knownContents.remove(contentRef);
+        }
+    }
+
+    private ExtractedContent lookup(String contentRef) {
+        synchronized (knownContents) {
+            ExtractedContent known = knownContents.get(contentRef);
+            if (known != null) {
+                return known;
+            }
+        }
+        Optional<ExtractedContent> stored = extractedContentRepository.findMetadataById(contentRef);
+        if (stored.isEmpty() || !isFinal(stored.get())) {
+            return null;
+        }
+        remember(stored.get());
+        return stored.get();
+    }
+
+    private ExtractedContent extractAndStore(String contentRef, TextExtractor extractor) throws IOException {
+        ExtractionResult result = extractor.extract();
+        String text = result.getText();
+        ExtractedContent extractedContent = new ExtractedContent();
+        extractedContent.setId(contentRef);
+        extractedContent.setText(text);
+        extractedContent.setTextLength(text == null ? 0 : text.length());
+        extractedContent.setStatus(result.getStatus().toString());
+        extractedContent.setErrorMessage(result.getErrorMessage());
+        extractedContent.setExtractedAt(LocalDateTime.now());
+        if (text != null) {
+            contentSimilarityService.sign(extractedContent);
+        }
+        if (result.getStatus() != ExtractionStatus.BUSY) {
+            extractedContentRepository.save(extractedContent);
+        }
+        return metadataOf(extractedContent);
+    }
+
+    private static boolean isFinal(ExtractedContent metadata) {
+        return !ExtractionStatus.TIMED_OUT.toString().equals(metadata.getStatus())
+                && !ExtractionStatus.BUSY.toString().equals(metadata.getStatus());
+    }
+
+    // A copy without text and signature, so the saved entity is left as it was written.
+    private static ExtractedContent metadataOf(ExtractedContent extractedContent) {
+        ExtractedContent metadata = new ExtractedContent();
+        metadata.setId(extractedContent.getId());
+        metadata.setTextLength(extractedContent.getTextLength());
+        metadata.setStatus(extractedContent.getStatus());
+        metadata.setErrorMessage(extractedContent.getErrorMessage());
+        metadata.setExtractedAt(extractedContent.getExtractedAt());
+        return metadata;
+    }
+
+    private void remember(ExtractedContent metadata) {
+        synchronized (knownContents) {
+            knownContents.put(metadata.getId(), metadata);
+        }
+    }
+
+    private ExtractedContent await(CompletableFuture<ExtractedContent> running) throws IOException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for text extraction", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Text extraction failed", e.getCause());
+        }
+    }
+}
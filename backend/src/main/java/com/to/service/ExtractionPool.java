@@ -0,0 +1,105 @@
+package com.to.service;
+
+import com.to.config.ExtractionProperties;
+import com.to.model.ExtractionResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Fixed pool for one extractor type. At most threads + queueCapacity documents are pending. A worker keeps its slot
+// until it really returns, since parsers such as PDFBox ignore the interrupt of a timed-out document; callers wait
+// at most the timeout for a slot and again for a worker, then the timeout for the extraction itself. Giving up while
+// waiting is reported as BUSY rather than TIMED_OUT: the document itself was never tried.
+class ExtractionPool {
+    private final ContentExtractor extractor;
+    private final Duration timeout;
+    private final ExecutorService executor;
+    private final Semaphore slots;
+
+    ExtractionPool(ContentExtractor extractor, ExtractionProperties.Limits limits) {
+        this.extractor = extractor;
+        this.timeout = limits.getTimeout();
+        int threads = Math.max(1, limits.getThreads());
+        this.executor = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("extract-" + extractor.getName() + "-", 0).daemon().factory());
+        this.slots = new Semaphore(threads + Math.max(0, limits.getQueueCapacity()));
+    }
+
+    ExtractionResult extract(File file) throws IOException {
+        boolean bounded = timeout != null && !timeout.isZero();
+        try {
+            if (!bounded) {
+                slots.acquire();
+            } else if (!slots.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return ExtractionResult.busy("No " + extractor.getName() + " extraction slot freed up within " + timeout.toSeconds() + "s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a " + extractor.getName() + " extraction slot");
+        }
+
+        // whoever claims the task first owns the slot: the worker when it starts, the caller when it gives up earlier
+        AtomicBoolean claimed = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(1);
+        FutureTask<ExtractionResult> task = new FutureTask<>(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            started.countDown();
+            try {
+                return extractor.extract(file);
+            } finally {
+                slots.release();
+            }
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw new IOException("Text extraction is shut down", e);
+        }
+
+        try {
+            if (!bounded) {
+                return task.get();
+            }
+            if (!started.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                abandon(task, claimed);
+                return ExtractionResult.busy("No " + extractor.getName() + " extraction worker was free within " + timeout.toSeconds() + "s");
+            }
+            return task.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            return ExtractionResult.timedOut("Text extraction timed out after " + timeout.toSeconds() + "s");
+        } catch (ExecutionException e) {
+            return ExtractionResult.failed(e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            abandon(task, claimed);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while extracting text from " + file.getName());
+        }
+    }
+
+    private void abandon(FutureTask<ExtractionResult> task, AtomicBoolean claimed) {
+        task.cancel(true);
+        if (claimed.compareAndSet(false, true)) {
+            slots.release();
+        }
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,75 +1,348 @@
 package com.to.service;
 
-import com.to.logic.CSVHandler;
-import com.to.logic.EditDistanceCalculator;
+import com.to.config.ScanProperties;
+import com.to.config.VersionsProperties;
+import com.to.logic.BKTree;
+import com.to.logic.ConcurrentUnionFind;
+import com.to.logic.DigestKey;
+import com.to.logic.FileHasher;
+import com.to.logic.HashAlgorithm;
+import com.to.logic.HashAlgorithms;
+import com.to.logic.HashLevel;
+import com.to.logic.VersionGroupingMode;
+import com.to.model.CursorPage;
+import com.to.model.DuplicateGroup;
 import com.to.model.FileDocument;
 import com.to.repository.FileRepository;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Collectors;
 
 @Service
 public class FileAnalysisService {
+    private static final int DUPLICATE_PAGE_SIZE = 500;
 
     private final FileRepository fileRepository;
+    private final ScanProperties scanProperties;
+    private final FileNameNormalizer fileNameNormalizer;
+    private final VersionsProperties versionsProperties;
+    private final AnalysisCache analysisCache;
 
-    public FileAnalysisService(FileRepository fileRepository) {
+    public FileAnalysisService(FileRepository fileRepository, ScanProperties scanProperties, FileNameNormalizer fileNameNormalizer,
+                               VersionsProperties versionsProperties, AnalysisCache analysisCache) {
         this.fileRepository = fileRepository;
+        this.scanProperties = scanProperties;
+        this.fileNameNormalizer = fileNameNormalizer;
+        this.versionsProperties = versionsProperties;
+        this.analysisCache = analysisCache;
     }
 
-    public List<FileDocument> findLargestFiles(int limit) {
-        return fileRepository.findAll()
-                .stream()
-                .sorted(Comparator.comparingLong(FileDocument::getSize).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+    // The cursor is "<size>:<id>" of the last file on the previous page.
+    public CursorPage<FileDocument> findLargestFiles(int limit, String extension, String pathPrefix, String cursor) {
+        return analysisCache.get("largest", () -> computeLargestFiles(limit, extension, pathPrefix, cursor),
+                limit, extension, pathPrefix, cursor);
+    }
+
+    private CursorPage<FileDocument> computeLargestFiles(int limit, String extension, String pathPrefix, String cursor) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        Long afterSize = null;
+        String afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.indexOf(':');
+            try {
+                afterSize = Long.parseLong(cursor.substring(0, separator));
+                afterId = cursor.substring(separator + 1);
+            } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        List<FileDocument> files = fileRepository.findLargest(limit + 1, extension, pathPrefix, afterSize, afterId);
+        if (files.size() <= limit) {
+            return new CursorPage<>(files, null);
+        }
+        List<FileDocument> page = files.subList(0, limit);
+        FileDocument last = page.getLast();
+        return new CursorPage<>(page, last.getSize() + ":" + last.getId());
+    }
+
+    // The cursor is the offset of the next group; hashes are brought up to date only when the first page is requested.
+    public CursorPage<DuplicateGroup> findDuplicates(int limit, String cursor) {
+        return analysisCache.get("duplicates", () -> computeDuplicates(limit, cursor),
+                limit, cursor, scanProperties.getHashAlgorithm());
     }
 
-    public List<List<FileDocument>> findDuplicates() {
-        Map<String, List<FileDocument>> groupedByHash = fileRepository.findAll()
+    private CursorPage<DuplicateGroup> computeDuplicates(int limit, String cursor) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        long offset = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                offset = Long.parseLong(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        HashAlgorithm algorithm = HashAlgorithms.forName(scanProperties.getHashAlgorithm());
+        if (offset == 0) {
+            hashDuplicateCandidates(algorithm);
+        }
+
+        List<DuplicateGroup> groups = fileRepository.findDuplicateGroups(algorithm.getName(), offset, limit + 1);
+        List<DuplicateGroup> page = groups.size() > limit ? groups.subList(0, limit) : groups;
+        attachFiles(page);
+        return new CursorPage<>(page, groups.size() > limit ? String.valueOf(offset + limit) : null);
+    }
+
+    public List<List<FileDocument>> findAllDuplicates() {
+        List<List<FileDocument>> duplicates = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<DuplicateGroup> page = findDuplicates(DUPLICATE_PAGE_SIZE, cursor);
+            page.getItems().forEach(group -> duplicates.add(group.getFiles()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return duplicates;
+    }
+
+    // Only one size group is held in memory at a time.
+    private void hashDuplicateCandidates(HashAlgorithm algorithm) {
+        for (long size : fileRepository.findSizesNeedingHash(algorithm.getName())) {
+            Set<FileDocument> rehashedFiles = new LinkedHashSet<>();
+            for (List<FileDocument> candidates : groupByPartialHash(fileRepository.findBySize(size), algorithm, rehashedFiles)) {
+                candidates.forEach(candidate -> ensureFullHash(candidate, algorithm, rehashedFiles));
+            }
+            if (!rehashedFiles.isEmpty()) {
+                fileRepository.updateHashes(rehashedFiles);
+            }
+        }
+    }
+
+    private void attachFiles(List<DuplicateGroup> groups) {
+        List<String> fileIds = groups.stream().flatMap(group -> group.getFileIds().stream()).toList();
+        Map<String, FileDocument> filesById = fileRepository.findWithoutContentByIdIn(fileIds)
                 .stream()
-                .collect(Collectors.groupingBy(FileDocument::getHash));
+                .collect(Collectors.toMap(FileDocument::getId, fileDocument -> fileDocument));
+        for (DuplicateGroup group : groups) {
+            group.setFiles(group.getFileIds().stream()
+                    .map(filesById::get)
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparing(FileDocument::getFilePath, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .toList());
+        }
+    }
 
-        return groupedByHash.values().stream()
+    private Collection<List<FileDocument>> groupByPartialHash(List<FileDocument> sameSize, HashAlgorithm algorithm,
+                                                              Set<FileDocument> rehashedFiles) {
+        if (sameSize.stream().allMatch(fileDocument -> hasFullHash(fileDocument, algorithm))) {
+            return List.of(sameSize);
+        }
+
+        Map<DigestKey, List<FileDocument>> groupedByPartialHash = new LinkedHashMap<>();
+        for (FileDocument fileDocument : sameSize) {
+            if (isUnreadable(fileDocument, algorithm)) {
+                continue;
+            }
+            if (!hasPartialHash(fileDocument, algorithm)) {
+                byte[] partialDigest;
+                try {
+                    partialDigest = FileHasher.partialHash(new File(fileDocument.getFilePath()), algorithm);
+                } catch (IOException e) {
+                    markUnreadable(fileDocument, algorithm, e, rehashedFiles);
+                    continue;
+                }
+                if (!algorithm.getName().equals(fileDocument.getHashAlgorithm())) {
+                    fileDocument.setDigest(null);
+                    fileDocument.setHashAlgorithm(algorithm.getName());
+                }
+                fileDocument.setPartialDigest(partialDigest);
+                if (FileHasher.isCoveredByPartialHash(fileDocument.getSize())) {
+                    fileDocument.setDigest(partialDigest);
+                    fileDocument.setHashLevel(HashLevel.FULL.toString());
+                } else if (!hasFullHash(fileDocument, algorithm)) {
+                    fileDocument.setHashLevel(HashLevel.PARTIAL.toString());
+                }
+                rehashedFiles.add(fileDocument);
+            }
+            groupedByPartialHash.computeIfAbsent(new DigestKey(algorithm.getName(), fileDocument.getPartialDigest()),
+                    key -> new ArrayList<>()).add(fileDocument);
+        }
+
+        return groupedByPartialHash.values().stream()
                 .filter(group -> group.size() > 1)
-                .collect(Collectors.toList());
+                .toList();
+    }
+
+    private boolean ensureFullHash(FileDocument fileDocument, HashAlgorithm algorithm, Set<FileDocument> rehashedFiles) {
+        if (hasFullHash(fileDocument, algorithm)) {
+            return true;
+        }
+        if (isUnreadable(fileDocument, algorithm)) {
+            return false;
+        }
+        try {
+            fileDocument.setDigest(FileHasher.fullHash(new File(fileDocument.getFilePath()), algorithm));
+        } catch (IOException e) {
+            markUnreadable(fileDocument, algorithm, e, rehashedFiles);
+            return false;
+        }
+        fileDocument.setHashAlgorithm(algorithm.getName());
+        fileDocument.setHashLevel(HashLevel.FULL.toString());
+        rehashedFiles.add(fileDocument);
+        return true;
+    }
+
+    // Stored like a hash, so the file is neither read again on every first page nor grouped as a duplicate.
+    private void markUnreadable(FileDocument fileDocument, HashAlgorithm algorithm, IOException e, Set<FileDocument> rehashedFiles) {
+        System.err.println("Failed to hash " + fileDocument.getFilePath() + ": " + e.getMessage());
+        fileDocument.setHashAlgorithm(algorithm.getName());
+        fileDocument.setDigest(null);
+        fileDocument.setPartialDigest(null);
+        fileDocument.setHashLevel(HashLevel.UNREADABLE.toString());
+        rehashedFiles.add(fileDocument);
+    }
+
+    private boolean isUnreadable(FileDocument fileDocument, HashAlgorithm algorithm) {
+        return HashLevel.UNREADABLE.toString().equals(fileDocument.getHashLevel())
+                && algorithm.getName().equals(fileDocument.getHashAlgorithm());
+    }
+
+    private boolean hasPartialHash(FileDocument fileDocument, HashAlgorithm algorithm) {
+        return fileDocument.getPartialDigest() != null && algorithm.getName().equals(fileDocument.getHashAlgorithm());
+    }
+
+    private boolean hasFullHash(FileDocument fileDocument, HashAlgorithm algorithm) {
+        return fileDocument.getDigest() != null
+                && HashLevel.FULL.toString().equals(fileDocument.getHashLevel())
+                && algorithm.getName().equals(fileDocument.getHashAlgorithm());
     }
 
     public List<List<FileDocument>> findFileVersions(int threshold) {
-        List<FileDocument> allFiles = fileRepository.findAll();
-        List<List<FileDocument>> versions = new ArrayList<>();
-        Set<FileDocument> processedFiles = new HashSet<>();
-        List<String> keywords = CSVHandler.getKeywords();
+        return findFileVersions(threshold, null);
+    }
 
-        for (FileDocument file1 : allFiles) {
-            if (processedFiles.contains(file1)) {
+    // A file "matches" another when its name is within threshold of the other's keyword-stripped name; candidates
+    // come from a BK-tree of stripped names. mode defaults to versions.mode.
+    public List<List<FileDocument>> findFileVersions(int threshold, VersionGroupingMode mode) {
+        if (mode == null) {
+            mode = VersionGroupingMode.valueOf(versionsProperties.getMode().toUpperCase(Locale.ROOT));
+        }
+        VersionGroupingMode groupingMode = mode;
+        return analysisCache.get("versions", () -> computeFileVersions(threshold, groupingMode), threshold, groupingMode);
+    }
+
+    private List<List<FileDocument>> computeFileVersions(int threshold, VersionGroupingMode mode) {
+        List<FileDocument> allFiles = fileRepository.findAllWithoutContent();
+
+        BKTree<Integer> strippedNames = new BKTree<>();
+        for (int i = 0; i < allFiles.size(); i++) {
+            strippedNames.add(normalizedName(allFiles.get(i)), i);
+        }
+
+        return mode == VersionGroupingMode.TRANSITIVE
+                ? groupTransitively(allFiles, strippedNames, threshold)
+                : groupGreedily(allFiles, strippedNames, threshold);
+    }
+
+    // Each file, in list order, takes every not yet grouped file it matches. Same groups as comparing every pair.
+    private List<List<FileDocument>> groupGreedily(List<FileDocument> allFiles, BKTree<Integer> strippedNames, int threshold) {
+        List<List<FileDocument>> versions = new ArrayList<>();
+        boolean[] processed = new boolean[allFiles.size()];
+        for (int i = 0; i < allFiles.size(); i++) {
+            if (processed[i]) {
                 continue;
             }
-
-            List<FileDocument> similarFiles = new ArrayList<>();
-            similarFiles.add(file1);
-
-            for (FileDocument file2 : allFiles) {
-                if (!file1.equals(file2) && !processedFiles.contains(file2)) {
-                    String name = file2.getFileName();
-                    for (String word : keywords) {
-                        name = name.replace(word, "");
-                    }
-                    int distance = EditDistanceCalculator.calculate(file1.getFileName(), name);
-                    if (distance <= threshold) {
-                        similarFiles.add(file2);
-                    }
-                }
+            int current = i;
+            List<Integer> matches = strippedNames.search(allFiles.get(i).getFileName(), threshold)
+                    .stream()
+                    .filter(j -> j != current && !processed[j])
+                    .sorted()
+                    .toList();
+            if (matches.isEmpty()) {
+                continue;
             }
 
-            if (similarFiles.size() > 1) {
-                versions.add(similarFiles);
-                processedFiles.addAll(similarFiles);
+            List<FileDocument> similarFiles = new ArrayList<>(matches.size() + 1);
+            similarFiles.add(allFiles.get(i));
+            processed[i] = true;
+            for (int j : matches) {
+                similarFiles.add(allFiles.get(j));
+                processed[j] = true;
             }
+            versions.add(similarFiles);
         }
 
         return versions;
     }
+
+    // Connected components of the match relation, found in parallel. Groups and their members keep list order,
+    // so the result does not depend on thread scheduling.
+    private List<List<FileDocument>> groupTransitively(List<FileDocument> allFiles, BKTree<Integer> strippedNames, int threshold) {
+        ConcurrentUnionFind clusters = new ConcurrentUnionFind(allFiles.size());
+        ForkJoinPool.commonPool().invoke(new LinkMatchesTask(allFiles, strippedNames, threshold, clusters, 0, allFiles.size()));
+
+        Map<Integer, List<FileDocument>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < allFiles.size(); i++) {
+            groups.computeIfAbsent(clusters.find(i), root -> new ArrayList<>()).add(allFiles.get(i));
+        }
+        return groups.values().stream()
+                .filter(group -> group.size() > 1)
+                .collect(Collectors.toList());
+    }
+
+    private static class LinkMatchesTask extends RecursiveAction {
+        private static final int PARTITION_SIZE = 512;
+
+        private final List<FileDocument> allFiles;
+        private final BKTree<Integer> strippedNames;
+        private final int threshold;
+        private final ConcurrentUnionFind clusters;
+        private final int from;
+        private final int to;
+
+        private LinkMatchesTask(List<FileDocument> allFiles, BKTree<Integer> strippedNames, int threshold,
+                                ConcurrentUnionFind clusters, int from, int to) {
+            this.allFiles = allFiles;
+            this.strippedNames = strippedNames;
+            this.threshold = threshold;
+            this.clusters = clusters;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARTITION_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new LinkMatchesTask(allFiles, strippedNames, threshold, clusters, from, middle),
+                        new LinkMatchesTask(allFiles, strippedNames, threshold, clusters, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                for (int j : strippedNames.search(allFiles.get(i).getFileName(), threshold)) {
+                    clusters.union(i, j);
+                }
+            }
+        }
+    }
+
+    public long rebuildNormalizedNames() {
+        return fileNameNormalizer.rebuildNormalizedNames();
+    }
+
+    // Files indexed before normalized names were stored are normalized on the fly.
+    private String normalizedName(FileDocument fileDocument) {
+        return fileDocument.getNormalizedName() != null
+                ? fileDocument.getNormalizedName()
+                : fileNameNormalizer.normalize(fileDocument.getFileName());
+    }
 }
@@ -0,0 +1,17 @@
+package com.to.service;
+
+import com.to.model.FileDocument;
+
+import java.util.Collection;
+
+// Told about every change to the file index made through the services, after it has been written.
+public interface FileChangeListener {
+
+    void onFilesUpserted(Collection<FileDocument> fileDocuments);
+
+    // Only id and filePath are guaranteed to be set on removed documents.
+    void onFilesRemoved(Collection<FileDocument> fileDocuments);
+
+    // The index was wiped, e.g. before a full rescan.
+    void onIndexReset();
+}
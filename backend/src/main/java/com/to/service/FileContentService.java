@@ -0,0 +1,96 @@
+package com.to.service;
+
+import com.to.config.ScanProperties;
+import com.to.logic.DigestKey;
+import com.to.logic.ExtractionStatus;
+import com.to.logic.HashAlgorithm;
+import com.to.logic.HashAlgorithms;
+import com.to.model.ExtractedContent;
+import com.to.model.FileDocument;
+import com.to.repository.ExtractedContentRepository;
+import com.to.repository.FileRepository;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Serves the extracted text of a single file. File documents only reference their text by contentRef, so lists
+// and analyses never load it.
+@Service
+public class FileContentService {
+    private static final int MIGRATION_BATCH_SIZE = 500;
+
+    private final FileRepository fileRepository;
+    private final ExtractedContentRepository extractedContentRepository;
+    private final ExtractionCache extractionCache;
+    private final ContentSimilarityService contentSimilarityService;
+    private final ScanProperties scanProperties;
+    private final List<FileChangeListener> changeListeners;
+
+    public FileContentService(FileRepository fileRepository, ExtractedContentRepository extractedContentRepository,
+                              ExtractionCache extractionCache, ContentSimilarityService contentSimilarityService,
+                              ScanProperties scanProperties, List<FileChangeListener> changeListeners) {
+        this.fileRepository = fileRepository;
+        this.extractedContentRepository = extractedContentRepository;
+        this.extractionCache = extractionCache;
+        this.contentSimilarityService = contentSimilarityService;
+        this.scanProperties = scanProperties;
+        this.changeListeners = changeListeners;
+    }
+
+    // Empty when the file is unknown or has no extracted text.
+    public Optional<String> getContent(String fileId) {
+        Optional<FileDocument> fileDocument = fileRepository.findContentById(fileId);
+        if (fileDocument.isEmpty()) {
+            return Optional.empty();
+        }
+        if (fileDocument.get().getContentRef() != null) {
+            return extractionCache.getText(fileDocument.get().getContentRef());
+        }
+        return Optional.ofNullable(fileDocument.get().getContent());
+    }
+
+    // Moves inline text of files indexed by older versions into extracted_contents. A file with a full digest keeps
+    // the reference a new scan would give it; otherwise the text itself is hashed. Listeners are told about each
+    // migrated batch so the search index picks up the moved text.
+    public long migrateInlineContent() {
+        return fileRepository.moveInlineContent(this::store,
+                batch -> changeListeners.forEach(listener -> listener.onFilesUpserted(batch)), MIGRATION_BATCH_SIZE);
+    }
+
+    private String store(FileDocument fileDocument) {
+        String text = fileDocument.getContent();
+        if (text.isEmpty()) {
+            return null;
+        }
+        String contentRef;
+        if (fileDocument.getDigest() != null && fileDocument.getHashAlgorithm() != null) {
+            contentRef = new DigestKey(fileDocument.getHashAlgorithm(), fileDocument.getDigest()).toString();
+        } else {
+            HashAlgorithm algorithm = HashAlgorithms.forName(scanProperties.getHashAlgorithm());
+            HashAlgorithm.Hasher hasher = algorithm.newHasher();
+            hasher.update(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+            contentRef = new DigestKey(algorithm.getName(), hasher.digest()).toString();
+        }
+        // A failed or timed out extraction stored under the same digest holds no text; the inline text replaces it
+        // instead of being dropped.
+        Optional<ExtractedContent> stored = extractedContentRepository.findMetadataById(contentRef);
+        if (stored.isPresent() && stored.get().getTextLength() > 0) {
+            return contentRef;
+        }
+
+        ExtractedContent extractedContent = new ExtractedContent();
+        extractedContent.setId(contentRef);
+        extractedContent.setText(text);
+        extractedContent.setTextLength(text.length());
+        extractedContent.setStatus(ExtractionStatus.SUCCESS.toString());
+        extractedContent.setExtractedAt(LocalDateTime.now());
+        contentSimilarityService.sign(extractedContent);
+        extractedContentRepository.save(extractedContent);
+        extractionCache.forget(contentRef);
+        return contentRef;
+    }
+}
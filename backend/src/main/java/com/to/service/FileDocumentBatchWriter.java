@@ -0,0 +1,122 @@
+package com.to.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.to.model.FileDocument;
+import com.to.model.ScanProgress;
+import com.to.repository.FileRepository;
+import org.springframework.data.mongodb.BulkOperationException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class FileDocumentBatchWriter implements AutoCloseable {
+    private static final long DOCUMENT_OVERHEAD_BYTES = 256;
+
+    private final FileRepository fileRepository;
+    private final ScanProgress scanProgress;
+    private final int maxBatchSize;
+    private final long maxBatchBytes;
+    private final long flushIntervalNanos;
+    private final ScheduledExecutorService flushScheduler;
+    private final List<FileChangeListener> changeListeners;
+
+    private List<FileDocument> buffer = new ArrayList<>();
+    private long bufferedBytes;
+    private long lastFlushNanos = System.nanoTime();
+
+    public FileDocumentBatchWriter(FileRepository fileRepository, ScanProgress scanProgress,
+                                   int maxBatchSize, long maxBatchBytes, Duration flushInterval,
+                                   List<FileChangeListener> changeListeners) {
+        this.fileRepository = fileRepository;
+        this.changeListeners = changeListeners;
+        this.scanProgress = scanProgress;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxBatchBytes = Math.max(1, maxBatchBytes);
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.flushScheduler = Executors.newSingleThreadScheduledExecutor();
+        long intervalMillis = Math.max(1, flushInterval.toMillis());
+        flushScheduler.scheduleWithFixedDelay(this::flushIfStale, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void add(FileDocument fileDocument) {
+        List<FileDocument> batch = null;
+        synchronized (this) {
+            buffer.add(fileDocument);
+            bufferedBytes += estimateSize(fileDocument);
+            if (buffer.size() >= maxBatchSize || bufferedBytes >= maxBatchBytes) {
+                batch = drain();
+            }
+        }
+        if (batch != null) {
+            write(batch);
+        }
+    }
+
+    public void flush() {
+        List<FileDocument> batch;
+        synchronized (this) {
+            batch = drain();
+        }
+        write(batch);
+    }
+
+    @Override
+    public void close() {
+        flushScheduler.shutdownNow();
+        flush();
+    }
+
+    private void flushIfStale() {
+        List<FileDocument> batch = null;
+        synchronized (this) {
+            if (!buffer.isEmpty() && System.nanoTime() - lastFlushNanos >= flushIntervalNanos) {
+                batch = drain();
+            }
+        }
+        if (batch != null) {
+            write(batch);
+        }
+    }
+
+    private List<FileDocument> drain() {
+        List<FileDocument> batch = buffer;
+        buffer = new ArrayList<>();
+        bufferedBytes = 0;
+        lastFlushNanos = System.nanoTime();
+        return batch;
+    }
+
+    private void write(List<FileDocument> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            fileRepository.bulkUpsertByFilePath(batch);
+            scanProgress.recordWritten(batch.size());
+        } catch (BulkOperationException e) {
+            scanProgress.recordWritten(batch.size() - e.getErrors().size());
+            for (BulkWriteError error : e.getErrors()) {
+                scanProgress.recordFailed(1, "Failed to save " + batch.get(error.getIndex()).getFilePath() + ": " + error.getMessage());
+            }
+        } catch (RuntimeException e) {
+            scanProgress.recordFailed(batch.size(), "Failed to save batch of " + batch.size() + " files starting at "
+                    + batch.getFirst().getFilePath() + ": " + e.getMessage());
+            return;
+        }
+        // a partially failed batch is reported whole; listeners only learn that these paths may have changed
+        changeListeners.forEach(listener -> listener.onFilesUpserted(batch));
+    }
+
+    private long estimateSize(FileDocument fileDocument) {
+        long chars = length(fileDocument.getFileName()) + length(fileDocument.getFilePath()) + length(fileDocument.getContent());
+        return DOCUMENT_OVERHEAD_BYTES + 2 * chars;
+    }
+
+    private long length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
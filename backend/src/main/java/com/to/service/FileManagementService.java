@@ -1,26 +1,37 @@
 package com.to.service;
 
 import com.to.logic.ActionStatus;
+import com.to.logic.FileSortOrder;
 import com.to.logic.ZipArchiver;
+import com.to.model.CursorPage;
 import com.to.model.FileDocument;
 import com.to.repository.FileRepository;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class FileManagementService {
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final FileRepository fileRepository;
     private final ActionLogService actionLogService;
+    private final List<FileChangeListener> changeListeners;
 
-    public FileManagementService(FileRepository fileRepository, ActionLogService actionLogService) {
+    public FileManagementService(FileRepository fileRepository, ActionLogService actionLogService,
+                                 List<FileChangeListener> changeListeners) {
         this.fileRepository = fileRepository;
         this.actionLogService = actionLogService;
+        this.changeListeners = changeListeners;
     }
 
     public void deleteAllFiles() {
         fileRepository.deleteAll();
+        changeListeners.forEach(FileChangeListener::onIndexReset);
     }
 
     public void openFile(String filePath) throws IOException {
@@ -59,10 +70,49 @@ public class FileManagementService {
 
         actionLogService.changeLogStatus(logId, ActionStatus.SUCCESS);
         fileRepository.deleteById(fileId);
+        changeListeners.forEach(listener -> listener.onFilesRemoved(List.of(fileDocument)));
     }
 
+    // Only the first page: reading every file into one list does not scale, getFilesPage and streamAllFiles do.
     public List<FileDocument> getAllFiles() {
-        return fileRepository.findAll();
+        return getFilesPage(MAX_PAGE_SIZE, FileSortOrder.ID, null).getItems();
+    }
+
+    // The cursor is the id of the last file on the previous page, prefixed by "<base64url path>:" in PATH order.
+    public CursorPage<FileDocument> getFilesPage(int limit, FileSortOrder order, String cursor) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE + ": " + limit);
+        }
+        String afterPath = null;
+        String afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            if (order == FileSortOrder.PATH) {
+                int separator = cursor.lastIndexOf(':');
+                try {
+                    afterPath = new String(Base64.getUrlDecoder().decode(cursor.substring(0, separator)), StandardCharsets.UTF_8);
+                    afterId = cursor.substring(separator + 1);
+                } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+                }
+            } else {
+                afterId = cursor;
+            }
+        }
+
+        List<FileDocument> files = fileRepository.findPage(order, limit + 1, afterPath, afterId);
+        if (files.size() <= limit) {
+            return new CursorPage<>(files, null);
+        }
+        List<FileDocument> page = files.subList(0, limit);
+        FileDocument last = page.getLast();
+        String nextCursor = order == FileSortOrder.PATH
+                ? Base64.getUrlEncoder().withoutPadding().encodeToString(last.getFilePath().getBytes(StandardCharsets.UTF_8)) + ":" + last.getId()
+                : last.getId();
+        return new CursorPage<>(page, nextCursor);
+    }
+
+    public Stream<FileDocument> streamAllFiles() {
+        return fileRepository.streamAllWithoutContent();
     }
 
     public void moveFilesToDirectory(String targetDirectoryPath, List<FileDocument> files) throws IOException {
@@ -75,9 +125,16 @@ public class FileManagementService {
             File file = new File(fileDocument.getFilePath());
             File newFile = new File(targetDirectoryPath, file.getName());
             if (file.renameTo(newFile)) {
+                FileDocument previousLocation = new FileDocument();
+                previousLocation.setId(fileDocument.getId());
+                previousLocation.setFilePath(fileDocument.getFilePath());
                 fileDocument.setFilePath(newFile.getAbsolutePath());
                 actionLogService.logMoveFiles(file.getAbsolutePath(), newFile.getAbsolutePath(), true, false);
-                fileRepository.save(fileDocument);
+                fileRepository.updateFilePath(fileDocument.getId(), fileDocument.getFilePath());
+                changeListeners.forEach(listener -> {
+                    listener.onFilesRemoved(List.of(previousLocation));
+                    listener.onFilesUpserted(List.of(fileDocument));
+                });
             } else {
                 actionLogService.logMoveFiles(file.getAbsolutePath(), newFile.getAbsolutePath(), false, false);
                 throw new IOException("Failed to move file: " + file.getAbsolutePath());
@@ -86,7 +143,7 @@ public class FileManagementService {
     }
 
     public void moveSelectedFilesToDirectory(List<String> fileIds, String targetDirectoryPath) throws IOException {
-        List<FileDocument> selectedFiles = fileRepository.findAllById(fileIds);
+        List<FileDocument> selectedFiles = fileRepository.findWithoutContentByIdIn(fileIds);
 
         if (selectedFiles.isEmpty()) {
             throw new IllegalArgumentException("No files found with the provided IDs.");
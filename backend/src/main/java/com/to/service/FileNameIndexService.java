@@ -0,0 +1,219 @@
+package com.to.service;
+
+import com.to.logic.FileNameMatchMode;
+import com.to.logic.FileNameTrigramIndex;
+import com.to.model.FileDocument;
+import com.to.repository.FileRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Keeps the names of all indexed files in memory for find-as-you-type lookups. The index is loaded from the files
+// collection in the background at startup and follows scans, moves and deletes as a FileChangeListener. Only paths
+// and names are held; the files of a result page are read from Mongo by path.
+@Service
+public class FileNameIndexService implements FileChangeListener {
+    private static final int MAX_LIMIT = 1000;
+    private static final int MAX_DISTANCE = 3;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final FileRepository fileRepository;
+    private final FileNameTrigramIndex index = new FileNameTrigramIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService loader = Executors.newSingleThreadExecutor();
+    // guarded by lock: bumped by every reset so that a running load stops, and the paths removed while it runs
+    private long generation;
+    private Set<String> removedWhileLoading;
+    private volatile boolean ready;
+
+    public FileNameIndexService(FileRepository fileRepository) {
+        this.fileRepository = fileRepository;
+    }
+
+    @PostConstruct
+    public void start() {
+        loader.execute(() -> {
+            try {
+                load();
+            } catch (RuntimeException e) {
+                System.err.println("Failed to load the file name index: " + e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        loader.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Throws IllegalStateException while the index is still loading.
+    public List<FileDocument> find(String query, FileNameMatchMode mode, int maxDistance, int limit) {
+        if (query == null || query.isEmpty()) {
+            throw new IllegalArgumentException("query must not be empty");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT + ": " + limit);
+        }
+        if (maxDistance < 0 || maxDistance > MAX_DISTANCE) {
+            throw new IllegalArgumentException("maxDistance must be between 0 and " + MAX_DISTANCE + ": " + maxDistance);
+        }
+        if (!ready) {
+            throw new IllegalStateException("The file name index is still loading");
+        }
+
+        List<String> paths;
+        lock.readLock().lock();
+        try {
+            paths = switch (mode) {
+                case PREFIX -> index.prefix(query, limit);
+                case SUBSTRING -> index.substring(query, limit);
+                case FUZZY -> index.fuzzy(query, maxDistance, limit);
+            };
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (paths.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, FileDocument> files = new HashMap<>();
+        for (FileDocument fileDocument : fileRepository.findByFilePathIn(paths)) {
+            files.put(fileDocument.getFilePath(), fileDocument);
+        }
+        return paths.stream().map(files::get).filter(Objects::nonNull).toList();
+    }
+
+    // Drops the index and loads it again from the files collection; returns the number of indexed names.
+    public long reload() {
+        Future<Long> loaded = loader.submit(this::load);
+        try {
+            return loaded.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading the file name index", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to load the file name index", e.getCause());
+        }
+    }
+
+    @Override
+    public void onFilesUpserted(Collection<FileDocument> fileDocuments) {
+        lock.writeLock().lock();
+        try {
+            for (FileDocument fileDocument : fileDocuments) {
+                if (fileDocument.getFilePath() == null || fileDocument.getFileName() == null) {
+                    continue;
+                }
+                index.put(fileDocument.getFilePath(), fileDocument.getFileName());
+                if (removedWhileLoading != null) {
+                    removedWhileLoading.remove(fileDocument.getFilePath());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onFilesRemoved(Collection<FileDocument> fileDocuments) {
+        lock.writeLock().lock();
+        try {
+            for (FileDocument fileDocument : fileDocuments) {
+                if (fileDocument.getFilePath() == null) {
+                    continue;
+                }
+                index.remove(fileDocument.getFilePath());
+                if (removedWhileLoading != null) {
+                    removedWhileLoading.add(fileDocument.getFilePath());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onIndexReset() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Changes reported while the files are streamed are applied right away. A file the stream returns after it was
+    // removed is skipped, and a reset ends the load since the emptied index is then complete on its own.
+    private long load() {
+        long loadGeneration;
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            index.clear();
+            loadGeneration = ++generation;
+            removedWhileLoading = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try (Stream<FileDocument> files = fileRepository.streamAllWithoutContent()) {
+            List<FileDocument> batch = new ArrayList<>();
+            for (FileDocument fileDocument : (Iterable<FileDocument>) files::iterator) {
+                batch.add(fileDocument);
+                if (batch.size() >= LOAD_BATCH_SIZE) {
+                    if (!addLoaded(batch, loadGeneration)) {
+                        break;
+                    }
+                    batch.clear();
+                }
+            }
+            addLoaded(batch, loadGeneration);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                removedWhileLoading = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        ready = true;
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean addLoaded(List<FileDocument> batch, long loadGeneration) {
+        lock.writeLock().lock();
+        try {
+            if (generation != loadGeneration) {
+                return false;
+            }
+            for (FileDocument fileDocument : batch) {
+                if (fileDocument.getFilePath() != null && fileDocument.getFileName() != null
+                        && !removedWhileLoading.contains(fileDocument.getFilePath())) {
+                    index.put(fileDocument.getFilePath(), fileDocument.getFileName());
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.to.service;
+
+import com.to.config.VersionsProperties;
+import com.to.logic.CSVHandler;
+import com.to.logic.KeywordMatcher;
+import com.to.repository.FileRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Strips version keywords (copy, kopia, ...) from file names. Keywords come from versions.keywords-file when set,
+// otherwise from the bundled versions_keywords.csv; an edited keywords file is picked up and stored names rebuilt.
+@Service
+public class FileNameNormalizer {
+    private final FileRepository fileRepository;
+    private final VersionsProperties versionsProperties;
+    private final AnalysisCache analysisCache;
+    private volatile KeywordMatcher matcher;
+    private volatile FileTime keywordsModified;
+    private ScheduledExecutorService scheduler;
+
+    public FileNameNormalizer(FileRepository fileRepository, VersionsProperties versionsProperties,
+                              AnalysisCache analysisCache) {
+        this.fileRepository = fileRepository;
+        this.versionsProperties = versionsProperties;
+        this.analysisCache = analysisCache;
+        this.matcher = new KeywordMatcher(loadKeywords());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (keywordsFile() == null) {
+            return;
+        }
+        long intervalMillis = versionsProperties.getKeywordsReloadInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.scheduleWithFixedDelay(this::reloadIfChanged, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public String normalize(String fileName) {
+        return matcher.strip(fileName);
+    }
+
+    public long rebuildNormalizedNames() {
+        long updated = fileRepository.updateNormalizedNames(this::normalize, versionsProperties.getRebuildBatchSize());
+        if (updated > 0) {
+            analysisCache.invalidate();
+        }
+        return updated;
+    }
+
+    private void reloadIfChanged() {
+        Path file = keywordsFile();
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (modified.equals(keywordsModified)) {
+                return;
+            }
+            // Remember the new timestamp only once stored names match the new keywords, so a failed rebuild is retried
+            matcher = new KeywordMatcher(CSVHandler.getKeywords(file));
+            rebuildNormalizedNames();
+            keywordsModified = modified;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to reload version keywords: " + e.getMessage());
+        }
+    }
+
+    private List<String> loadKeywords() {
+        Path file = keywordsFile();
+        if (file != null && Files.isRegularFile(file)) {
+            try {
+                FileTime modified = Files.getLastModifiedTime(file);
+                List<String> keywords = CSVHandler.getKeywords(file);
+                keywordsModified = modified;
+                return keywords;
+            } catch (IOException e) {
+                System.err.println("Failed to read version keywords from " + file + ": " + e.getMessage());
+            }
+        }
+        return CSVHandler.getKeywords();
+    }
+
+    private Path keywordsFile() {
+        String keywordsFile = versionsProperties.getKeywordsFile();
+        return keywordsFile == null || keywordsFile.isBlank() ? null : Path.of(keywordsFile);
+    }
+}
@@ -1,44 +1,110 @@
 package com.to.service;
 
+import com.to.config.ScanProperties;
+import com.to.logic.DigestKey;
+import com.to.logic.DirectoryHashRollup;
+import com.to.logic.ExtractionStatus;
+import com.to.logic.FileHasher;
+import com.to.logic.HashAlgorithm;
+import com.to.logic.HashAlgorithms;
+import com.to.logic.HashLevel;
+import com.to.logic.ParallelFileWalker;
+import com.to.model.ExtractedContent;
 import com.to.model.FileDocument;
+import com.to.model.ScanProgress;
 import com.to.repository.FileRepository;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class FileProcessingService {
     private final FileRepository fileRepository;
+    private final ScanProperties scanProperties;
+    private final ExtractionCache extractionCache;
+    private final ContentExtractors contentExtractors;
+    private final FileNameNormalizer fileNameNormalizer;
+    private final DirectoryIndexService directoryIndexService;
+    private final List<FileChangeListener> changeListeners;
 
-    public FileProcessingService(FileRepository fileRepository) {
+    public FileProcessingService(FileRepository fileRepository, ScanProperties scanProperties, ExtractionCache extractionCache,
+                                 ContentExtractors contentExtractors, FileNameNormalizer fileNameNormalizer,
+                                 DirectoryIndexService directoryIndexService, List<FileChangeListener> changeListeners) {
         this.fileRepository = fileRepository;
+        this.scanProperties = scanProperties;
+        this.extractionCache = extractionCache;
+        this.contentExtractors = contentExtractors;
+        this.fileNameNormalizer = fileNameNormalizer;
+        this.directoryIndexService = directoryIndexService;
+        this.changeListeners = changeListeners;
     }
 
-    public void processDirectory(File directory) throws IOException, NoSuchAlgorithmException {
+    public ScanProgress processDirectory(File directory) throws IOException, NoSuchAlgorithmException {
+        return processDirectory(directory, false);
+    }
+
+    public ScanProgress processDirectory(File directory, boolean incremental) throws IOException, NoSuchAlgorithmException {
+        ScanProgress scanProgress = new ScanProgress();
+        processDirectory(directory, incremental, scanProgress);
+        return scanProgress;
+    }
+
+    public void processDirectory(File directory, boolean incremental, ScanProgress scanProgress) throws IOException, NoSuchAlgorithmException {
         if (!directory.exists() || !directory.isDirectory()) {
             throw new IllegalArgumentException("Given path is not a directory!");
         }
 
-        for (File file : directory.listFiles()) {
-            if (file.isHidden()) continue;
+        Set<String> seenPaths = ConcurrentHashMap.newKeySet();
+        Path root = directory.toPath().toAbsolutePath();
+        ParallelFileWalker walker = new ParallelFileWalker(scanProperties.getWorkers());
+        try (DirectoryIndexService.DirectoryScan directoryScan = directoryIndexService.startScan(root);
+             FileDocumentBatchWriter writer = new FileDocumentBatchWriter(fileRepository, scanProgress,
+                     scanProperties.getBatchSize(), scanProperties.getBatchMaxBytes(), scanProperties.getBatchFlushInterval(), changeListeners)) {
+            DirectoryHashRollup rollup = directoryScan.getRollup();
+            walker.walk(root, scanProgress, (file, attrs) -> {
+                File currentFile = file.toFile();
+                FileDocument fileDocument;
+                if (!incremental) {
+                    fileDocument = createFileDocument(currentFile);
+                    writer.add(fileDocument);
+                } else {
+                    seenPaths.add(currentFile.getAbsolutePath());
+                    Optional<FileDocument> existing = fileRepository.findByFilePath(currentFile.getAbsolutePath());
+                    if (existing.isPresent() && isUnchanged(existing.get(), attrs) && !needsExtraction(existing.get())) {
+                        fileDocument = existing.get();
+                        if (ensurePartialHash(fileDocument, currentFile)) {
+                            writer.add(fileDocument);
+                        }
+                    } else {
+                        fileDocument = createFileDocument(currentFile);
+                        existing.map(FileDocument::getId).ifPresent(fileDocument::setId);
+                        writer.add(fileDocument);
+                    }
+                }
+                rollup.fileCompleted(file, fileDocument.getSize(), fileDocument.getPartialDigest(),
+                        HashLevel.FULL.toString().equals(fileDocument.getHashLevel()) ? fileDocument.getDigest() : null);
+                scanProgress.recordProcessed(attrs.size());
+            }, rollup);
+        }
 
-            if (file.isDirectory()) {
-                processDirectory(file);
-            } else {
-                FileDocument fileDocument = createFileDocument(file);
-                fileRepository.save(fileDocument);
-            }
+        if (incremental && !scanProgress.isCancelRequested()) {
+            removeMissingFiles(directory, seenPaths);
         }
     }
 
@@ -49,72 +115,152 @@ public class FileProcessingService {
             processDirectory(file);
         } else {
             FileDocument fileDocument = createFileDocument(file);
+            fileRepository.findByFilePath(fileDocument.getFilePath())
+                    .ifPresent(previous -> fileDocument.setId(previous.getId()));
             fileRepository.save(fileDocument);
+            changeListeners.forEach(listener -> listener.onFilesUpserted(List.of(fileDocument)));
         }
     }
 
-    public String extractTextFromPdf(File file) throws IOException {
-        try (PDDocument document = PDDocument.load(file)) {
-            if (document.isEncrypted()) {
-                throw new IOException("The PDF is encrypted and cannot be processed.");
+    // Re-indexes changed files and drops documents of paths that no longer exist, including everything under a
+    // deleted directory.
+    public void refreshPaths(Collection<Path> paths) throws IOException, NoSuchAlgorithmException {
+        List<FileDocument> changedFiles = new ArrayList<>();
+        for (Path path : paths) {
+            File file = path.toFile();
+            if (file.isFile()) {
+                if (file.isHidden()) {
+                    continue;
+                }
+                Optional<FileDocument> existing = fileRepository.findByFilePath(file.getAbsolutePath());
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    continue;
+                }
+                if (existing.isPresent() && isUnchanged(existing.get(), attrs) && !needsExtraction(existing.get())) {
+                    continue;
+                }
+                FileDocument fileDocument = createFileDocument(file);
+                existing.ifPresent(previous -> fileDocument.setId(previous.getId()));
+                changedFiles.add(fileDocument);
+            } else if (!file.exists()) {
+                removePath(file.getAbsolutePath());
             }
-            PDFTextStripper pdfStripper = new PDFTextStripper();
-            return pdfStripper.getText(document);
+        }
+        if (!changedFiles.isEmpty()) {
+            fileRepository.bulkUpsertByFilePath(changedFiles);
+            changeListeners.forEach(listener -> listener.onFilesUpserted(changedFiles));
+        }
+    }
+
+    private void removePath(String path) {
+        List<FileDocument> removedFiles = new ArrayList<>();
+        fileRepository.findByFilePath(path).ifPresent(removedFiles::add);
+        removedFiles.addAll(fileRepository.findByFilePathStartingWith(path + File.separator));
+        if (!removedFiles.isEmpty()) {
+            fileRepository.deleteAllById(removedFiles.stream().map(FileDocument::getId).toList());
+            changeListeners.forEach(listener -> listener.onFilesRemoved(removedFiles));
+        }
+    }
+
+    // Text extraction that timed out or never got a worker is tried again even for an unchanged file.
+    private boolean needsExtraction(FileDocument fileDocument) {
+        return ExtractionStatus.TIMED_OUT.toString().equals(fileDocument.getExtractionStatus())
+                || ExtractionStatus.BUSY.toString().equals(fileDocument.getExtractionStatus());
+    }
+
+    private boolean isUnchanged(FileDocument fileDocument, BasicFileAttributes attrs) {
+        LocalDateTime lastModified = convertInstantToLocalDateTime(attrs.lastModifiedTime().toInstant());
+        return fileDocument.getSize() == attrs.size()
+                && fileDocument.getLastModified() != null
+                && fileDocument.getLastModified().truncatedTo(ChronoUnit.MILLIS).equals(lastModified.truncatedTo(ChronoUnit.MILLIS))
+                && Objects.equals(fileDocument.getFileKey(), fileKeyOf(attrs));
+    }
+
+    private void removeMissingFiles(File directory, Set<String> seenPaths) {
+        String pathPrefix = directory.getAbsolutePath().endsWith(File.separator)
+                ? directory.getAbsolutePath()
+                : directory.getAbsolutePath() + File.separator;
+        List<FileDocument> missingFiles = fileRepository.findByFilePathStartingWith(pathPrefix)
+                .stream()
+                .filter(fileDocument -> !seenPaths.contains(fileDocument.getFilePath()))
+                .toList();
+        if (!missingFiles.isEmpty()) {
+            fileRepository.deleteAllById(missingFiles.stream().map(FileDocument::getId).toList());
+            changeListeners.forEach(listener -> listener.onFilesRemoved(missingFiles));
         }
     }
 
     private FileDocument createFileDocument(File file) throws IOException, NoSuchAlgorithmException {
         FileDocument document = new FileDocument();
         document.setFileName(file.getName());
+        document.setNormalizedName(fileNameNormalizer.normalize(file.getName()));
         document.setFilePath(file.getAbsolutePath());
         document.setSize(file.length());
-        document.setHash(computeFileHash(file));
-
-        if (file.getName().toLowerCase().endsWith(".txt")
-                || file.getName().toLowerCase().endsWith(".md")
-                || file.getName().toLowerCase().endsWith(".csv")
-                || file.getName().toLowerCase().endsWith(".json")) {
-            String content = new String(Files.readAllBytes(file.toPath()));
-            document.setContent(content);
-        }
-        else if(file.getName().toLowerCase().endsWith(".pdf")) {
-            try {
-                String content = extractTextFromPdf(file);
-                document.setContent(content);
-            } catch (IOException e) {
-                System.err.println("Failed to extract text from PDF: " + file.getName());
-                document.setContent(null);
-            }
+        document.setHashLevel(HashLevel.NONE.toString());
+
+        ExtractionCache.TextExtractor extractor = contentExtractors.extractorFor(file);
+        if (extractor != null) {
+            HashAlgorithm algorithm = HashAlgorithms.forName(scanProperties.getHashAlgorithm());
+            byte[] digest = FileHasher.fullHash(file, algorithm);
+            document.setHashAlgorithm(algorithm.getName());
+            document.setDigest(digest);
+            document.setHashLevel(HashLevel.FULL.toString());
 
-        }else {
-            document.setContent(null);
+            String contentRef = new DigestKey(algorithm.getName(), digest).toString();
+            ExtractedContent extracted = extractionCache.ensureExtracted(contentRef, extractor);
+            if (extracted.getTextLength() > 0) {
+                document.setContentRef(contentRef);
+            }
+            document.setExtractionStatus(extracted.getStatus());
+            document.setExtractionError(extracted.getErrorMessage());
         }
+        ensurePartialHash(document, file);
 
         BasicFileAttributes attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
         document.setCreatedAt(convertInstantToLocalDateTime(attrs.creationTime().toInstant()));
         document.setLastModified(convertInstantToLocalDateTime(attrs.lastModifiedTime().toInstant()));
+        document.setFileKey(fileKeyOf(attrs));
 
         return document;
     }
 
+    // Every file gets a partial hash of the configured algorithm at scan time: directory hashes are built from it,
+    // and duplicate detection only has to fully hash files whose partial hashes collide. An unreadable file keeps
+    // none and makes its directories incomplete.
+    private boolean ensurePartialHash(FileDocument document, File file) {
+        HashAlgorithm algorithm = HashAlgorithms.forName(scanProperties.getHashAlgorithm());
+        if (document.getPartialDigest() != null && algorithm.getName().equals(document.getHashAlgorithm())) {
+            return false;
+        }
+        byte[] partialDigest;
+        try {
+            partialDigest = FileHasher.partialHash(file, algorithm);
+        } catch (IOException e) {
+            return false;
+        }
+        if (!algorithm.getName().equals(document.getHashAlgorithm())) {
+            document.setDigest(null);
+            document.setHashAlgorithm(algorithm.getName());
+            document.setHashLevel(HashLevel.NONE.toString());
+        }
+        document.setPartialDigest(partialDigest);
+        if (document.getDigest() == null && FileHasher.isCoveredByPartialHash(document.getSize())) {
+            document.setDigest(partialDigest);
+            document.setHashLevel(HashLevel.FULL.toString());
+        } else if (!HashLevel.FULL.toString().equals(document.getHashLevel())) {
+            document.setHashLevel(HashLevel.PARTIAL.toString());
+        }
+        return true;
+    }
+
     private LocalDateTime convertInstantToLocalDateTime(Instant instant) {
         return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
     }
 
-    private String computeFileHash(File file) throws NoSuchAlgorithmException, IOException {
-        MessageDigest digest = MessageDigest.getInstance("MD5");
-        try (FileInputStream fis = new FileInputStream(file)) {
-            byte[] byteArray = new byte[1024];
-            int bytesCount;
-            while ((bytesCount = fis.read(byteArray)) != -1) {
-                digest.update(byteArray, 0, bytesCount);
-            }
-        }
-        byte[] bytes = digest.digest();
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02x", b));
-        }
-        return sb.toString();
+    private String fileKeyOf(BasicFileAttributes attrs) {
+        return attrs.fileKey() == null ? null : attrs.fileKey().toString();
     }
 }
@@ -1,6 +1,16 @@
 package com.to.service;
 
+import com.to.logic.FileNameMatchMode;
+import com.to.logic.FileSortOrder;
+import com.to.logic.VersionGroupingMode;
+import com.to.model.CursorPage;
+import com.to.model.DirectoryGroup;
+import com.to.model.DuplicateGroup;
 import com.to.model.FileDocument;
+import com.to.model.ScanJob;
+import com.to.model.ScanProgress;
+import com.to.model.SearchFilter;
+import com.to.model.SearchHit;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
@@ -8,6 +18,7 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 public class FileService {
@@ -17,20 +28,54 @@ public class FileService {
     private final FileAnalysisService fileAnalysisService;
     private final ActionLogService actionLogService;
     private final KeyWordsService keyWordsService;
-
-    public FileService(FileProcessingService fileProcessingService, FileManagementService fileManagementService, FileAnalysisService fileAnalysisService, ActionLogService actionLogService, KeyWordsService keyWordsService) {
+    private final ScanJobService scanJobService;
+    private final ContentSimilarityService contentSimilarityService;
+    private final DirectoryIndexService directoryIndexService;
+    private final FileContentService fileContentService;
+    private final FileNameIndexService fileNameIndexService;
+
+    public FileService(FileProcessingService fileProcessingService, FileManagementService fileManagementService, FileAnalysisService fileAnalysisService, ActionLogService actionLogService, KeyWordsService keyWordsService, ScanJobService scanJobService,
+                       ContentSimilarityService contentSimilarityService, DirectoryIndexService directoryIndexService,
+                       FileContentService fileContentService, FileNameIndexService fileNameIndexService) {
         this.fileProcessingService = fileProcessingService;
         this.fileManagementService = fileManagementService;
         this.fileAnalysisService = fileAnalysisService;
         this.actionLogService = actionLogService;
         this.keyWordsService = keyWordsService;
+        this.scanJobService = scanJobService;
+        this.contentSimilarityService = contentSimilarityService;
+        this.directoryIndexService = directoryIndexService;
+        this.fileContentService = fileContentService;
+        this.fileNameIndexService = fileNameIndexService;
     }
 
-    public void processDirectory(String directoryPath) throws IOException, NoSuchAlgorithmException {
-        fileManagementService.deleteAllFiles();
-        actionLogService.deleteAllLogs();
+    public ScanProgress processDirectory(String directoryPath) throws IOException, NoSuchAlgorithmException {
+        return processDirectory(directoryPath, false);
+    }
+
+    public ScanProgress processDirectory(String directoryPath, boolean incremental) throws IOException, NoSuchAlgorithmException {
+        if (!incremental) {
+            fileManagementService.deleteAllFiles();
+            actionLogService.deleteAllLogs();
+        }
         File directory = new File(directoryPath);
-        fileProcessingService.processDirectory(directory);
+        return fileProcessingService.processDirectory(directory, incremental);
+    }
+
+    public ScanJob submitScan(String directoryPath, boolean incremental) {
+        return scanJobService.submit(directoryPath, incremental);
+    }
+
+    public Optional<ScanJob> getScanJob(String jobId) {
+        return scanJobService.getJob(jobId);
+    }
+
+    public List<ScanJob> getScanJobs() {
+        return scanJobService.getJobs();
+    }
+
+    public Optional<ScanJob> cancelScanJob(String jobId) {
+        return scanJobService.cancel(jobId);
     }
 
     public void deleteAllFiles() {
@@ -41,16 +86,52 @@ public class FileService {
         return fileManagementService.getAllFiles();
     }
 
-    public List<FileDocument> findLargestFiles(int limit) {
-        return fileAnalysisService.findLargestFiles(limit);
+    public CursorPage<FileDocument> getFilesPage(int limit, FileSortOrder order, String cursor) {
+        return fileManagementService.getFilesPage(limit, order, cursor);
     }
 
-    public List<List<FileDocument>> findDuplicates() {
-        return fileAnalysisService.findDuplicates();
+    public Stream<FileDocument> streamAllFiles() {
+        return fileManagementService.streamAllFiles();
     }
 
-    public List<List<FileDocument>> findFileVersions(int threshold) {
-        return fileAnalysisService.findFileVersions(threshold);
+    public List<FileDocument> findFilesByName(String query, FileNameMatchMode mode, int maxDistance, int limit) {
+        return fileNameIndexService.find(query, mode, maxDistance, limit);
+    }
+
+    public long reloadFileNameIndex() {
+        return fileNameIndexService.reload();
+    }
+
+    public Optional<String> getFileContent(String fileId) {
+        return fileContentService.getContent(fileId);
+    }
+
+    public long migrateInlineContent() {
+        return fileContentService.migrateInlineContent();
+    }
+
+    public CursorPage<FileDocument> findLargestFiles(int limit, String extension, String pathPrefix, String cursor) {
+        return fileAnalysisService.findLargestFiles(limit, extension, pathPrefix, cursor);
+    }
+
+    public CursorPage<DuplicateGroup> findDuplicates(int limit, String cursor) {
+        return fileAnalysisService.findDuplicates(limit, cursor);
+    }
+
+    public List<List<FileDocument>> findFileVersions(int threshold, VersionGroupingMode mode) {
+        return fileAnalysisService.findFileVersions(threshold, mode);
+    }
+
+    public List<List<FileDocument>> findSimilarContent(double threshold) {
+        return contentSimilarityService.findSimilarContent(threshold);
+    }
+
+    public long rebuildContentSignatures(boolean all) {
+        return contentSimilarityService.rebuildSignatures(all);
+    }
+
+    public List<DirectoryGroup> findDuplicateDirectories(double similarity) {
+        return directoryIndexService.findDuplicateDirectories(similarity);
     }
 
     public void openFile(String filePath) throws IOException {
@@ -68,10 +149,14 @@ public class FileService {
     }
 
     public void moveDuplicatesToGroupedDirectories(String targetDirectoryPath) throws IOException {
-        List<List<FileDocument>> duplicateGroups = fileAnalysisService.findDuplicates();
+        List<List<FileDocument>> duplicateGroups = fileAnalysisService.findAllDuplicates();
         fileManagementService.moveDuplicatesToGroupedDirectories(duplicateGroups, targetDirectoryPath);
     }
 
+    public long rebuildNormalizedNames() {
+        return fileAnalysisService.rebuildNormalizedNames();
+    }
+
     public void moveVersionsToGroupedDirectories(String targetDirectoryPath, int threshold) throws IOException {
         List<List<FileDocument>> versionGroups = fileAnalysisService.findFileVersions(threshold);
         fileManagementService.moveVersionsToGroupedDirectories(versionGroups, targetDirectoryPath);
@@ -85,7 +170,11 @@ public class FileService {
         fileManagementService.archiveDirectory(directoryPath, directoryPath + ".zip");
     }
 
-    public List<FileDocument> searchFilesByKeyword(String keyword){
-        return keyWordsService.searchFilesByKeyword(keyword);
+    public CursorPage<SearchHit> searchFiles(String query, SearchFilter filter, int limit, String cursor) throws IOException {
+        return keyWordsService.searchFiles(query, filter, limit, cursor);
+    }
+
+    public long rebuildSearchIndex() {
+        return keyWordsService.rebuildSearchIndex();
     }
 }
@@ -0,0 +1,216 @@
+package com.to.service;
+
+import com.to.config.WatchProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+
+@Service
+public class FileWatchService {
+    private final FileProcessingService fileProcessingService;
+    private final IndexLock indexLock;
+    private final WatchProperties watchProperties;
+    private final Set<Path> roots = ConcurrentHashMap.newKeySet();
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+    private final Map<Path, Long> pendingChanges = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+    private WatchService watchService;
+    private Thread watchThread;
+
+    public FileWatchService(FileProcessingService fileProcessingService, IndexLock indexLock, WatchProperties watchProperties) {
+        this.fileProcessingService = fileProcessingService;
+        this.indexLock = indexLock;
+        this.watchProperties = watchProperties;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!watchProperties.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newScheduledThreadPool(2);
+        if (isNativeMode()) {
+            watchService = FileSystems.getDefault().newWatchService();
+            watchThread = Thread.ofPlatform().daemon().name("file-watch").start(this::pollEvents);
+            long drainMillis = Math.max(100, watchProperties.getDebounce().toMillis() / 2);
+            scheduler.scheduleWithFixedDelay(this::drainPendingChanges, drainMillis, drainMillis, TimeUnit.MILLISECONDS);
+        }
+        watchProperties.getRoots().forEach(this::watch);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchThread != null) {
+            watchThread.interrupt();
+        }
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public void watch(String rootPath) {
+        if (!watchProperties.isEnabled()) {
+            return;
+        }
+        Path root = Path.of(rootPath).toAbsolutePath().normalize();
+        if (!roots.add(root)) {
+            return;
+        }
+        if (isNativeMode()) {
+            try {
+                registerTree(root, false);
+                return;
+            } catch (IOException e) {
+                System.err.println("Failed to watch " + root + ", falling back to polling: " + e.getMessage());
+            }
+        }
+        long intervalMillis = watchProperties.getPollInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> rescan(root), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public Set<String> getWatchedRoots() {
+        return roots.stream().map(Path::toString).collect(Collectors.toSet());
+    }
+
+    private boolean isNativeMode() {
+        return !"poll".equalsIgnoreCase(watchProperties.getMode());
+    }
+
+    // Follows links like the scan's ParallelFileWalker, so every indexed directory is watched.
+    private void registerTree(Path directory, boolean enqueueFiles) throws IOException {
+        Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(directory) && dir.toFile().isHidden()) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                watchedDirectories.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (enqueueFiles) {
+                    pendingChanges.put(file, System.nanoTime());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void pollEvents() {
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path directory = watchedDirectories.get(key);
+            if (directory != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        roots.stream().filter(directory::startsWith).forEach(root -> scheduler.execute(() -> rescan(root)));
+                        continue;
+                    }
+                    Path changed = directory.resolve((Path) event.context());
+                    if (changed.toFile().isHidden()) {
+                        continue;
+                    }
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changed)) {
+                        try {
+                            registerTree(changed, true);
+                        } catch (IOException e) {
+                            System.err.println("Failed to watch new directory: " + changed);
+                        }
+                    }
+                    pendingChanges.put(changed, System.nanoTime());
+                }
+            }
+            if (!key.reset()) {
+                watchedDirectories.remove(key);
+            }
+        }
+    }
+
+    // A path is handled once no new event for it has arrived for the debounce period. While a full scan rebuilds the
+    // index, changes stay pending until it is done.
+    private void drainPendingChanges() {
+        Lock lock = indexLock.forUpdate();
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            refreshReadyChanges();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refreshReadyChanges() {
+        long cutoff = System.nanoTime() - watchProperties.getDebounce().toNanos();
+        List<Map.Entry<Path, Long>> ready = pendingChanges.entrySet().stream()
+                .filter(entry -> entry.getValue() <= cutoff)
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                .toList();
+
+        int batchSize = Math.max(1, watchProperties.getBatchSize());
+        for (int from = 0; from < ready.size(); from += batchSize) {
+            List<Map.Entry<Path, Long>> batch = ready.subList(from, Math.min(ready.size(), from + batchSize));
+            batch.forEach(entry -> pendingChanges.remove(entry.getKey(), entry.getValue()));
+            try {
+                fileProcessingService.refreshPaths(batch.stream().map(Map.Entry::getKey).toList());
+            } catch (Exception e) {
+                System.err.println("Failed to refresh changed files: " + e.getMessage());
+            }
+        }
+    }
+
+    private void rescan(Path root) {
+        Lock lock = indexLock.forUpdate();
+        lock.lock();
+        try {
+            fileProcessingService.processDirectory(new File(root.toString()), true);
+        } catch (Exception e) {
+            System.err.println("Failed to rescan watched directory " + root + ": " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.to.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Orders writers of the files index. A full scan wipes the index and logs first, so it holds the write lock;
+// incremental scans and watcher refreshes only touch the paths they see and share the read lock.
+@Component
+public class IndexLock {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock(true);
+
+    public Lock forFullScan() { return lock.writeLock(); }
+    public Lock forUpdate() { return lock.readLock(); }
+}
@@ -2,8 +2,11 @@ package com.to.service;
 
 import com.to.logic.CSVHandler;
 import com.to.logic.EditDistanceCalculator;
-import com.to.model.FileDocument;
-import com.to.repository.FileRepository;
+import com.to.model.CursorPage;
+import com.to.model.ExtractedContent;
+import com.to.model.SearchFilter;
+import com.to.model.SearchHit;
+import com.to.repository.ExtractedContentRepository;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.MongoTemplate;
@@ -11,29 +14,92 @@ import org.springframework.data.mongodb.core.index.TextIndexDefinition;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class KeyWordsService {
+    private static final String LUCENE_CURSOR = "lucene:";
+    private static final String MONGO_CURSOR = "mongo:";
 
-    private final FileRepository fileRepository;
+    private final ExtractedContentRepository extractedContentRepository;
+    private final Optional<LuceneSearchIndex> luceneSearchIndex;
 
     @Autowired
     private MongoTemplate mongoTemplate;
 
-    public KeyWordsService(FileRepository fileRepository) {
-        this.fileRepository = fileRepository;
+    public KeyWordsService(ExtractedContentRepository extractedContentRepository, Optional<LuceneSearchIndex> luceneSearchIndex) {
+        this.extractedContentRepository = extractedContentRepository;
+        this.luceneSearchIndex = luceneSearchIndex;
     }
 
+    // Inline content of files indexed by older versions is not searched; /files/content/migrate moves it out.
     @PostConstruct
     public void createTextIndex() {
-        TextIndexDefinition textIndex = new TextIndexDefinition.TextIndexDefinitionBuilder()
-                .onField("content")
+        TextIndexDefinition extractedTextIndex = new TextIndexDefinition.TextIndexDefinitionBuilder()
+                .onField("text")
                 .build();
-        mongoTemplate.indexOps(FileDocument.class).ensureIndex(textIndex);
+        mongoTemplate.indexOps(ExtractedContent.class).ensureIndex(extractedTextIndex);
     }
-    public List<FileDocument> searchFilesByKeyword(String keyword) {
-        return fileRepository.searchByKeyword(keyword);
+
+    // With search.backend=lucene the embedded index answers new searches once it is built; until then, and with the
+    // default backend, Mongo's $text index does. Cursors are prefixed with the backend that issued them and later
+    // pages come from that backend, since scores and offsets of the other one do not line up. Mongo's cursor is
+    // "<score>:<contentRef>:<fileId>" of the last hit.
+    public CursorPage<SearchHit> searchFiles(String query, SearchFilter filter, int limit, String cursor) throws IOException {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        boolean luceneReady = luceneSearchIndex.isPresent() && luceneSearchIndex.get().isReady();
+        if (cursor == null || cursor.isBlank()) {
+            return luceneReady ? searchLucene(query, filter, limit, null) : searchMongo(query, filter, limit, null);
+        }
+        if (cursor.startsWith(LUCENE_CURSOR)) {
+            // a rebuild empties the index first, so the offsets of a search started before it mean nothing
+            if (!luceneReady) {
+                throw new IllegalStateException("The search index is being rebuilt; start the search again");
+            }
+            return searchLucene(query, filter, limit, cursor.substring(LUCENE_CURSOR.length()));
+        }
+        if (cursor.startsWith(MONGO_CURSOR)) {
+            return searchMongo(query, filter, limit, cursor.substring(MONGO_CURSOR.length()));
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+
+    private CursorPage<SearchHit> searchLucene(String query, SearchFilter filter, int limit, String cursor) throws IOException {
+        CursorPage<SearchHit> page = luceneSearchIndex.get().search(query, filter, limit, cursor);
+        return page.getNextCursor() == null ? page : new CursorPage<>(page.getItems(), LUCENE_CURSOR + page.getNextCursor());
+    }
+
+    private CursorPage<SearchHit> searchMongo(String query, SearchFilter filter, int limit, String cursor) {
+        Double afterScore = null;
+        String afterContentId = null;
+        String afterFileId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            int first = cursor.indexOf(':');
+            int last = cursor.lastIndexOf(':');
+            try {
+                afterScore = Double.parseDouble(cursor.substring(0, first));
+                afterContentId = cursor.substring(first + 1, last);
+                afterFileId = cursor.substring(last + 1);
+            } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        List<SearchHit> hits = extractedContentRepository.searchFiles(query, filter, afterScore, afterContentId, afterFileId, limit + 1);
+        if (hits.size() <= limit) {
+            return new CursorPage<>(hits, null);
+        }
+        List<SearchHit> page = hits.subList(0, limit);
+        SearchHit last = page.getLast();
+        return new CursorPage<>(page, MONGO_CURSOR + last.getScore() + ":" + last.getFile().getContentRef() + ":" + last.getFile().getId());
+    }
+
+    // Returns -1 when the embedded index is not enabled.
+    public long rebuildSearchIndex() {
+        return luceneSearchIndex.map(LuceneSearchIndex::rebuild).orElse(-1L);
     }
-}
\ No newline at end of file
+}
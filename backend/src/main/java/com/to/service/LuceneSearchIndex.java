@@ -0,0 +1,370 @@
+package com.to.service;
+
+import com.to.config.SearchProperties;
+import com.to.model.CursorPage;
+import com.to.model.ExtractedContent;
+import com.to.model.FileDocument;
+import com.to.model.SearchFilter;
+import com.to.model.SearchHit;
+import com.to.repository.ExtractedContentRepository;
+import com.to.repository.FileRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// On-disk Lucene index of file names and extracted texts, one document per file path, ranked with BM25 (Lucene's
+// default similarity). Scan writes, moves and deletes reach it as FileChangeListener events and are applied in
+// order on a single indexing thread, so scans never wait for text analysis. Only the path is stored: hits are
+// resolved to files in Mongo and snippets are highlighted from the extracted text of the returned page only.
+@Service
+@ConditionalOnProperty(prefix = "search", name = "backend", havingValue = "lucene")
+public class LuceneSearchIndex implements FileChangeListener {
+    private static final String PATH = "path";
+    private static final String NAME = "name";
+    private static final String CONTENT = "content";
+    private static final String EXTENSION = "extension";
+    private static final String SIZE = "size";
+    private static final String MODIFIED = "modified";
+    private static final int TEXT_FETCH_SIZE = 50;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final FileRepository fileRepository;
+    private final ExtractedContentRepository extractedContentRepository;
+    private final SearchProperties searchProperties;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor();
+    private ScheduledExecutorService scheduler;
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile boolean ready;
+
+    public LuceneSearchIndex(FileRepository fileRepository, ExtractedContentRepository extractedContentRepository,
+                             SearchProperties searchProperties) {
+        this.fileRepository = fileRepository;
+        this.extractedContentRepository = extractedContentRepository;
+        this.searchProperties = searchProperties;
+    }
+
+    // An empty index is filled from the files collection in the background; searches fall back to Mongo meanwhile.
+    @PostConstruct
+    public void start() throws IOException {
+        directory = FSDirectory.open(Path.of(searchProperties.getIndexDirectory()));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        long refreshMillis = Math.max(1, searchProperties.getRefreshInterval().toMillis());
+        scheduler.scheduleWithFixedDelay(this::refresh, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        long commitMillis = Math.max(1, searchProperties.getCommitInterval().toMillis());
+        scheduler.scheduleWithFixedDelay(this::commit, commitMillis, commitMillis, TimeUnit.MILLISECONDS);
+
+        if (writer.getDocStats().numDocs == 0) {
+            indexer.execute(this::rebuildQuietly);
+        } else {
+            ready = true;
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        scheduler.shutdownNow();
+        indexer.shutdown();
+        indexer.awaitTermination(1, TimeUnit.MINUTES);
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void onFilesUpserted(Collection<FileDocument> fileDocuments) {
+        List<FileDocument> files = List.copyOf(fileDocuments);
+        indexer.execute(() -> {
+            try {
+                index(files);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Failed to index " + files.size() + " files: " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void onFilesRemoved(Collection<FileDocument> fileDocuments) {
+        Term[] paths = fileDocuments.stream()
+                .map(FileDocument::getFilePath)
+                .filter(Objects::nonNull)
+                .map(path -> new Term(PATH, path))
+                .toArray(Term[]::new);
+        indexer.execute(() -> {
+            try {
+                writer.deleteDocuments(paths);
+            } catch (IOException e) {
+                System.err.println("Failed to remove " + paths.length + " files from the search index: " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void onIndexReset() {
+        indexer.execute(() -> {
+            try {
+                writer.deleteAll();
+            } catch (IOException e) {
+                System.err.println("Failed to clear the search index: " + e.getMessage());
+            }
+        });
+    }
+
+    // Drops the index and indexes every file again, after pending changes; returns the number of indexed files.
+    public long rebuild() {
+        Future<Long> rebuilt = indexer.submit(this::rebuildIndex);
+        try {
+            return rebuilt.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding the search index", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to rebuild the search index", e.getCause());
+        }
+    }
+
+    // The query uses Lucene syntax over file names and extracted texts: words must all match unless joined by OR,
+    // "quoted phrases" match in order and word* matches a prefix. Filters restrict the hits without changing their
+    // scores. The cursor is the offset of the next hit.
+    public CursorPage<SearchHit> search(String queryText, SearchFilter filter, int limit, String cursor) throws IOException {
+        int offset = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                offset = Integer.parseInt(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+        Query query = parse(queryText);
+        Query filtered = withFilter(query, filter);
+
+        List<String> paths = new ArrayList<>();
+        List<Float> scores = new ArrayList<>();
+        boolean more;
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(filtered, offset + limit + 1);
+            StoredFields storedFields = searcher.storedFields();
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            for (int i = offset; i < Math.min(scoreDocs.length, offset + limit); i++) {
+                paths.add(storedFields.document(scoreDocs[i].doc).get(PATH));
+                scores.add(scoreDocs[i].score);
+            }
+            more = scoreDocs.length > offset + limit;
+        } finally {
+            searcherManager.release(searcher);
+        }
+
+        Map<String, FileDocument> files = new HashMap<>();
+        for (FileDocument fileDocument : fileRepository.findByFilePathIn(paths)) {
+            files.put(fileDocument.getFilePath(), fileDocument);
+        }
+        UnifiedHighlighter highlighter = UnifiedHighlighter.builderWithoutSearcher(analyzer)
+                .withMaxLength(Integer.MAX_VALUE - 1)
+                .build();
+        List<SearchHit> hits = new ArrayList<>();
+        for (int i = 0; i < paths.size(); i++) {
+            FileDocument fileDocument = files.get(paths.get(i));
+            // a file removed from Mongo but not yet from the index
+            if (fileDocument != null) {
+                hits.add(new SearchHit(fileDocument, scores.get(i), snippet(highlighter, query, fileDocument)));
+            }
+        }
+        return new CursorPage<>(hits, more ? String.valueOf(offset + limit) : null);
+    }
+
+    private Query parse(String queryText) {
+        QueryParser parser = new MultiFieldQueryParser(new String[]{CONTENT, NAME}, analyzer);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            return parser.parse(queryText);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid query: " + e.getMessage());
+        }
+    }
+
+    private Query withFilter(Query query, SearchFilter filter) {
+        if (filter == null) {
+            return query;
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder().add(query, BooleanClause.Occur.MUST);
+        if (filter.normalizedExtension() != null) {
+            builder.add(new TermQuery(new Term(EXTENSION, filter.normalizedExtension())), BooleanClause.Occur.FILTER);
+        }
+        if (filter.getPathPrefix() != null && !filter.getPathPrefix().isBlank()) {
+            builder.add(new PrefixQuery(new Term(PATH, filter.getPathPrefix())), BooleanClause.Occur.FILTER);
+        }
+        if (filter.getMinSize() != null || filter.getMaxSize() != null) {
+            builder.add(LongPoint.newRangeQuery(SIZE,
+                    filter.getMinSize() == null ? Long.MIN_VALUE : filter.getMinSize(),
+                    filter.getMaxSize() == null ? Long.MAX_VALUE : filter.getMaxSize()), BooleanClause.Occur.FILTER);
+        }
+        if (filter.getModifiedFrom() != null || filter.getModifiedTo() != null) {
+            builder.add(LongPoint.newRangeQuery(MODIFIED,
+                    filter.getModifiedFrom() == null ? Long.MIN_VALUE : toMillis(filter.getModifiedFrom()),
+                    filter.getModifiedTo() == null ? Long.MAX_VALUE : toMillis(filter.getModifiedTo())), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private String snippet(UnifiedHighlighter highlighter, Query query, FileDocument fileDocument) throws IOException {
+        if (fileDocument.getContentRef() == null) {
+            return null;
+        }
+        Optional<String> text = extractedContentRepository.findTextById(fileDocument.getContentRef()).map(ExtractedContent::getText);
+        if (text.isEmpty()) {
+            return null;
+        }
+        Object snippet = highlighter.highlightWithoutSearcher(CONTENT, query, text.get(), searchProperties.getSnippetPassages());
+        return snippet == null ? null : snippet.toString();
+    }
+
+    // Copies of the same content share one text fetch; texts are loaded a few at a time since each can be megabytes.
+    private void index(List<FileDocument> fileDocuments) throws IOException {
+        Map<String, List<FileDocument>> byContent = new LinkedHashMap<>();
+        for (FileDocument fileDocument : fileDocuments) {
+            if (fileDocument.getFilePath() == null) {
+                continue;
+            }
+            if (fileDocument.getContentRef() == null) {
+                writer.updateDocument(new Term(PATH, fileDocument.getFilePath()), toDocument(fileDocument, null));
+            } else {
+                byContent.computeIfAbsent(fileDocument.getContentRef(), ref -> new ArrayList<>()).add(fileDocument);
+            }
+        }
+
+        List<String> contentRefs = new ArrayList<>(byContent.keySet());
+        for (int from = 0; from < contentRefs.size(); from += TEXT_FETCH_SIZE) {
+            List<String> chunk = contentRefs.subList(from, Math.min(contentRefs.size(), from + TEXT_FETCH_SIZE));
+            Map<String, String> texts = new HashMap<>();
+            for (ExtractedContent content : extractedContentRepository.findTextByIdIn(chunk)) {
+                texts.put(content.getId(), content.getText());
+            }
+            for (String contentRef : chunk) {
+                for (FileDocument fileDocument : byContent.get(contentRef)) {
+                    writer.updateDocument(new Term(PATH, fileDocument.getFilePath()), toDocument(fileDocument, texts.get(contentRef)));
+                }
+            }
+        }
+    }
+
+    private Document toDocument(FileDocument fileDocument, String text) {
+        Document document = new Document();
+        document.add(new StringField(PATH, fileDocument.getFilePath(), Field.Store.YES));
+        if (fileDocument.getFileName() != null) {
+            document.add(new TextField(NAME, fileDocument.getFileName(), Field.Store.NO));
+            int dot = fileDocument.getFileName().lastIndexOf('.');
+            if (dot >= 0) {
+                document.add(new StringField(EXTENSION, fileDocument.getFileName().substring(dot + 1).toLowerCase(Locale.ROOT), Field.Store.NO));
+            }
+        }
+        document.add(new LongPoint(SIZE, fileDocument.getSize()));
+        if (fileDocument.getLastModified() != null) {
+            document.add(new LongPoint(MODIFIED, toMillis(fileDocument.getLastModified())));
+        }
+        if (text != null) {
+            document.add(new TextField(CONTENT, text, Field.Store.NO));
+        }
+        return document;
+    }
+
+    private long rebuildIndex() throws IOException {
+        ready = false;
+        writer.deleteAll();
+        long indexed = 0;
+        List<FileDocument> batch = new ArrayList<>();
+        try (Stream<FileDocument> files = fileRepository.streamAllWithoutContent()) {
+            for (FileDocument fileDocument : (Iterable<FileDocument>) files::iterator) {
+                batch.add(fileDocument);
+                if (batch.size() == REBUILD_BATCH_SIZE) {
+                    index(batch);
+                    indexed += batch.size();
+                    batch = new ArrayList<>();
+                }
+            }
+        }
+        index(batch);
+        indexed += batch.size();
+        writer.commit();
+        searcherManager.maybeRefresh();
+        ready = true;
+        return indexed;
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuildIndex();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to build the search index: " + e.getMessage());
+        }
+    }
+
+    private void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            System.err.println("Failed to refresh the search index: " + e.getMessage());
+        }
+    }
+
+    private void commit() {
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            System.err.println("Failed to commit the search index: " + e.getMessage());
+        }
+    }
+}
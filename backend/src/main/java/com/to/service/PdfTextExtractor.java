@@ -0,0 +1,73 @@
+package com.to.service;
+
+import com.to.config.ExtractionProperties;
+import com.to.model.ExtractionResult;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+// Strips one page at a time so a timed-out extraction stops at the next page boundary.
+@Service
+public class PdfTextExtractor implements ContentExtractor {
+    private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+
+    private final ExtractionProperties extractionProperties;
+
+    public PdfTextExtractor(ExtractionProperties extractionProperties) {
+        this.extractionProperties = extractionProperties;
+    }
+
+    @Override
+    public String getName() {
+        return "pdf";
+    }
+
+    @Override
+    public Set<String> getExtensions() {
+        return Set.of("pdf");
+    }
+
+    @Override
+    public boolean matchesMagic(byte[] header) {
+        return header.length >= PDF_MAGIC.length
+                && Arrays.equals(header, 0, PDF_MAGIC.length, PDF_MAGIC, 0, PDF_MAGIC.length);
+    }
+
+    @Override
+    public ExtractionResult extract(File file) throws IOException {
+        try (PDDocument document = PDDocument.load(file, MemoryUsageSetting.setupTempFileOnly())) {
+            if (document.isEncrypted()) {
+                throw new IOException("The PDF is encrypted and cannot be processed.");
+            }
+            int maxPages = extractionProperties.getPdfMaxPages();
+            int maxChars = extractionProperties.getPdfMaxChars();
+            int pageCount = document.getNumberOfPages();
+            boolean truncated = pageCount > maxPages;
+
+            PDFTextStripper pdfStripper = new PDFTextStripper();
+            StringBuilder text = new StringBuilder();
+            for (int page = 1; page <= Math.min(pageCount, maxPages); page++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("PDF extraction cancelled: " + file.getName());
+                }
+                pdfStripper.setStartPage(page);
+                pdfStripper.setEndPage(page);
+                text.append(pdfStripper.getText(document));
+                if (text.length() >= maxChars) {
+                    text.setLength(maxChars);
+                    truncated = true;
+                    break;
+                }
+            }
+            return truncated ? ExtractionResult.truncated(text.toString()) : ExtractionResult.success(text.toString());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.to.service;
+
+import com.to.config.ExtractionProperties;
+import com.to.model.ExtractionResult;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+
+// Decodes text files through fixed-size buffers and stops at textMaxChars, so memory use doesn't depend on file size.
+// The charset comes from a BOM if there is one, otherwise strict UTF-8, falling back to textFallbackCharset
+// when the bytes read before the budget runs out are not valid UTF-8.
+@Service
+public class PlainTextExtractor implements ContentExtractor {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExtractionProperties extractionProperties;
+
+    public PlainTextExtractor(ExtractionProperties extractionProperties) {
+        this.extractionProperties = extractionProperties;
+    }
+
+    @Override
+    public String getName() {
+        return "text";
+    }
+
+    @Override
+    public Set<String> getExtensions() {
+        return Set.of("txt", "md", "csv", "json");
+    }
+
+    @Override
+    public ExtractionResult extract(File file) throws IOException {
+        int maxChars = extractionProperties.getTextMaxChars();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(3);
+            while (head.hasRemaining() && channel.read(head) >= 0) {
+            }
+            head.flip();
+
+            Charset bomCharset = null;
+            int bomLength = 0;
+            if (head.remaining() >= 3 && (head.get(0) & 0xFF) == 0xEF && (head.get(1) & 0xFF) == 0xBB && (head.get(2) & 0xFF) == 0xBF) {
+                bomCharset = StandardCharsets.UTF_8;
+                bomLength = 3;
+            } else if (head.remaining() >= 2 && (head.get(0) & 0xFF) == 0xFE && (head.get(1) & 0xFF) == 0xFF) {
+                bomCharset = StandardCharsets.UTF_16BE;
+                bomLength = 2;
+            } else if (head.remaining() >= 2 && (head.get(0) & 0xFF) == 0xFF && (head.get(1) & 0xFF) == 0xFE) {
+                bomCharset = StandardCharsets.UTF_16LE;
+                bomLength = 2;
+            }
+
+            if (bomCharset != null) {
+                return decode(channel, bomLength, lenientDecoder(bomCharset), maxChars);
+            }
+            try {
+                CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPORT)
+                        .onUnmappableCharacter(CodingErrorAction.REPORT);
+                return decode(channel, 0, utf8, maxChars);
+            } catch (CharacterCodingException e) {
+                Charset fallback = Charset.forName(extractionProperties.getTextFallbackCharset());
+                return decode(channel, 0, lenientDecoder(fallback), maxChars);
+            }
+        }
+    }
+
+    private CharsetDecoder lenientDecoder(Charset charset) {
+        return charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    private ExtractionResult decode(FileChannel channel, long offset, CharsetDecoder decoder, int maxChars) throws IOException {
+        channel.position(offset);
+        ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+        CharBuffer out = CharBuffer.allocate(BUFFER_SIZE);
+        StringBuilder text = new StringBuilder();
+        boolean endOfInput = false;
+        while (true) {
+            if (!endOfInput) {
+                endOfInput = channel.read(in) < 0;
+            }
+            in.flip();
+            CoderResult result = decoder.decode(in, out, endOfInput);
+            in.compact();
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (!drain(out, text, maxChars)) {
+                return ExtractionResult.truncated(text.toString());
+            }
+            if (endOfInput && result.isUnderflow()) {
+                break;
+            }
+        }
+        CoderResult result = decoder.flush(out);
+        while (result.isOverflow()) {
+            if (!drain(out, text, maxChars)) {
+                return ExtractionResult.truncated(text.toString());
+            }
+            result = decoder.flush(out);
+        }
+        if (!drain(out, text, maxChars)) {
+            return ExtractionResult.truncated(text.toString());
+        }
+        return ExtractionResult.success(text.toString());
+    }
+
+    // Moves decoded chars into text; returns false once the budget is exceeded.
+    private boolean drain(CharBuffer out, StringBuilder text, int maxChars) {
+        out.flip();
+        int room = maxChars - text.length();
+        if (out.remaining() > room) {
+            int end = room;
+            // don't leave half of a surrogate pair at the cut
+            if (end > 0 && Character.isHighSurrogate(out.get(out.position() + end - 1))) {
+                end--;
+            }
+            text.append(out, 0, end);
+            out.clear();
+            return false;
+        }
+        text.append(out);
+        out.clear();
+        return true;
+    }
+}
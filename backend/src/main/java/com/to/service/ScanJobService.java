@@ -0,0 +1,149 @@
+package com.to.service;
+
+import com.to.config.ScanProperties;
+import com.to.logic.ScanJobStatus;
+import com.to.model.ScanJob;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+@Service
+public class ScanJobService {
+    private final FileProcessingService fileProcessingService;
+    private final FileManagementService fileManagementService;
+    private final ActionLogService actionLogService;
+    private final FileWatchService fileWatchService;
+    private final ScanProperties scanProperties;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ScanJob> jobs = new ConcurrentHashMap<>();
+    private final IndexLock indexLock;
+
+    public ScanJobService(FileProcessingService fileProcessingService, FileManagementService fileManagementService,
+                          ActionLogService actionLogService, FileWatchService fileWatchService, IndexLock indexLock,
+                          ScanProperties scanProperties) {
+        this.fileProcessingService = fileProcessingService;
+        this.indexLock = indexLock;
+        this.fileManagementService = fileManagementService;
+        this.actionLogService = actionLogService;
+        this.fileWatchService = fileWatchService;
+        this.scanProperties = scanProperties;
+        int concurrentJobs = Math.max(1, scanProperties.getMaxConcurrentJobs());
+        this.executor = new ThreadPoolExecutor(concurrentJobs, concurrentJobs, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, scanProperties.getJobQueueCapacity())));
+    }
+
+    public ScanJob submit(String directoryPath, boolean incremental) {
+        File directory = new File(directoryPath);
+        if (!directory.exists() || !directory.isDirectory()) {
+            throw new IllegalArgumentException("Given path is not a directory!");
+        }
+
+        ScanJob job = new ScanJob(UUID.randomUUID().toString(), directory.getAbsolutePath(), incremental);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new IllegalStateException("Too many scans queued, try again later");
+        }
+        evictFinishedJobs();
+        return job;
+    }
+
+    public Optional<ScanJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public List<ScanJob> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(ScanJob::getSubmittedAt).reversed())
+                .toList();
+    }
+
+    public Optional<ScanJob> cancel(String jobId) {
+        ScanJob job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        job.getProgress().requestCancel();
+        synchronized (job) {
+            if (job.getStatus() == ScanJobStatus.QUEUED) {
+                finish(job, ScanJobStatus.CANCELLED);
+            }
+        }
+        return Optional.of(job);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(job -> job.getProgress().requestCancel());
+        executor.shutdown();
+    }
+
+    private void run(ScanJob job) {
+        // a job cancelled while queued does not wait for the lock
+        if (job.getStatus() != ScanJobStatus.QUEUED) {
+            return;
+        }
+        Lock lock = job.isIncremental() ? indexLock.forUpdate() : indexLock.forFullScan();
+        lock.lock();
+        try {
+            synchronized (job) {
+                if (job.getStatus() != ScanJobStatus.QUEUED) {
+                    return;
+                }
+                job.setStatus(ScanJobStatus.RUNNING);
+                job.setStartedAt(Instant.now());
+            }
+
+            try {
+                if (!job.isIncremental()) {
+                    fileManagementService.deleteAllFiles();
+                    actionLogService.deleteAllLogs();
+                }
+                fileProcessingService.processDirectory(new File(job.getDirectoryPath()), job.isIncremental(), job.getProgress());
+                if (job.getProgress().isCancelRequested()) {
+                    finish(job, ScanJobStatus.CANCELLED);
+                } else {
+                    fileWatchService.watch(job.getDirectoryPath());
+                    finish(job, ScanJobStatus.COMPLETED);
+                }
+            } catch (Exception e) {
+                job.setErrorMessage(e.getMessage());
+                finish(job, ScanJobStatus.FAILED);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // finishedAt is set first: a job is only seen as finished once it has a finish time to be evicted by.
+    private void finish(ScanJob job, ScanJobStatus status) {
+        job.setFinishedAt(Instant.now());
+        job.setStatus(status);
+    }
+
+    private void evictFinishedJobs() {
+        List<ScanJob> finishedJobs = jobs.values().stream()
+                .filter(ScanJob::isFinished)
+                .sorted(Comparator.comparing(ScanJob::getFinishedAt))
+                .toList();
+        int excess = finishedJobs.size() - scanProperties.getRetainedJobs();
+        for (int i = 0; i < excess; i++) {
+            jobs.remove(finishedJobs.get(i).getId());
+        }
+    }
+}
@@ -7,13 +7,16 @@ import com.to.model.FileDocument;
 import com.to.repository.ActionLogRepository;
 import com.to.repository.FileRepository;
 import com.to.service.ActionLogService;
+import com.to.service.FileChangeListener;
 import com.to.service.FileProcessingService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.FileOutputStream;
@@ -21,7 +24,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -47,6 +52,9 @@ class ActionLogServiceTest {
     @Mock
     private FileProcessingService fileProcessingService;
 
+    @Spy
+    private List<FileChangeListener> changeListeners = new ArrayList<>();
+
 //    @BeforeEach
 //    void setUp() {
 //        fileProcessingService = new FileProcessingService(fileRepository);
@@ -203,6 +211,43 @@ class ActionLogServiceTest {
         assertFalse(Files.exists(targetDir.resolve("file.txt")));
     }
 
+    @Test
+    void shouldNotifyListenersThatRevertedMoveLeftTargetPath() throws IOException, NoSuchAlgorithmException {
+        // given
+        String actionLogId = "log125";
+        Path sourceDir = Files.createDirectory(tempDir.resolve("sourceDir"));
+        Path targetDir = Files.createDirectory(tempDir.resolve("targetDir"));
+        Path target = Files.createFile(targetDir.resolve("file.txt"));
+        Path source = sourceDir.resolve("file.txt");
+
+        ActionLog actionLog = new ActionLog();
+        actionLog.setId(actionLogId);
+        actionLog.setActionType("MOVE_FILES");
+        actionLog.setFilePath(source.toString());
+        actionLog.setTargetPath(target.toString());
+
+        FileDocument movedFile = new FileDocument();
+        movedFile.setId("7");
+        movedFile.setFilePath(target.toString());
+
+        FileChangeListener listener = mock(FileChangeListener.class);
+        changeListeners.add(listener);
+        when(actionLogRepository.findById(actionLogId)).thenReturn(Optional.of(actionLog));
+        when(fileRepository.findByFilePath(target.toString())).thenReturn(Optional.of(movedFile));
+
+        // when
+        actionLogService.revertAction(actionLogId);
+
+        // then
+        ArgumentCaptor<List<FileDocument>> removed = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(listener);
+        inOrder.verify(listener).onFilesRemoved(removed.capture());
+        inOrder.verify(listener).onFilesUpserted(List.of(movedFile));
+        assertEquals("7", removed.getValue().get(0).getId());
+        assertEquals(target.toString(), removed.getValue().get(0).getFilePath());
+        assertEquals(source.toString(), movedFile.getFilePath());
+    }
+
 
     @Test
     void shouldLogMoveFilesSuccessfully() {
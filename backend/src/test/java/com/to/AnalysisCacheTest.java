@@ -0,0 +1,75 @@
+package com.to;
+
+import com.to.config.ScanProperties;
+import com.to.model.FileDocument;
+import com.to.service.AnalysisCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class AnalysisCacheTest {
+
+    private AnalysisCache analysisCache;
+
+    @BeforeEach
+    void setUp() {
+        analysisCache = new AnalysisCache(new ScanProperties());
+    }
+
+    @Test
+    void testResultIsReusedUntilFilesChange() {
+        // given
+        AtomicInteger computations = new AtomicInteger();
+
+        // when
+        int first = analysisCache.get("versions", computations::incrementAndGet, 2, "GREEDY");
+        int second = analysisCache.get("versions", computations::incrementAndGet, 2, "GREEDY");
+        int otherThreshold = analysisCache.get("versions", computations::incrementAndGet, 3, "GREEDY");
+        analysisCache.onFilesRemoved(List.of(new FileDocument()));
+        int afterRemoval = analysisCache.get("versions", computations::incrementAndGet, 2, "GREEDY");
+
+        // then
+        Assertions.assertEquals(1, first);
+        Assertions.assertEquals(1, second);
+        Assertions.assertEquals(2, otherThreshold);
+        Assertions.assertEquals(3, afterRemoval);
+    }
+
+    @Test
+    void testResultComputedDuringChangeIsNotStored() {
+        // given
+        AtomicInteger computations = new AtomicInteger();
+
+        // when
+        int stale = analysisCache.get("largest", () -> {
+            analysisCache.onIndexReset();
+            return computations.incrementAndGet();
+        }, 10, null, null, null);
+        int fresh = analysisCache.get("largest", computations::incrementAndGet, 10, null, null, null);
+
+        // then
+        Assertions.assertEquals(1, stale);
+        Assertions.assertEquals(2, fresh);
+        Assertions.assertEquals(1, analysisCache.size());
+    }
+
+    @Test
+    void testEntriesAreBounded() {
+        // given
+        ScanProperties scanProperties = new ScanProperties();
+        scanProperties.setAnalysisCacheEntries(2);
+        AnalysisCache boundedCache = new AnalysisCache(scanProperties);
+
+        // when
+        for (int limit = 1; limit <= 5; limit++) {
+            int currentLimit = limit;
+            boundedCache.get("largest", () -> currentLimit, currentLimit, null, null, null);
+        }
+
+        // then
+        Assertions.assertEquals(2, boundedCache.size());
+    }
+}
@@ -0,0 +1,55 @@
+package com.to;
+
+import com.to.logic.BKTree;
+import com.to.logic.EditDistanceCalculator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+class BKTreeTest {
+
+    @Test
+    void testSearchFindsSameKeysAsLinearScan() {
+        // given
+        Random random = new Random(42);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            names.add(randomName(random));
+        }
+        BKTree<Integer> tree = new BKTree<>();
+        for (int i = 0; i < names.size(); i++) {
+            tree.add(names.get(i), i);
+        }
+
+        for (int query = 0; query < 100; query++) {
+            String name = randomName(random);
+            for (int maxDistance = 0; maxDistance <= 3; maxDistance++) {
+                int limit = maxDistance;
+
+                // when
+                List<Integer> found = tree.search(name, maxDistance).stream().sorted().toList();
+
+                // then
+                List<Integer> expected = IntStream.range(0, names.size())
+                        .filter(i -> EditDistanceCalculator.calculate(name, names.get(i)) <= limit)
+                        .boxed()
+                        .toList();
+                Assertions.assertEquals(expected, found);
+            }
+        }
+        Assertions.assertEquals(2000, tree.size());
+    }
+
+    private String randomName(Random random) {
+        StringBuilder name = new StringBuilder("file");
+        int length = random.nextInt(4);
+        for (int i = 0; i < length; i++) {
+            name.append((char) ('a' + random.nextInt(3)));
+        }
+        return name.append(".txt").toString();
+    }
+}
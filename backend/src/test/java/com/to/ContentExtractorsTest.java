@@ -0,0 +1,175 @@
+package com.to;
+
+import com.to.config.ExtractionProperties;
+import com.to.logic.ExtractionStatus;
+import com.to.model.ExtractionResult;
+import com.to.service.ContentExtractor;
+import com.to.service.ContentExtractors;
+import com.to.service.ExtractionCache;
+import com.to.service.PdfTextExtractor;
+import com.to.service.PlainTextExtractor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ContentExtractorsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ContentExtractors contentExtractors;
+
+    @AfterEach
+    void tearDown() {
+        if (contentExtractors != null) {
+            contentExtractors.shutdown();
+        }
+    }
+
+    @Test
+    void testExtractorIsChosenByExtension() throws IOException {
+        // given
+        ExtractionProperties properties = new ExtractionProperties();
+        contentExtractors = new ContentExtractors(List.of(new PlainTextExtractor(properties), new PdfTextExtractor(properties)), properties);
+        Path notes = Files.writeString(tempDir.resolve("notes.MD"), "# Notes");
+        Path image = Files.writeString(tempDir.resolve("image.png"), "not text");
+
+        // when
+        ExtractionCache.TextExtractor notesExtractor = contentExtractors.extractorFor(notes.toFile());
+        ExtractionCache.TextExtractor imageExtractor = contentExtractors.extractorFor(image.toFile());
+
+        // then
+        Assertions.assertEquals("# Notes", notesExtractor.extract().getText());
+        Assertions.assertNull(imageExtractor);
+    }
+
+    @Test
+    void testExtractorIsChosenByMagicBytes() throws IOException {
+        // given
+        ExtractionProperties properties = new ExtractionProperties();
+        contentExtractors = new ContentExtractors(List.of(new PlainTextExtractor(properties), new PdfTextExtractor(properties)), properties);
+        Path pdfWithoutExtension = Files.writeString(tempDir.resolve("scan"), "%PDF-1.7 broken");
+
+        // when
+        ExtractionCache.TextExtractor extractor = contentExtractors.extractorFor(pdfWithoutExtension.toFile());
+
+        // then
+        Assertions.assertNotNull(extractor);
+        Assertions.assertEquals(ExtractionStatus.FAILED, extractor.extract().getStatus());
+    }
+
+    @Test
+    void testSlowExtractionTimesOut() throws IOException {
+        // given
+        ExtractionProperties properties = new ExtractionProperties();
+        ExtractionProperties.Limits limits = new ExtractionProperties.Limits();
+        limits.setThreads(1);
+        limits.setTimeout(Duration.ofMillis(100));
+        properties.getLimits().put("slow", limits);
+        contentExtractors = new ContentExtractors(List.of(new SlowExtractor()), properties);
+        Path file = Files.writeString(tempDir.resolve("file.slow"), "data");
+
+        // when
+        ExtractionResult result = contentExtractors.extractorFor(file.toFile()).extract();
+
+        // then
+        Assertions.assertEquals(ExtractionStatus.TIMED_OUT, result.getStatus());
+    }
+
+    @Test
+    void testStuckExtractionKeepsItsSlotUntilItReturns() throws Exception {
+        // given
+        ExtractionProperties properties = new ExtractionProperties();
+        ExtractionProperties.Limits limits = new ExtractionProperties.Limits();
+        limits.setThreads(1);
+        limits.setQueueCapacity(1);
+        limits.setTimeout(Duration.ofMillis(200));
+        properties.getLimits().put("stuck", limits);
+        StuckExtractor stuckExtractor = new StuckExtractor();
+        contentExtractors = new ContentExtractors(List.of(stuckExtractor), properties);
+        File file = Files.writeString(tempDir.resolve("file.stuck"), "data").toFile();
+
+        // when
+        ExtractionResult stuck = contentExtractors.extractorFor(file).extract();
+        List<ExtractionResult> waiting = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> List.of(
+                contentExtractors.extractorFor(file).extract(),
+                contentExtractors.extractorFor(file).extract(),
+                contentExtractors.extractorFor(file).extract()));
+        int runningWhileStuck = stuckExtractor.running.get();
+        stuckExtractor.release.countDown();
+        ExtractionResult afterRelease = contentExtractors.extractorFor(file).extract();
+
+        // then
+        Assertions.assertEquals(ExtractionStatus.TIMED_OUT, stuck.getStatus());
+        waiting.forEach(result -> Assertions.assertEquals(ExtractionStatus.BUSY, result.getStatus()));
+        Assertions.assertEquals(1, runningWhileStuck);
+        Assertions.assertEquals("done", afterRelease.getText());
+    }
+
+    private static class SlowExtractor implements ContentExtractor {
+        @Override
+        public String getName() {
+            return "slow";
+        }
+
+        @Override
+        public Set<String> getExtensions() {
+            return Set.of("slow");
+        }
+
+        @Override
+        public ExtractionResult extract(File file) throws IOException {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+            return ExtractionResult.success("done");
+        }
+    }
+
+    // Like a parser that swallows interrupts: it only returns once released.
+    private static class StuckExtractor implements ContentExtractor {
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger running = new AtomicInteger();
+
+        @Override
+        public String getName() {
+            return "stuck";
+        }
+
+        @Override
+        public Set<String> getExtensions() {
+            return Set.of("stuck");
+        }
+
+        @Override
+        public ExtractionResult extract(File file) {
+            running.incrementAndGet();
+            try {
+                while (true) {
+                    try {
+                        release.await();
+                        return ExtractionResult.success("done");
+                    } catch (InterruptedException ignored) {
+                        // keep waiting
+                    }
+                }
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.to;
+
+import com.to.config.ScanProperties;
+import com.to.config.SimilarityProperties;
+import com.to.model.ExtractedContent;
+import com.to.model.FileDocument;
+import com.to.repository.ExtractedContentRepository;
+import com.to.repository.FileRepository;
+import com.to.service.AnalysisCache;
+import com.to.service.ContentSimilarityService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class ContentSimilarityServiceTest {
+
+    @Mock
+    private ExtractedContentRepository extractedContentRepository;
+
+    @Mock
+    private FileRepository fileRepository;
+
+    private ContentSimilarityService contentSimilarityService;
+
+    @BeforeEach
+    void setUp() {
+        contentSimilarityService = new ContentSimilarityService(extractedContentRepository, fileRepository,
+                new SimilarityProperties(), new AnalysisCache(new ScanProperties()));
+    }
+
+    @Test
+    void testSimilarContentsAreGroupedAcrossFiles() {
+        // given
+        String report = "quarterly report on sales in the northern region with figures for every month of the year "
+                + "and a summary of the main risks and opportunities for the next quarter prepared by the sales team";
+        ExtractedContent original = signedContent("xxh64:01", report);
+        ExtractedContent edited = signedContent("xxh64:02", report.replace("northern", "southern"));
+        ExtractedContent unrelated = signedContent("xxh64:03", "minutes of the board meeting held on monday");
+
+        Mockito.when(extractedContentRepository.findLshBuckets(1000))
+                .thenReturn(List.of(List.of("xxh64:01", "xxh64:02", "xxh64:03")));
+        Mockito.when(extractedContentRepository.findSignaturesByIdIn(List.of("xxh64:01", "xxh64:02", "xxh64:03")))
+                .thenReturn(List.of(original, edited, unrelated));
+
+        FileDocument reportCopy = file("/data/report-copy.txt", "xxh64:01");
+        FileDocument reportFinal = file("/data/report-final.txt", "xxh64:02");
+        FileDocument reportOriginal = file("/data/report.txt", "xxh64:01");
+        Mockito.when(fileRepository.findByContentRefIn(List.of("xxh64:01", "xxh64:02")))
+                .thenReturn(List.of(reportOriginal, reportFinal, reportCopy));
+
+        // when
+        List<List<FileDocument>> groups = contentSimilarityService.findSimilarContent(0.7);
+
+        // then
+        Assertions.assertEquals(List.of(List.of(reportCopy, reportFinal, reportOriginal)), groups);
+    }
+
+    @Test
+    void testThresholdMustBeAFraction() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> contentSimilarityService.findSimilarContent(1.5));
+    }
+
+    private ExtractedContent signedContent(String id, String text) {
+        ExtractedContent content = new ExtractedContent();
+        content.setId(id);
+        content.setText(text);
+        contentSimilarityService.sign(content);
+        return content;
+    }
+
+    private FileDocument file(String path, String contentRef) {
+        FileDocument fileDocument = new FileDocument();
+        fileDocument.setFilePath(path);
+        fileDocument.setContentRef(contentRef);
+        return fileDocument;
+    }
+}
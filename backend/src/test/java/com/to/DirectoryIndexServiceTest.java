@@ -0,0 +1,112 @@
+package com.to;
+
+import com.to.config.ScanProperties;
+import com.to.config.SimilarityProperties;
+import com.to.model.DirectoryDocument;
+import com.to.model.DirectoryGroup;
+import com.to.model.FileDocument;
+import com.to.repository.DirectoryRepository;
+import com.to.service.AnalysisCache;
+import com.to.service.DirectoryIndexService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.File;
+import java.util.List;
+import java.util.Set;
+
+@ExtendWith(MockitoExtension.class)
+class DirectoryIndexServiceTest {
+
+    @Mock
+    private DirectoryRepository directoryRepository;
+
+    private DirectoryIndexService directoryIndexService;
+
+    @BeforeEach
+    void setUp() {
+        directoryIndexService = new DirectoryIndexService(directoryRepository, new ScanProperties(), new SimilarityProperties(),
+                new AnalysisCache(new ScanProperties()));
+    }
+
+    @Test
+    void testNestedIdenticalDirectoriesAreCollapsed() {
+        // given
+        DirectoryDocument projectCopy = directory("1", path("backup", "project"), 300);
+        DirectoryDocument project = directory("2", path("work", "project"), 300);
+        DirectoryDocument sourcesCopy = directory("3", path("backup", "project", "src"), 200);
+        DirectoryDocument sources = directory("4", path("work", "project", "src"), 200);
+        DirectoryDocument assets = directory("5", path("work", "assets"), 50);
+        DirectoryDocument assetsCopy = directory("6", path("work", "project", "src", "assets"), 50);
+
+        Mockito.when(directoryRepository.findIdenticalGroups("xxh64", 2))
+                .thenReturn(List.of(List.of("3", "4"), List.of("5", "6"), List.of("1", "2")));
+        Mockito.when(directoryRepository.findWithoutSignatureByIdIn(List.of("3", "4"))).thenReturn(List.of(sources, sourcesCopy));
+        Mockito.when(directoryRepository.findWithoutSignatureByIdIn(List.of("5", "6"))).thenReturn(List.of(assets, assetsCopy));
+        Mockito.when(directoryRepository.findWithoutSignatureByIdIn(List.of("1", "2"))).thenReturn(List.of(project, projectCopy));
+
+        // when
+        List<DirectoryGroup> groups = directoryIndexService.findDuplicateDirectories(1);
+
+        // then
+        Assertions.assertEquals(2, groups.size());
+        Assertions.assertEquals(List.of(projectCopy, project), groups.get(0).getDirectories());
+        Assertions.assertEquals(300, groups.get(0).getWastedBytes());
+        Assertions.assertTrue(groups.get(0).isIdentical());
+        Assertions.assertFalse(groups.get(0).isNeedsRescan());
+        // one of the asset folders lies outside the reported projects, so the group stays
+        Assertions.assertEquals(List.of(assets, assetsCopy), groups.get(1).getDirectories());
+    }
+
+    @Test
+    void testDirectoriesMatchedOnPartialHashesAreNotReportedIdentical() {
+        // given
+        DirectoryDocument videos = directory("1", path("work", "videos"), 900);
+        DirectoryDocument videosCopy = directory("2", path("backup", "videos"), 900);
+        videos.setFullyHashed(false);
+        videosCopy.setFullyHashed(false);
+
+        Mockito.when(directoryRepository.findIdenticalGroups("xxh64", 2)).thenReturn(List.of(List.of("1", "2")));
+        Mockito.when(directoryRepository.findWithoutSignatureByIdIn(List.of("1", "2"))).thenReturn(List.of(videos, videosCopy));
+
+        // when
+        List<DirectoryGroup> groups = directoryIndexService.findDuplicateDirectories(1);
+
+        // then
+        Assertions.assertEquals(1, groups.size());
+        Assertions.assertFalse(groups.get(0).isIdentical());
+        Assertions.assertTrue(groups.get(0).isNeedsRescan());
+    }
+
+    @Test
+    void testFileChangeMarksAncestorsStale() {
+        // given
+        FileDocument fileDocument = new FileDocument();
+        fileDocument.setFilePath(path("work", "project", "notes.txt"));
+
+        // when
+        directoryIndexService.onFilesUpserted(List.of(fileDocument));
+
+        // then
+        Mockito.verify(directoryRepository).markStale(Set.of(path("work", "project"), path("work"), path()));
+    }
+
+    private DirectoryDocument directory(String id, String path, long totalSize) {
+        DirectoryDocument directory = new DirectoryDocument();
+        directory.setId(id);
+        directory.setPath(path);
+        directory.setTotalSize(totalSize);
+        directory.setMerkleHash(new byte[]{(byte) totalSize});
+        directory.setFullyHashed(true);
+        return directory;
+    }
+
+    private String path(String... names) {
+        return File.separator + String.join(File.separator, names);
+    }
+}
@@ -0,0 +1,91 @@
+package com.to;
+
+import com.to.logic.EditDistanceCalculator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+class EditDistanceCalculatorTest {
+
+    @Test
+    void testKnownDistances() {
+        Assertions.assertEquals(3, EditDistanceCalculator.calculate("kitten", "sitting"));
+        Assertions.assertEquals(0, EditDistanceCalculator.calculate("", ""));
+        Assertions.assertEquals(4, EditDistanceCalculator.calculate("", "file"));
+        Assertions.assertEquals(3, EditDistanceCalculator.calculate("file1.txt", "file1_v1.txt", 2));
+        Assertions.assertEquals(1, EditDistanceCalculator.calculate("zażółć.txt", "zażółć1.txt", 3));
+    }
+
+    @Test
+    void testBoundedDistanceMatchesFullMatrix() {
+        // given
+        Random random = new Random(7);
+
+        for (int run = 0; run < 5000; run++) {
+            // short names go through the bit-parallel path, long ones through the banded one
+            int maxLength = run % 2 == 0 ? 20 : 150;
+            String str1 = randomString(random, maxLength);
+            String str2 = random.nextBoolean() ? mutate(random, str1) : randomString(random, maxLength);
+            int max = random.nextInt(12);
+
+            // when
+            int full = EditDistanceCalculator.calculate(str1, str2);
+            int bounded = EditDistanceCalculator.calculate(str1, str2, max);
+
+            // then
+            int expected = fullMatrix(str1, str2);
+            Assertions.assertEquals(expected, full);
+            Assertions.assertEquals(Math.min(expected, max + 1), bounded);
+        }
+    }
+
+    private String randomString(Random random, int maxLength) {
+        StringBuilder builder = new StringBuilder();
+        int length = random.nextInt(maxLength + 1);
+        for (int i = 0; i < length; i++) {
+            builder.append(random.nextInt(10) == 0 ? 'ą' : (char) ('a' + random.nextInt(4)));
+        }
+        return builder.toString();
+    }
+
+    private String mutate(Random random, String str) {
+        StringBuilder builder = new StringBuilder(str);
+        int edits = random.nextInt(6);
+        for (int i = 0; i < edits; i++) {
+            int position = builder.isEmpty() ? 0 : random.nextInt(builder.length());
+            switch (random.nextInt(3)) {
+                case 0 -> builder.insert(position, 'x');
+                case 1 -> {
+                    if (!builder.isEmpty()) {
+                        builder.deleteCharAt(position);
+                    }
+                }
+                default -> {
+                    if (!builder.isEmpty()) {
+                        builder.setCharAt(position, 'y');
+                    }
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    private int fullMatrix(String str1, String str2) {
+        int[][] dp = new int[str1.length() + 1][str2.length() + 1];
+        for (int i = 0; i <= str1.length(); i++) {
+            for (int j = 0; j <= str2.length(); j++) {
+                if (i == 0) {
+                    dp[i][j] = j;
+                } else if (j == 0) {
+                    dp[i][j] = i;
+                } else if (str1.charAt(i - 1) == str2.charAt(j - 1)) {
+                    dp[i][j] = dp[i - 1][j - 1];
+                } else {
+                    dp[i][j] = 1 + Math.min(dp[i - 1][j - 1], Math.min(dp[i - 1][j], dp[i][j - 1]));
+                }
+            }
+        }
+        return dp[str1.length()][str2.length()];
+    }
+}
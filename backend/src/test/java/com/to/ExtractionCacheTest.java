@@ -0,0 +1,131 @@
+package com.to;
+
+import com.to.config.ScanProperties;
+import com.to.config.SimilarityProperties;
+import com.to.logic.ExtractionStatus;
+import com.to.model.ExtractedContent;
+import com.to.model.ExtractionResult;
+import com.to.repository.ExtractedContentRepository;
+import com.to.repository.FileRepository;
+import com.to.service.AnalysisCache;
+import com.to.service.ContentSimilarityService;
+import com.to.service.ExtractionCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(MockitoExtension.class)
+class ExtractionCacheTest {
+
+    @Mock
+    private ExtractedContentRepository extractedContentRepository;
+
+    private ExtractionCache extractionCache;
+
+    @BeforeEach
+    void setUp() {
+        ContentSimilarityService contentSimilarityService = new ContentSimilarityService(extractedContentRepository,
+                Mockito.mock(FileRepository.class), new SimilarityProperties(), new AnalysisCache(new ScanProperties()));
+        extractionCache = new ExtractionCache(extractedContentRepository, new ScanProperties(), contentSimilarityService);
+    }
+
+    @Test
+    void testSameContentIsExtractedOnce() throws IOException {
+        // given
+        AtomicInteger extractions = new AtomicInteger();
+        Mockito.when(extractedContentRepository.findMetadataById("xxh64:01")).thenReturn(Optional.empty());
+
+        // when
+        ExtractedContent first = extractionCache.ensureExtracted("xxh64:01",
+                () -> ExtractionResult.success("text " + extractions.incrementAndGet()));
+        ExtractedContent second = extractionCache.ensureExtracted("xxh64:01",
+                () -> ExtractionResult.success("text " + extractions.incrementAndGet()));
+
+        // then
+        Assertions.assertEquals(6, first.getTextLength());
+        Assertions.assertEquals(6, second.getTextLength());
+        Assertions.assertEquals(1, extractions.get());
+        ArgumentCaptor<ExtractedContent> contentCaptor = ArgumentCaptor.forClass(ExtractedContent.class);
+        Mockito.verify(extractedContentRepository, Mockito.times(1)).save(contentCaptor.capture());
+        Assertions.assertEquals("text 1", contentCaptor.getValue().getText());
+        Assertions.assertEquals(new SimilarityProperties().getBands(), contentCaptor.getValue().getLshBands().size());
+    }
+
+    @Test
+    void testStoredContentIsNotExtractedAgain() throws IOException {
+        // given
+        ExtractedContent stored = new ExtractedContent();
+        stored.setId("xxh64:02");
+        stored.setTextLength(4);
+        Mockito.when(extractedContentRepository.findMetadataById("xxh64:02")).thenReturn(Optional.of(stored));
+
+        // when
+        ExtractedContent metadata = extractionCache.ensureExtracted("xxh64:02", () -> {
+            throw new IOException("should not extract");
+        });
+
+        // then
+        Assertions.assertEquals(4, metadata.getTextLength());
+        Mockito.verify(extractedContentRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void testFailedExtractionIsRecorded() throws IOException {
+        // given
+        Mockito.when(extractedContentRepository.findMetadataById("xxh64:03")).thenReturn(Optional.empty());
+
+        // when
+        ExtractedContent metadata = extractionCache.ensureExtracted("xxh64:03",
+                () -> ExtractionResult.timedOut("PDF extraction timed out after 60s"));
+
+        // then
+        Assertions.assertEquals(0, metadata.getTextLength());
+        Assertions.assertEquals(ExtractionStatus.TIMED_OUT.toString(), metadata.getStatus());
+        Assertions.assertEquals("PDF extraction timed out after 60s", metadata.getErrorMessage());
+        Mockito.verify(extractedContentRepository).save(Mockito.any());
+    }
+
+    @Test
+    void testBusyPoolResultIsNotStored() throws IOException {
+        // given
+        Mockito.when(extractedContentRepository.findMetadataById("xxh64:04")).thenReturn(Optional.empty());
+
+        // when
+        ExtractedContent busy = extractionCache.ensureExtracted("xxh64:04",
+                () -> ExtractionResult.busy("No pdf extraction slot freed up within 60s"));
+        ExtractedContent extracted = extractionCache.ensureExtracted("xxh64:04", () -> ExtractionResult.success("text"));
+
+        // then
+        Assertions.assertEquals(ExtractionStatus.BUSY.toString(), busy.getStatus());
+        Assertions.assertEquals(4, extracted.getTextLength());
+        ArgumentCaptor<ExtractedContent> contentCaptor = ArgumentCaptor.forClass(ExtractedContent.class);
+        Mockito.verify(extractedContentRepository, Mockito.times(1)).save(contentCaptor.capture());
+        Assertions.assertEquals(ExtractionStatus.SUCCESS.toString(), contentCaptor.getValue().getStatus());
+    }
+
+    @Test
+    void testStoredTimeoutIsExtractedAgain() throws IOException {
+        // given
+        ExtractedContent stored = new ExtractedContent();
+        stored.setId("xxh64:05");
+        stored.setStatus(ExtractionStatus.TIMED_OUT.toString());
+        Mockito.when(extractedContentRepository.findMetadataById("xxh64:05")).thenReturn(Optional.of(stored));
+
+        // when
+        ExtractedContent metadata = extractionCache.ensureExtracted("xxh64:05", () -> ExtractionResult.success("text"));
+
+        // then
+        Assertions.assertEquals(ExtractionStatus.SUCCESS.toString(), metadata.getStatus());
+        Assertions.assertEquals(4, metadata.getTextLength());
+        Mockito.verify(extractedContentRepository).save(Mockito.any());
+    }
+}
@@ -0,0 +1,138 @@
+package com.to;
+
+import com.to.config.ScanProperties;
+import com.to.config.SimilarityProperties;
+import com.to.model.ExtractedContent;
+import com.to.model.FileDocument;
+import com.to.repository.ExtractedContentRepository;
+import com.to.repository.FileRepository;
+import com.to.service.AnalysisCache;
+import com.to.service.ContentSimilarityService;
+import com.to.service.ExtractionCache;
+import com.to.service.FileChangeListener;
+import com.to.service.FileContentService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@ExtendWith(MockitoExtension.class)
+class FileContentServiceTest {
+
+    @Mock
+    private FileRepository fileRepository;
+
+    @Mock
+    private ExtractedContentRepository extractedContentRepository;
+
+    @Mock
+    private FileChangeListener changeListener;
+
+    private FileContentService fileContentService;
+
+    @BeforeEach
+    void setUp() {
+        ScanProperties scanProperties = new ScanProperties();
+        AnalysisCache analysisCache = new AnalysisCache(scanProperties);
+        ContentSimilarityService contentSimilarityService = new ContentSimilarityService(extractedContentRepository,
+                fileRepository, new SimilarityProperties(), analysisCache);
+        fileContentService = new FileContentService(fileRepository, extractedContentRepository,
+                new ExtractionCache(extractedContentRepository, scanProperties, contentSimilarityService),
+                contentSimilarityService, scanProperties, List.of(changeListener));
+    }
+
+    @Test
+    void testContentIsLoadedByReference() {
+        // given
+        FileDocument referenced = new FileDocument();
+        referenced.setContentRef("xxh64:01");
+        FileDocument legacy = new FileDocument();
+        legacy.setContent("inline text");
+        ExtractedContent extracted = new ExtractedContent();
+        extracted.setText("extracted text");
+
+        Mockito.when(fileRepository.findContentById("1")).thenReturn(Optional.of(referenced));
+        Mockito.when(fileRepository.findContentById("2")).thenReturn(Optional.of(legacy));
+        Mockito.when(fileRepository.findContentById("3")).thenReturn(Optional.empty());
+        Mockito.when(extractedContentRepository.findTextById("xxh64:01")).thenReturn(Optional.of(extracted));
+
+        // when, then
+        Assertions.assertEquals(Optional.of("extracted text"), fileContentService.getContent("1"));
+        Assertions.assertEquals(Optional.of("inline text"), fileContentService.getContent("2"));
+        Assertions.assertEquals(Optional.empty(), fileContentService.getContent("3"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInlineContentIsMovedUnderFileDigest() {
+        // given
+        FileDocument legacy = legacy("quarterly report on sales in the northern region");
+        ArgumentCaptor<Function<FileDocument, String>> storeCaptor = ArgumentCaptor.forClass(Function.class);
+        ArgumentCaptor<Consumer<List<FileDocument>>> migratedCaptor = ArgumentCaptor.forClass(Consumer.class);
+        Mockito.when(fileRepository.moveInlineContent(storeCaptor.capture(), migratedCaptor.capture(), Mockito.eq(500)))
+                .thenReturn(1L);
+
+        // when
+        long migrated = fileContentService.migrateInlineContent();
+        String contentRef = storeCaptor.getValue().apply(legacy);
+        migratedCaptor.getValue().accept(List.of(legacy));
+
+        // then
+        Assertions.assertEquals(1, migrated);
+        Assertions.assertEquals("xxh64:0a0b", contentRef);
+        ArgumentCaptor<ExtractedContent> savedCaptor = ArgumentCaptor.forClass(ExtractedContent.class);
+        Mockito.verify(extractedContentRepository).save(savedCaptor.capture());
+        Assertions.assertEquals("xxh64:0a0b", savedCaptor.getValue().getId());
+        Assertions.assertEquals(legacy.getContent(), savedCaptor.getValue().getText());
+        Assertions.assertFalse(savedCaptor.getValue().getLshBands().isEmpty());
+        Mockito.verify(changeListener).onFilesUpserted(List.of(legacy));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInlineContentReplacesStoredEntryWithoutText() {
+        // given
+        FileDocument failedLegacy = legacy("minutes of the annual general meeting");
+        FileDocument extractedLegacy = legacy("minutes of the annual general meeting");
+        extractedLegacy.setDigest(new byte[]{0x0c});
+        ExtractedContent failed = new ExtractedContent();
+        failed.setStatus("FAILED");
+        ExtractedContent extracted = new ExtractedContent();
+        extracted.setTextLength(37);
+        extracted.setStatus("SUCCESS");
+        ArgumentCaptor<Function<FileDocument, String>> storeCaptor = ArgumentCaptor.forClass(Function.class);
+        Mockito.when(fileRepository.moveInlineContent(storeCaptor.capture(), Mockito.any(), Mockito.eq(500))).thenReturn(2L);
+        Mockito.when(extractedContentRepository.findMetadataById("xxh64:0a0b")).thenReturn(Optional.of(failed));
+        Mockito.when(extractedContentRepository.findMetadataById("xxh64:0c")).thenReturn(Optional.of(extracted));
+
+        // when
+        fileContentService.migrateInlineContent();
+        storeCaptor.getValue().apply(failedLegacy);
+        storeCaptor.getValue().apply(extractedLegacy);
+
+        // then
+        ArgumentCaptor<ExtractedContent> savedCaptor = ArgumentCaptor.forClass(ExtractedContent.class);
+        Mockito.verify(extractedContentRepository).save(savedCaptor.capture());
+        Assertions.assertEquals("xxh64:0a0b", savedCaptor.getValue().getId());
+        Assertions.assertEquals(failedLegacy.getContent(), savedCaptor.getValue().getText());
+        Assertions.assertEquals("SUCCESS", savedCaptor.getValue().getStatus());
+    }
+
+    private FileDocument legacy(String content) {
+        FileDocument fileDocument = new FileDocument();
+        fileDocument.setId("1");
+        fileDocument.setContent(content);
+        fileDocument.setHashAlgorithm("xxh64");
+        fileDocument.setDigest(new byte[]{0x0a, 0x0b});
+        return fileDocument;
+    }
+}
@@ -0,0 +1,55 @@
+package com.to;
+
+import com.to.logic.FileNameMatchMode;
+import com.to.model.FileDocument;
+import com.to.repository.FileRepository;
+import com.to.service.FileNameIndexService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@ExtendWith(MockitoExtension.class)
+class FileNameIndexServiceTest {
+
+    @Mock
+    private FileRepository fileRepository;
+
+    @Test
+    void testIndexFollowsLoadAndChanges() {
+        // given
+        FileDocument report = file("/docs/report.pdf");
+        FileDocument notes = file("/docs/notes.txt");
+        FileDocument moved = file("/archive/report.pdf");
+        Mockito.when(fileRepository.streamAllWithoutContent()).thenReturn(Stream.of(report, notes));
+        Mockito.when(fileRepository.findByFilePathIn(List.of("/archive/report.pdf"))).thenReturn(List.of(moved));
+        FileNameIndexService fileNameIndexService = new FileNameIndexService(fileRepository);
+
+        // when
+        long loaded = fileNameIndexService.reload();
+        fileNameIndexService.onFilesRemoved(List.of(report));
+        fileNameIndexService.onFilesUpserted(List.of(moved));
+        List<FileDocument> found = fileNameIndexService.find("reprot", FileNameMatchMode.FUZZY, 2, 10);
+        fileNameIndexService.onIndexReset();
+
+        // then
+        Assertions.assertEquals(2, loaded);
+        Assertions.assertEquals(List.of(moved), found);
+        Assertions.assertEquals(List.of(), fileNameIndexService.find("report", FileNameMatchMode.PREFIX, 0, 10));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> fileNameIndexService.find("report", FileNameMatchMode.FUZZY, 4, 10));
+        fileNameIndexService.stop();
+    }
+
+    private FileDocument file(String path) {
+        FileDocument fileDocument = new FileDocument();
+        fileDocument.setFilePath(path);
+        fileDocument.setFileName(path.substring(path.lastIndexOf('/') + 1));
+        return fileDocument;
+    }
+}
@@ -0,0 +1,102 @@
+package com.to;
+
+import com.to.logic.EditDistanceCalculator;
+import com.to.logic.FileNameTrigramIndex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+class FileNameTrigramIndexTest {
+
+    @Test
+    void testLookupsFindSameNamesAsLinearScan() {
+        // given
+        Random random = new Random(42);
+        Map<String, String> namesByPath = new LinkedHashMap<>();
+        FileNameTrigramIndex index = new FileNameTrigramIndex();
+        for (int i = 0; i < 5000; i++) {
+            String path = "/data/" + i;
+            String name = randomName(random);
+            namesByPath.put(path, name);
+            index.put(path, name);
+        }
+        // enough removals to rebuild the postings, and renames that move a path to a new slot
+        for (int i = 0; i < 3000; i++) {
+            String path = "/data/" + i;
+            if (i % 3 == 0) {
+                String name = randomName(random);
+                namesByPath.put(path, name);
+                index.put(path, name);
+            } else {
+                namesByPath.remove(path);
+                index.remove(path);
+            }
+        }
+
+        for (int query = 0; query < 50; query++) {
+            String name = randomName(random);
+            String prefix = name.substring(0, 1 + random.nextInt(5)).toUpperCase(Locale.ROOT);
+            String infix = name.substring(2, 3 + random.nextInt(4));
+
+            // when, then
+            Assertions.assertEquals(expected(namesByPath, n -> n.startsWith(prefix.toLowerCase(Locale.ROOT))),
+                    sorted(index.prefix(prefix, Integer.MAX_VALUE)));
+            Assertions.assertEquals(expected(namesByPath, n -> n.contains(infix)), sorted(index.substring(infix, Integer.MAX_VALUE)));
+            for (int maxDistance = 0; maxDistance <= 2; maxDistance++) {
+                int limit = maxDistance;
+                String base = name.substring(0, name.lastIndexOf('.'));
+                Assertions.assertEquals(expected(namesByPath, n -> EditDistanceCalculator.calculate(name, n) <= limit
+                                || EditDistanceCalculator.calculate(name, n.substring(0, n.lastIndexOf('.'))) <= limit),
+                        sorted(index.fuzzy(name, maxDistance, Integer.MAX_VALUE)));
+                Assertions.assertEquals(expected(namesByPath, n -> EditDistanceCalculator.calculate(base, n) <= limit
+                                || EditDistanceCalculator.calculate(base, n.substring(0, n.lastIndexOf('.'))) <= limit),
+                        sorted(index.fuzzy(base, maxDistance, Integer.MAX_VALUE)));
+            }
+        }
+        Assertions.assertEquals(namesByPath.size(), index.size());
+    }
+
+    @Test
+    void testFuzzyMatchesClosestFirstWithinLimit() {
+        // given
+        FileNameTrigramIndex index = new FileNameTrigramIndex();
+        index.put("/a", "quarterly_reprot.pdf");
+        index.put("/b", "Quarterly_Report.pdf");
+        index.put("/c", "quarterly_report_v2.pdf");
+        index.put("/d", "annual_report.pdf");
+
+        // when
+        List<String> all = index.fuzzy("quarterly_report", 3, 10);
+        List<String> first = index.fuzzy("quarterly_report", 3, 2);
+
+        // then
+        Assertions.assertEquals(List.of("/b", "/a", "/c"), all);
+        Assertions.assertEquals(List.of("/b", "/a"), first);
+        Assertions.assertEquals(List.of("/a", "/b", "/c"), index.prefix("QUARTERLY", 10));
+        Assertions.assertEquals(List.of("/c"), index.substring("_v2", 10));
+        Assertions.assertEquals(List.of(), index.substring("missing", 10));
+    }
+
+    private List<String> expected(Map<String, String> namesByPath, Predicate<String> matches) {
+        return namesByPath.entrySet().stream()
+                .filter(entry -> matches.test(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+
+    private List<String> sorted(List<String> paths) {
+        return paths.stream().sorted().toList();
+    }
+
+    private String randomName(Random random) {
+        StringBuilder name = new StringBuilder("fi");
+        int length = 2 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            name.append((char) ('a' + random.nextInt(4)));
+        }
+        return name.append(random.nextBoolean() ? ".txt" : ".pdf").toString();
+    }
+}
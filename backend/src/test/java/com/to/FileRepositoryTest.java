@@ -0,0 +1,65 @@
+package com.to;
+
+import com.to.logic.HashLevel;
+import com.to.model.FileDocument;
+import com.to.repository.FileRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DataMongoTest(properties = "spring.data.mongodb.database=spring-test-repository")
+class FileRepositoryTest {
+
+    @Autowired
+    private FileRepository fileRepository;
+
+    @BeforeEach
+    void setUp() {
+        fileRepository.deleteAll();
+    }
+
+    @Test
+    void testLegacyFileSharingSizeWithNewerFileNeedsHash() {
+        // given
+        fileRepository.saveAll(List.of(
+                // a legacy file next to a file with a unique partial hash, and next to a fully hashed file
+                legacy("/mixed/old.bin", 100, "aa"), hashed("/mixed/new.bin", 100, HashLevel.PARTIAL, new byte[]{1}),
+                legacy("/full/old.bin", 200, "bb"), hashed("/full/new.bin", 200, HashLevel.FULL, new byte[]{2}),
+                // legacy files alone are grouped by their hex hash, newer ones by their digests
+                legacy("/legacy/a.bin", 300, "cc"), legacy("/legacy/b.bin", 300, "cc"),
+                hashed("/new/a.bin", 400, HashLevel.FULL, new byte[]{3}), hashed("/new/b.bin", 400, HashLevel.FULL, new byte[]{4})));
+
+        // when
+        List<Long> sizes = fileRepository.findSizesNeedingHash("xxh64");
+
+        // then
+        Assertions.assertEquals(Set.of(100L, 200L), new HashSet<>(sizes));
+    }
+
+    private FileDocument legacy(String filePath, long size, String hash) {
+        FileDocument fileDocument = new FileDocument();
+        fileDocument.setFilePath(filePath);
+        fileDocument.setSize(size);
+        fileDocument.setHash(hash);
+        return fileDocument;
+    }
+
+    private FileDocument hashed(String filePath, long size, HashLevel hashLevel, byte[] digest) {
+        FileDocument fileDocument = new FileDocument();
+        fileDocument.setFilePath(filePath);
+        fileDocument.setSize(size);
+        fileDocument.setHashAlgorithm("xxh64");
+        fileDocument.setHashLevel(hashLevel.toString());
+        fileDocument.setPartialDigest(digest);
+        if (hashLevel == HashLevel.FULL) {
+            fileDocument.setDigest(digest);
+        }
+        return fileDocument;
+    }
+}
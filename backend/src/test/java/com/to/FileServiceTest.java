@@ -1,6 +1,20 @@
 package com.to;
 
+import com.to.config.ExtractionProperties;
+import com.to.config.ScanProperties;
+import com.to.config.SimilarityProperties;
+import com.to.config.VersionsProperties;
+import com.to.logic.FileHasher;
+import com.to.logic.FileSortOrder;
+import com.to.logic.HashAlgorithms;
+import com.to.logic.HashLevel;
+import com.to.logic.VersionGroupingMode;
+import com.to.model.CursorPage;
+import com.to.model.DirectoryDocument;
+import com.to.model.DuplicateGroup;
 import com.to.model.FileDocument;
+import com.to.repository.DirectoryRepository;
+import com.to.repository.ExtractedContentRepository;
 import com.to.repository.FileRepository;
 import com.to.service.*;
 import org.junit.jupiter.api.AfterEach;
@@ -18,8 +32,16 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.zip.ZipFile;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,8 +50,15 @@ class FileServiceTest {
     @Mock
     private FileRepository fileRepository;
 
+    @Mock
+    private DirectoryRepository directoryRepository;
+
     private FileService fileService;
 
+    private FileProcessingService fileProcessingService;
+
+    private AnalysisCache analysisCache;
+
     private FileDocument file1 = new FileDocument();
     private FileDocument file2 = new FileDocument();
     private FileDocument file3 = new FileDocument();
@@ -41,11 +70,23 @@ class FileServiceTest {
 
     @BeforeEach
     void setUp() {
-        FileAnalysisService fileAnalysisService = Mockito.spy(new FileAnalysisService(fileRepository));
-        FileProcessingService fileProcessingService = Mockito.spy(new FileProcessingService(fileRepository));
-        FileManagementService fileManagementService = Mockito.spy(new FileManagementService(fileRepository, Mockito.mock(ActionLogService.class)));
-        KeyWordsService keyWordsService = Mockito.spy(new KeyWordsService(fileRepository));
-        fileService = new FileService(fileProcessingService, fileManagementService, fileAnalysisService, Mockito.mock(ActionLogService.class), keyWordsService);
+        analysisCache = new AnalysisCache(new ScanProperties());
+        DirectoryIndexService directoryIndexService = new DirectoryIndexService(directoryRepository, new ScanProperties(),
+                new SimilarityProperties(), analysisCache);
+        List<FileChangeListener> changeListeners = List.of(analysisCache, directoryIndexService);
+        FileNameNormalizer fileNameNormalizer = new FileNameNormalizer(fileRepository, new VersionsProperties(), analysisCache);
+        FileAnalysisService fileAnalysisService = Mockito.spy(new FileAnalysisService(fileRepository, new ScanProperties(), fileNameNormalizer,
+                new VersionsProperties(), analysisCache));
+        fileProcessingService = Mockito.spy(new FileProcessingService(fileRepository, new ScanProperties(),
+                new ExtractionCache(Mockito.mock(ExtractedContentRepository.class), new ScanProperties(), Mockito.mock(ContentSimilarityService.class)),
+                new ContentExtractors(List.of(new PlainTextExtractor(new ExtractionProperties()), new PdfTextExtractor(new ExtractionProperties())),
+                        new ExtractionProperties()), fileNameNormalizer, directoryIndexService, changeListeners));
+        FileManagementService fileManagementService = Mockito.spy(new FileManagementService(fileRepository, Mockito.mock(ActionLogService.class),
+                changeListeners));
+        KeyWordsService keyWordsService = Mockito.spy(new KeyWordsService(Mockito.mock(ExtractedContentRepository.class), Optional.empty()));
+        fileService = new FileService(fileProcessingService, fileManagementService, fileAnalysisService, Mockito.mock(ActionLogService.class), keyWordsService, Mockito.mock(ScanJobService.class),
+                Mockito.mock(ContentSimilarityService.class), directoryIndexService, Mockito.mock(FileContentService.class),
+                Mockito.mock(FileNameIndexService.class));
     }
 
     @AfterEach
@@ -60,27 +101,87 @@ class FileServiceTest {
     @Test
     void testFindDuplicates() {
         // given
+        file1.setId("1");
         file1.setHash("hash123");
         file1.setFileName("file1.txt");
+        file1.setFilePath("/data/file1.txt");
 
+        file2.setId("2");
         file2.setHash("hash123");
         file2.setFileName("file2.txt");
+        file2.setFilePath("/data/file2.txt");
 
-        file3.setHash("hash456");
-        file3.setFileName("file3.txt");
+        Mockito.when(fileRepository.findDuplicateGroups("xxh64", 0, 21)).thenReturn(List.of(duplicateGroup("hash123", 13, "2", "1")));
+        Mockito.when(fileRepository.findWithoutContentByIdIn(List.of("2", "1"))).thenReturn(List.of(file2, file1));
 
-        List<FileDocument> allFiles = List.of(file1, file2, file3);
+        // when
+        CursorPage<DuplicateGroup> duplicates = fileService.findDuplicates(20, null);
+
+        // then
+        Assertions.assertEquals(1, duplicates.getItems().size());
+        Assertions.assertEquals(List.of(file1, file2), duplicates.getItems().getFirst().getFiles());
+        Assertions.assertEquals(13, duplicates.getItems().getFirst().getWastedBytes());
+        Assertions.assertNull(duplicates.getNextCursor());
+    }
+
+    @Test
+    void testFindDuplicatesHashesOnlyCandidateSizes() throws IOException {
+        // given
+        Path sourceDir = tempDir.resolve("source");
+        Files.createDirectory(sourceDir);
+        file1.setFilePath(Files.writeString(sourceDir.resolve("file1.txt"), "Hello").toString());
+        file2.setFilePath(Files.writeString(sourceDir.resolve("file2.txt"), "Hello").toString());
+        file3.setFilePath(Files.writeString(sourceDir.resolve("file3.txt"), "World").toString());
+        file4.setFilePath(Files.writeString(sourceDir.resolve("file4.txt"), "Unique size").toString());
+        for (FileDocument file : List.of(file1, file2, file3, file4)) {
+            file.setSize(Files.size(Path.of(file.getFilePath())));
+            file.setHashLevel(HashLevel.NONE.toString());
+        }
+
+        Mockito.when(fileRepository.findSizesNeedingHash("xxh64")).thenReturn(List.of(5L));
+        Mockito.when(fileRepository.findBySize(5L)).thenReturn(List.of(file1, file2, file3));
+
+        // when
+        fileService.findDuplicates(20, null);
+
+        // then
+        Assertions.assertEquals(HashLevel.FULL.toString(), file1.getHashLevel());
+        Assertions.assertEquals("xxh64", file1.getHashAlgorithm());
+        Assertions.assertNotNull(file1.getDigest());
+        Assertions.assertArrayEquals(file1.getDigest(), file2.getDigest());
+        Assertions.assertNotNull(file3.getPartialDigest());
+        Assertions.assertNull(file4.getPartialDigest());
+        Assertions.assertNull(file4.getDigest());
+        ArgumentCaptor<Collection<FileDocument>> updateCaptor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(fileRepository).updateHashes(updateCaptor.capture());
+        Assertions.assertEquals(Set.of(file1, file2, file3), Set.copyOf(updateCaptor.getValue()));
+    }
+
+    @Test
+    void testFindDuplicatesRecordsUnreadableFiles() throws IOException {
+        // given
+        file1.setFilePath(Files.writeString(tempDir.resolve("file1.txt"), "Hello").toString());
+        file2.setFilePath(tempDir.resolve("missing.txt").toString());
+        for (FileDocument file : List.of(file1, file2)) {
+            file.setSize(5);
+            file.setHashLevel(HashLevel.NONE.toString());
+        }
 
-        Mockito.when(fileRepository.findAll()).thenReturn(allFiles);
+        Mockito.when(fileRepository.findSizesNeedingHash("xxh64")).thenReturn(List.of(5L));
+        Mockito.when(fileRepository.findBySize(5L)).thenReturn(List.of(file1, file2));
 
         // when
-        List<List<FileDocument>> duplicates = fileService.findDuplicates();
+        fileService.findDuplicates(20, null);
+        analysisCache.invalidate();
+        fileService.findDuplicates(20, null);
 
         // then
-        Assertions.assertEquals(1, duplicates.size());
-        Assertions.assertEquals(2, duplicates.getFirst().size());
-        Assertions.assertTrue(duplicates.getFirst().contains(file1));
-        Assertions.assertTrue(duplicates.getFirst().contains(file2));
+        Assertions.assertEquals(HashLevel.UNREADABLE.toString(), file2.getHashLevel());
+        Assertions.assertEquals("xxh64", file2.getHashAlgorithm());
+        Assertions.assertNull(file2.getPartialDigest());
+        ArgumentCaptor<Collection<FileDocument>> updateCaptor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(fileRepository, Mockito.times(1)).updateHashes(updateCaptor.capture());
+        Assertions.assertEquals(Set.of(file1, file2), Set.copyOf(updateCaptor.getValue()));
     }
 
     @Test
@@ -95,10 +196,10 @@ class FileServiceTest {
         file4.setFileName("file-kopia.txt");
 
         List<FileDocument> allFiles = List.of(file1, file2, file3, file4);
-        Mockito.when(fileRepository.findAll()).thenReturn(allFiles);
+        Mockito.when(fileRepository.findAllWithoutContent()).thenReturn(allFiles);
 
         // when
-        List<List<FileDocument>> versions = fileService.findFileVersions(2);
+        List<List<FileDocument>> versions = fileService.findFileVersions(2, VersionGroupingMode.GREEDY);
 
         // then
         Assertions.assertEquals(1, versions.size());
@@ -108,6 +209,25 @@ class FileServiceTest {
         Assertions.assertTrue(versions.getFirst().contains(file4));
     }
 
+    @Test
+    void testFindFileVersionsTransitively() {
+        // given
+        file1.setFileName("report.txt");
+        file2.setFileName("report1.txt");
+        file3.setFileName("report12.txt");
+        file4.setFileName("summary.txt");
+
+        Mockito.when(fileRepository.findAllWithoutContent()).thenReturn(List.of(file3, file4, file1, file2));
+
+        // when
+        List<List<FileDocument>> greedy = fileService.findFileVersions(1, VersionGroupingMode.GREEDY);
+        List<List<FileDocument>> transitive = fileService.findFileVersions(1, VersionGroupingMode.TRANSITIVE);
+
+        // then
+        Assertions.assertEquals(List.of(List.of(file3, file2)), greedy);
+        Assertions.assertEquals(List.of(List.of(file3, file1, file2)), transitive);
+    }
+
     @Test
     void testFindLargestFiles() {
         //given
@@ -117,6 +237,7 @@ class FileServiceTest {
         file2.setFileName("file.txt");
         file2.setSize(20);
 
+        file3.setId("file3");
         file3.setFileName("file.txt");
         file3.setSize(30);
 
@@ -126,18 +247,69 @@ class FileServiceTest {
         file5.setFileName("file.txt");
         file5.setSize(50);
 
-        List<FileDocument> allFiles = List.of(file1, file2, file3, file4, file5);
-        Mockito.when(fileRepository.findAll()).thenReturn(allFiles);
+        Mockito.when(fileRepository.findLargest(4, "txt", null, null, null)).thenReturn(List.of(file5, file4, file3, file2));
+        Mockito.when(fileRepository.findLargest(4, "txt", null, 30L, "file3")).thenReturn(List.of(file2, file1));
+
+        // when
+        CursorPage<FileDocument> firstPage = fileService.findLargestFiles(3, "txt", null, null);
+        CursorPage<FileDocument> secondPage = fileService.findLargestFiles(3, "txt", null, firstPage.getNextCursor());
+
+        // then
+        Assertions.assertEquals(List.of(file5, file4, file3), firstPage.getItems());
+        Assertions.assertEquals("30:file3", firstPage.getNextCursor());
+        Assertions.assertEquals(List.of(file2, file1), secondPage.getItems());
+        Assertions.assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void testGetFilesPageByPath() {
+        // given
+        file1.setId("1");
+        file1.setFilePath("/data/a:b.txt");
+        file2.setId("2");
+        file2.setFilePath("/data/c.txt");
+        file3.setId("3");
+        file3.setFilePath("/data/d.txt");
+
+        Mockito.when(fileRepository.findPage(FileSortOrder.PATH, 2, null, null)).thenReturn(List.of(file1, file2));
+        Mockito.when(fileRepository.findPage(FileSortOrder.PATH, 2, "/data/a:b.txt", "1")).thenReturn(List.of(file2, file3));
+        Mockito.when(fileRepository.findPage(FileSortOrder.PATH, 2, "/data/c.txt", "2")).thenReturn(List.of(file3));
 
         // when
-        List<FileDocument> biggestFiles = fileService.findLargestFiles(3);
+        CursorPage<FileDocument> firstPage = fileService.getFilesPage(1, FileSortOrder.PATH, null);
+        CursorPage<FileDocument> secondPage = fileService.getFilesPage(1, FileSortOrder.PATH, firstPage.getNextCursor());
+        CursorPage<FileDocument> lastPage = fileService.getFilesPage(1, FileSortOrder.PATH, secondPage.getNextCursor());
 
         // then
-        Assertions.assertEquals(3, biggestFiles.size());
-        Assertions.assertEquals(50, biggestFiles.getFirst().getSize());
-        Assertions.assertTrue(biggestFiles.contains(file5));
-        Assertions.assertTrue(biggestFiles.contains(file4));
-        Assertions.assertTrue(biggestFiles.contains(file3));
+        Assertions.assertEquals(List.of(file1), firstPage.getItems());
+        Assertions.assertEquals(List.of(file2), secondPage.getItems());
+        Assertions.assertEquals(List.of(file3), lastPage.getItems());
+        Assertions.assertNull(lastPage.getNextCursor());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> fileService.getFilesPage(1001, FileSortOrder.ID, null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> fileService.getFilesPage(10, FileSortOrder.PATH, "not-a-cursor"));
+    }
+
+    @Test
+    void testFindLargestFilesServedFromCacheUntilFileDeleted() throws IOException {
+        // given
+        file1.setId("1");
+        file1.setFileName("file.txt");
+        file1.setFilePath(tempDir.resolve("missing.txt").toString());
+        file1.setSize(10);
+
+        Mockito.when(fileRepository.findLargest(11, null, null, null, null)).thenReturn(List.of(file1));
+        Mockito.when(fileRepository.findById("1")).thenReturn(Optional.of(file1));
+
+        // when
+        CursorPage<FileDocument> firstCall = fileService.findLargestFiles(10, null, null, null);
+        CursorPage<FileDocument> secondCall = fileService.findLargestFiles(10, null, null, null);
+        fileService.deleteFile("1");
+        fileService.findLargestFiles(10, null, null, null);
+
+        // then
+        Assertions.assertSame(firstCall, secondCall);
+        Mockito.verify(fileRepository, Mockito.times(2)).findLargest(11, null, null, null, null);
+        Assertions.assertEquals(1, analysisCache.size());
     }
 
     @Test
@@ -182,7 +354,7 @@ class FileServiceTest {
         file2.setFilePath(sourceDir.resolve("file2.txt").toString());
 
         List<FileDocument> allFiles = List.of(file1, file2);
-        Mockito.when(fileRepository.findAllById(List.of(file1.getId(), file2.getId()))).thenReturn(allFiles);
+        Mockito.when(fileRepository.findWithoutContentByIdIn(List.of(file1.getId(), file2.getId()))).thenReturn(allFiles);
         Path targetDir = tempDir.resolve("target");
 
         // when
@@ -256,8 +428,8 @@ class FileServiceTest {
         file3.setHash("hash45623131");
         file3.setFilePath(sourceDir.resolve("file33131341.txt").toString());
 
-        List<FileDocument> allFiles = List.of(file1, file2, file3);
-        Mockito.when(fileRepository.findAll()).thenReturn(allFiles);
+        Mockito.when(fileRepository.findDuplicateGroups("xxh64", 0, 501)).thenReturn(List.of(duplicateGroup("hash123", 13, "1", "2")));
+        Mockito.when(fileRepository.findWithoutContentByIdIn(List.of("1", "2"))).thenReturn(List.of(file1, file2));
 
         // when
         fileService.moveDuplicatesToGroupedDirectories(sourceDir.toString());
@@ -300,7 +472,7 @@ class FileServiceTest {
         file5.setFilePath(sourceDir.resolve("file1_copy.txt").toString());
 
         List<FileDocument> allFiles = List.of(file1, file2, file3, file4, file5);
-        Mockito.when(fileRepository.findAll()).thenReturn(allFiles);
+        Mockito.when(fileRepository.findAllWithoutContent()).thenReturn(allFiles);
 
         // when
         fileService.moveVersionsToGroupedDirectories(sourceDir.toString(), 3);
@@ -343,14 +515,81 @@ class FileServiceTest {
         fileService.processDirectory(sourceDir.toString());
 
         // then
-        ArgumentCaptor<FileDocument> fileDocumentCaptor = ArgumentCaptor.forClass(FileDocument.class);
-        Mockito.verify(fileRepository, Mockito.times(2)).save(fileDocumentCaptor.capture());
-        List<FileDocument> savedFiles = fileDocumentCaptor.getAllValues();
+        List<FileDocument> savedFiles = captureBulkWrites();
         Assertions.assertEquals(2, savedFiles.size());
         Assertions.assertTrue(savedFiles.stream().anyMatch(file -> file.getFileName().equals("file1.txt")));
         Assertions.assertTrue(savedFiles.stream().anyMatch(file -> file.getFileName().equals("file2.txt")));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testProcessDirectoryHashesDirectories() throws IOException, NoSuchAlgorithmException {
+        // given
+        Path sourceDir = tempDir.resolve("source");
+        for (String copy : List.of("a", "b", "c")) {
+            Files.createDirectories(sourceDir.resolve(copy));
+            Files.writeString(sourceDir.resolve(copy).resolve("x.txt"), "one");
+            Files.writeString(sourceDir.resolve(copy).resolve(copy.equals("c") ? "renamed.txt" : "y.txt"), "two");
+        }
+
+        // when
+        fileService.processDirectory(sourceDir.toString());
+
+        // then
+        ArgumentCaptor<List<DirectoryDocument>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(directoryRepository, Mockito.atLeastOnce()).bulkUpsertByPath(batchCaptor.capture());
+        Map<String, DirectoryDocument> directories = batchCaptor.getAllValues().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(DirectoryDocument::getName, directory -> directory));
+        Assertions.assertEquals(directories.get("a").getHash(), directories.get("b").getHash());
+        Assertions.assertNotEquals(directories.get("a").getHash(), directories.get("c").getHash());
+        Assertions.assertArrayEquals(directories.get("a").getMinHash(), directories.get("c").getMinHash());
+        Assertions.assertEquals(6, directories.get("source").getFileCount());
+        Assertions.assertEquals(sourceDir.toFile().getAbsolutePath(), directories.get("a").getParentPath());
+        Mockito.verify(directoryRepository).deleteNotScannedSince(Mockito.eq(sourceDir.toFile().getAbsolutePath()), Mockito.any());
+    }
+
+    @Test
+    void testIncrementalProcessDirectory() throws IOException, NoSuchAlgorithmException {
+        // given
+        Path sourceDir = tempDir.resolve("source");
+        Files.createDirectory(sourceDir);
+        Path unchangedPath = Files.writeString(sourceDir.resolve("file1.txt"), "Hello, world!");
+        Path changedPath = Files.writeString(sourceDir.resolve("file2.txt"), "Hello again!");
+        BasicFileAttributes attrs = Files.readAttributes(unchangedPath, BasicFileAttributes.class);
+
+        file1.setId("1");
+        file1.setFilePath(unchangedPath.toFile().getAbsolutePath());
+        file1.setSize(attrs.size());
+        file1.setLastModified(LocalDateTime.ofInstant(attrs.lastModifiedTime().toInstant(), ZoneId.systemDefault()));
+        file1.setFileKey(attrs.fileKey() == null ? null : attrs.fileKey().toString());
+        file1.setHashAlgorithm("xxh64");
+        file1.setPartialDigest(FileHasher.partialHash(unchangedPath.toFile(), HashAlgorithms.forName("xxh64")));
+
+        file2.setId("2");
+        file2.setFilePath(changedPath.toFile().getAbsolutePath());
+        file2.setSize(1);
+
+        file3.setId("3");
+        file3.setFilePath(sourceDir.resolve("removed.txt").toFile().getAbsolutePath());
+
+        Mockito.when(fileRepository.findByFilePath(file1.getFilePath())).thenReturn(Optional.of(file1));
+        Mockito.when(fileRepository.findByFilePath(file2.getFilePath())).thenReturn(Optional.of(file2));
+        Mockito.when(fileRepository.findByFilePathStartingWith(sourceDir.toFile().getAbsolutePath() + File.separator))
+                .thenReturn(List.of(file1, file2, file3));
+
+        // when
+        fileService.processDirectory(sourceDir.toString(), true);
+
+        // then
+        List<FileDocument> savedFiles = captureBulkWrites();
+        Assertions.assertEquals(1, savedFiles.size());
+        Assertions.assertEquals("2", savedFiles.getFirst().getId());
+        Assertions.assertEquals("file2.txt", savedFiles.getFirst().getFileName());
+        Mockito.verify(fileRepository).deleteAllById(List.of("3"));
+        Mockito.verify(fileRepository, Mockito.never()).deleteAll();
+    }
+
     @Test
     void testGetAllFiles() {
         // given
@@ -359,7 +598,7 @@ class FileServiceTest {
         file3.setId("3");
 
         List<FileDocument> allFiles = List.of(file1, file2, file3);
-        Mockito.when(fileRepository.findAll()).thenReturn(allFiles);
+        Mockito.when(fileRepository.findPage(FileSortOrder.ID, 1001, null, null)).thenReturn(allFiles);
 
         // when
         List<FileDocument> result = fileService.getAllFiles();
@@ -367,4 +606,41 @@ class FileServiceTest {
         // then
         Assertions.assertEquals(allFiles, result);
     }
+
+    @Test
+    void testRefreshPathsUpsertsChangedFilesAndRemovesDeletedDirectories() throws IOException, NoSuchAlgorithmException {
+        // given
+        Path created = Files.writeString(tempDir.resolve("created.txt"), "new file");
+        Path deletedDirectory = tempDir.resolve("deleted");
+        FileDocument below = new FileDocument();
+        below.setId("7");
+        below.setFilePath(deletedDirectory.resolve("inner.txt").toString());
+        Mockito.when(fileRepository.findByFilePathStartingWith(deletedDirectory + File.separator)).thenReturn(List.of(below));
+
+        // when
+        fileProcessingService.refreshPaths(List.of(created, deletedDirectory));
+
+        // then
+        List<FileDocument> savedFiles = captureBulkWrites();
+        Assertions.assertEquals(List.of(created.toString()), savedFiles.stream().map(FileDocument::getFilePath).toList());
+        Mockito.verify(fileRepository).deleteAllById(List.of("7"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FileDocument> captureBulkWrites() {
+        ArgumentCaptor<List<FileDocument>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(fileRepository, Mockito.atLeastOnce()).bulkUpsertByFilePath(batchCaptor.capture());
+        Mockito.verify(fileRepository, Mockito.never()).save(Mockito.any(FileDocument.class));
+        return batchCaptor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private DuplicateGroup duplicateGroup(String hash, long size, String... fileIds) {
+        DuplicateGroup group = new DuplicateGroup();
+        group.setHash(hash);
+        group.setSize(size);
+        group.setCount(fileIds.length);
+        group.setWastedBytes(size * (fileIds.length - 1));
+        group.setFileIds(List.of(fileIds));
+        return group;
+    }
 }
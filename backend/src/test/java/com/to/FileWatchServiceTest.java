@@ -0,0 +1,111 @@
+package com.to;
+
+import com.to.config.WatchProperties;
+import com.to.service.FileProcessingService;
+import com.to.service.FileWatchService;
+import com.to.service.IndexLock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+@ExtendWith(MockitoExtension.class)
+class FileWatchServiceTest {
+
+    @Mock
+    private FileProcessingService fileProcessingService;
+
+    @TempDir
+    Path tempDir;
+
+    private final IndexLock indexLock = new IndexLock();
+
+    private FileWatchService fileWatchService;
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        if (fileWatchService != null) {
+            fileWatchService.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testChangesAreRefreshedOnceQuietForDebounce() throws Exception {
+        // given
+        fileWatchService = startWatching(tempDir);
+        Path file = tempDir.resolve("report.txt");
+
+        // when
+        Files.writeString(file, "first");
+        Files.writeString(file, "second");
+        Files.writeString(file, "third");
+
+        // then
+        Mockito.verify(fileProcessingService, Mockito.after(200).never()).refreshPaths(Mockito.anyCollection());
+        ArgumentCaptor<Collection<Path>> pathsCaptor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(fileProcessingService, Mockito.timeout(5000)).refreshPaths(pathsCaptor.capture());
+        Assertions.assertEquals(List.of(file), List.copyOf(pathsCaptor.getValue()));
+        Mockito.verify(fileProcessingService, Mockito.after(1000).times(1)).refreshPaths(Mockito.anyCollection());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testChangesWaitWhileFullScanHoldsIndex() throws Exception {
+        // given
+        fileWatchService = startWatching(tempDir);
+        Lock fullScan = indexLock.forFullScan();
+        fullScan.lock();
+
+        // when
+        Path file = Files.writeString(tempDir.resolve("report.txt"), "during scan");
+        Mockito.verify(fileProcessingService, Mockito.after(1500).never()).refreshPaths(Mockito.anyCollection());
+        fullScan.unlock();
+
+        // then
+        ArgumentCaptor<Collection<Path>> pathsCaptor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(fileProcessingService, Mockito.timeout(5000)).refreshPaths(pathsCaptor.capture());
+        Assertions.assertEquals(List.of(file), List.copyOf(pathsCaptor.getValue()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDirectoriesReachedThroughLinksAreWatched() throws Exception {
+        // given
+        Path root = Files.createDirectory(tempDir.resolve("root"));
+        Path outside = Files.createDirectory(tempDir.resolve("outside"));
+        Files.createSymbolicLink(root.resolve("linked"), outside);
+        fileWatchService = startWatching(root);
+
+        // when
+        Files.writeString(outside.resolve("report.txt"), "through the link");
+
+        // then
+        ArgumentCaptor<Collection<Path>> pathsCaptor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(fileProcessingService, Mockito.timeout(5000)).refreshPaths(pathsCaptor.capture());
+        Assertions.assertEquals(List.of(root.resolve("linked").resolve("report.txt")), List.copyOf(pathsCaptor.getValue()));
+    }
+
+    private FileWatchService startWatching(Path root) throws IOException {
+        WatchProperties watchProperties = new WatchProperties();
+        watchProperties.setEnabled(true);
+        watchProperties.setDebounce(Duration.ofMillis(500));
+        FileWatchService watchService = new FileWatchService(fileProcessingService, indexLock, watchProperties);
+        watchService.start();
+        watchService.watch(root.toString());
+        return watchService;
+    }
+}
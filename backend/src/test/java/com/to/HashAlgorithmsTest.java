@@ -0,0 +1,63 @@
+package com.to;
+
+import com.to.logic.FileHasher;
+import com.to.logic.HashAlgorithm;
+import com.to.logic.HashAlgorithms;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+
+class HashAlgorithmsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testKnownDigests() {
+        Assertions.assertEquals("ef46db3751d8e999", hash("xxh64", ""));
+        Assertions.assertEquals("44bc2cf5ad770999", hash("xxh64", "abc"));
+        Assertions.assertEquals("af1349b9f5f9a1a6a0404dea36dcc9499bcb25c9adc112b7cc9a93cae41f3262", hash("blake3", ""));
+        Assertions.assertEquals("6437b3ac38465133ffb63b75273a8db548c558465d79db03fd359c6cd5bd9d85", hash("blake3", "abc"));
+        Assertions.assertEquals("900150983cd24fb0d6963f7d28e17f72", hash("md5", "abc"));
+    }
+
+    @Test
+    void testFileHashMatchesInMemoryHashAcrossChunks() throws IOException {
+        // given
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        Path file = Files.write(tempDir.resolve("large.bin"), content);
+
+        for (String name : HashAlgorithms.names()) {
+            HashAlgorithm algorithm = HashAlgorithms.forName(name);
+            HashAlgorithm.Hasher hasher = algorithm.newHasher();
+            hasher.update(ByteBuffer.wrap(content));
+
+            // when
+            byte[] fileDigest = FileHasher.fullHash(file.toFile(), algorithm);
+
+            // then
+            Assertions.assertArrayEquals(hasher.digest(), fileDigest, name);
+        }
+    }
+
+    @Test
+    void testUnknownAlgorithmIsRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> HashAlgorithms.forName("crc0"));
+    }
+
+    private String hash(String algorithm, String input) {
+        HashAlgorithm.Hasher hasher = HashAlgorithms.forName(algorithm).newHasher();
+        hasher.update(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)));
+        return HexFormat.of().formatHex(hasher.digest());
+    }
+}
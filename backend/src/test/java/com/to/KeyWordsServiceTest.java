@@ -0,0 +1,92 @@
+package com.to;
+
+import com.to.model.CursorPage;
+import com.to.model.FileDocument;
+import com.to.model.SearchFilter;
+import com.to.model.SearchHit;
+import com.to.repository.ExtractedContentRepository;
+import com.to.service.KeyWordsService;
+import com.to.service.LuceneSearchIndex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+class KeyWordsServiceTest {
+
+    @Mock
+    private ExtractedContentRepository extractedContentRepository;
+
+    @Mock
+    private LuceneSearchIndex luceneSearchIndex;
+
+    @Test
+    void testMongoSearchIsPagedByScoreUntilIndexIsReady() throws IOException {
+        // given
+        SearchFilter filter = new SearchFilter();
+        filter.setExtension("txt");
+        SearchHit first = hit("1", "xxh64:01", 2.5);
+        SearchHit second = hit("2", "xxh64:01", 2.5);
+        SearchHit third = hit("3", "xxh64:02", 1.0);
+        CursorPage<SearchHit> rankedPage = new CursorPage<>(List.of(first), null);
+        Mockito.when(extractedContentRepository.searchFiles("report", filter, null, null, null, 3))
+                .thenReturn(List.of(first, second, third));
+        Mockito.when(extractedContentRepository.searchFiles("report", filter, 2.5, "xxh64:01", "2", 3))
+                .thenReturn(List.of(third));
+        // the index becomes ready after the first page; the Mongo search keeps paging from Mongo
+        Mockito.when(luceneSearchIndex.isReady()).thenReturn(false, true);
+        Mockito.when(luceneSearchIndex.search("report", filter, 2, null)).thenReturn(rankedPage);
+        KeyWordsService keyWordsService = new KeyWordsService(extractedContentRepository, Optional.of(luceneSearchIndex));
+
+        // when
+        CursorPage<SearchHit> firstPage = keyWordsService.searchFiles("report", filter, 2, null);
+        CursorPage<SearchHit> secondPage = keyWordsService.searchFiles("report", filter, 2, firstPage.getNextCursor());
+        CursorPage<SearchHit> indexedPage = keyWordsService.searchFiles("report", filter, 2, null);
+
+        // then
+        Assertions.assertEquals(List.of(first, second), firstPage.getItems());
+        Assertions.assertEquals("mongo:2.5:xxh64:01:2", firstPage.getNextCursor());
+        Assertions.assertEquals(List.of(third), secondPage.getItems());
+        Assertions.assertNull(secondPage.getNextCursor());
+        Assertions.assertSame(rankedPage, indexedPage);
+    }
+
+    @Test
+    void testLuceneCursorIsAnsweredByLuceneOnly() throws IOException {
+        // given
+        SearchHit first = hit("1", "xxh64:01", 3.0);
+        SearchHit second = hit("2", "xxh64:02", 2.0);
+        Mockito.when(luceneSearchIndex.search("report", null, 1, null)).thenReturn(new CursorPage<>(List.of(first), "1"));
+        Mockito.when(luceneSearchIndex.search("report", null, 1, "1")).thenReturn(new CursorPage<>(List.of(second), null));
+        Mockito.when(luceneSearchIndex.isReady()).thenReturn(true, true, false);
+        KeyWordsService keyWordsService = new KeyWordsService(extractedContentRepository, Optional.of(luceneSearchIndex));
+
+        // when
+        CursorPage<SearchHit> firstPage = keyWordsService.searchFiles("report", null, 1, null);
+        CursorPage<SearchHit> secondPage = keyWordsService.searchFiles("report", null, 1, firstPage.getNextCursor());
+
+        // then
+        Assertions.assertEquals("lucene:1", firstPage.getNextCursor());
+        Assertions.assertEquals(List.of(second), secondPage.getItems());
+        Assertions.assertNull(secondPage.getNextCursor());
+        // while the index is rebuilt its offsets are meaningless, and Mongo cannot continue them either
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> keyWordsService.searchFiles("report", null, 1, firstPage.getNextCursor()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> keyWordsService.searchFiles("report", null, 1, "1"));
+        Mockito.verifyNoInteractions(extractedContentRepository);
+    }
+
+    private SearchHit hit(String id, String contentRef, double score) {
+        FileDocument fileDocument = new FileDocument();
+        fileDocument.setId(id);
+        fileDocument.setContentRef(contentRef);
+        return new SearchHit(fileDocument, score, null);
+    }
+}
@@ -0,0 +1,37 @@
+package com.to;
+
+import com.to.logic.KeywordMatcher;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class KeywordMatcherTest {
+
+    @Test
+    void testKeywordsAreStripped() {
+        // given
+        KeywordMatcher matcher = new KeywordMatcher(List.of("kopia", "copy", "version"));
+
+        // when / then
+        Assertions.assertEquals("file-.txt", matcher.strip("file-kopia.txt"));
+        Assertions.assertEquals("report__2.pdf", matcher.strip("report_copy_version2.pdf"));
+        Assertions.assertEquals("copie.txt", matcher.strip("copie.txt"));
+        Assertions.assertEquals("", matcher.strip("copycopy"));
+    }
+
+    @Test
+    void testOverlappingKeywordsPreferLeftmostLongest() {
+        // given
+        KeywordMatcher matcher = new KeywordMatcher(List.of("he", "she", "hers", "his"));
+
+        // when / then
+        Assertions.assertEquals("urs", matcher.strip("ushers"));
+        Assertions.assertEquals("x", matcher.strip("hisx"));
+    }
+
+    @Test
+    void testNoKeywordsLeavesNameUnchanged() {
+        Assertions.assertEquals("file.txt", new KeywordMatcher(List.of()).strip("file.txt"));
+    }
+}
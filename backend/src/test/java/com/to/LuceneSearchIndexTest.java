@@ -0,0 +1,187 @@
+package com.to;
+
+import com.to.config.SearchProperties;
+import com.to.model.CursorPage;
+import com.to.model.ExtractedContent;
+import com.to.model.FileDocument;
+import com.to.model.SearchFilter;
+import com.to.model.SearchHit;
+import com.to.repository.ExtractedContentRepository;
+import com.to.repository.FileRepository;
+import com.to.service.LuceneSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@ExtendWith(MockitoExtension.class)
+class LuceneSearchIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private FileRepository fileRepository;
+
+    @Mock
+    private ExtractedContentRepository extractedContentRepository;
+
+    private final Map<String, FileDocument> files = new LinkedHashMap<>();
+    private final Map<String, String> texts = new HashMap<>();
+    private LuceneSearchIndex luceneSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        SearchProperties searchProperties = new SearchProperties();
+        searchProperties.setIndexDirectory(tempDir.toString());
+        luceneSearchIndex = new LuceneSearchIndex(fileRepository, extractedContentRepository, searchProperties);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException, InterruptedException {
+        luceneSearchIndex.stop();
+    }
+
+    @Test
+    void testHitsAreRankedByBm25() throws IOException {
+        // given
+        file("1", path("notes", "short.txt"), 10, "budget budget review");
+        file("2", path("notes", "long.txt"), 10, "budget " + "meeting minutes with many other words ".repeat(10));
+        file("3", path("notes", "other.txt"), 10, "holiday plans");
+        startIndex();
+
+        // when
+        CursorPage<SearchHit> page = luceneSearchIndex.search("budget", null, 10, null);
+
+        // then
+        Assertions.assertEquals(List.of("1", "2"), ids(page));
+        Assertions.assertTrue(page.getItems().get(0).getScore() > page.getItems().get(1).getScore());
+        Assertions.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testPhraseAndPrefixQueries() throws IOException {
+        // given
+        file("1", path("reports", "a.txt"), 10, "quarterly sales report");
+        file("2", path("reports", "b.txt"), 10, "report on sales, quarterly");
+        startIndex();
+
+        // when, then
+        Assertions.assertEquals(List.of("1"), ids(luceneSearchIndex.search("\"sales report\"", null, 10, null)));
+        Assertions.assertEquals(Set.of("1", "2"), new HashSet<>(ids(luceneSearchIndex.search("quart*", null, 10, null))));
+        // words must all match unless joined by OR
+        Assertions.assertEquals(List.of(), ids(luceneSearchIndex.search("sales holiday", null, 10, null)));
+        Assertions.assertEquals(Set.of("1", "2"), new HashSet<>(ids(luceneSearchIndex.search("sales OR holiday", null, 10, null))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> luceneSearchIndex.search("\"unclosed", null, 10, null));
+    }
+
+    @Test
+    void testFiltersRestrictHits() throws IOException {
+        // given
+        file("1", path("2023", "invoice.pdf"), 100, "invoice").setLastModified(LocalDateTime.of(2023, 5, 1, 12, 0));
+        file("2", path("2024", "invoice.PDF"), 2000, "invoice").setLastModified(LocalDateTime.of(2024, 5, 1, 12, 0));
+        file("3", path("2024", "invoice.txt"), 300, "invoice").setLastModified(LocalDateTime.of(2024, 6, 1, 12, 0));
+        startIndex();
+
+        SearchFilter byExtension = new SearchFilter();
+        byExtension.setExtension(".pdf");
+        SearchFilter byPath = new SearchFilter();
+        byPath.setPathPrefix(path("2024") + File.separator);
+        SearchFilter bySize = new SearchFilter();
+        bySize.setMinSize(200L);
+        bySize.setMaxSize(1000L);
+        SearchFilter byModified = new SearchFilter();
+        byModified.setModifiedFrom(LocalDateTime.of(2024, 1, 1, 0, 0));
+        byModified.setModifiedTo(LocalDateTime.of(2024, 5, 31, 0, 0));
+
+        // when, then
+        Assertions.assertEquals(Set.of("1", "2"), new HashSet<>(ids(luceneSearchIndex.search("invoice", byExtension, 10, null))));
+        Assertions.assertEquals(Set.of("2", "3"), new HashSet<>(ids(luceneSearchIndex.search("invoice", byPath, 10, null))));
+        Assertions.assertEquals(List.of("3"), ids(luceneSearchIndex.search("invoice", bySize, 10, null)));
+        Assertions.assertEquals(List.of("2"), ids(luceneSearchIndex.search("invoice", byModified, 10, null)));
+    }
+
+    @Test
+    void testPagesFollowCursorAndCarrySnippets() throws IOException {
+        // given
+        for (int i = 0; i < 5; i++) {
+            file(String.valueOf(i), path("docs", i + ".txt"), 10, "the alpha release notes, part " + i);
+        }
+        startIndex();
+
+        // when
+        CursorPage<SearchHit> firstPage = luceneSearchIndex.search("alpha", null, 2, null);
+        CursorPage<SearchHit> secondPage = luceneSearchIndex.search("alpha", null, 2, firstPage.getNextCursor());
+        CursorPage<SearchHit> lastPage = luceneSearchIndex.search("alpha", null, 2, secondPage.getNextCursor());
+
+        // then
+        Assertions.assertEquals("2", firstPage.getNextCursor());
+        Assertions.assertEquals("4", secondPage.getNextCursor());
+        Assertions.assertNull(lastPage.getNextCursor());
+        List<String> seen = new ArrayList<>();
+        seen.addAll(ids(firstPage));
+        seen.addAll(ids(secondPage));
+        seen.addAll(ids(lastPage));
+        Assertions.assertEquals(Set.of("0", "1", "2", "3", "4"), new HashSet<>(seen));
+        Assertions.assertEquals(5, seen.size());
+        Assertions.assertTrue(firstPage.getItems().get(0).getSnippet().contains("<b>alpha</b>"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> luceneSearchIndex.search("alpha", null, 2, "not-an-offset"));
+    }
+
+    private FileDocument file(String id, String filePath, long size, String text) {
+        FileDocument fileDocument = new FileDocument();
+        fileDocument.setId(id);
+        fileDocument.setFilePath(filePath);
+        fileDocument.setFileName(new File(filePath).getName());
+        fileDocument.setSize(size);
+        fileDocument.setContentRef("xxh64:" + id);
+        files.put(filePath, fileDocument);
+        texts.put(fileDocument.getContentRef(), text);
+        return fileDocument;
+    }
+
+    // The empty index is built in the background on start; rebuild() queues behind it and returns once it is searchable.
+    private void startIndex() throws IOException {
+        Mockito.when(fileRepository.streamAllWithoutContent()).thenAnswer(invocation -> files.values().stream());
+        Mockito.when(extractedContentRepository.findTextByIdIn(Mockito.anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().map(this::content).toList();
+        });
+        Mockito.when(fileRepository.findByFilePathIn(Mockito.anyCollection())).thenAnswer(invocation -> {
+            Collection<String> paths = invocation.getArgument(0);
+            return paths.stream().map(files::get).toList();
+        });
+        Mockito.when(extractedContentRepository.findTextById(Mockito.anyString()))
+                .thenAnswer(invocation -> Optional.of(content(invocation.getArgument(0))));
+
+        luceneSearchIndex.start();
+        Assertions.assertEquals(files.size(), luceneSearchIndex.rebuild());
+        Assertions.assertTrue(luceneSearchIndex.isReady());
+    }
+
+    private ExtractedContent content(String id) {
+        ExtractedContent content = new ExtractedContent();
+        content.setId(id);
+        content.setText(texts.get(id));
+        return content;
+    }
+
+    private List<String> ids(CursorPage<SearchHit> page) {
+        return page.getItems().stream().map(hit -> hit.getFile().getId()).toList();
+    }
+
+    private String path(String... names) {
+        return File.separator + String.join(File.separator, names);
+    }
+}
@@ -0,0 +1,81 @@
+package com.to;
+
+import com.to.logic.MinHasher;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class MinHasherTest {
+
+    private final MinHasher minHasher = new MinHasher(3, 32, 4);
+
+    @Test
+    void testEditedCopyIsSimilarAndUnrelatedTextIsNot() {
+        // given
+        Random random = new Random(7);
+        List<String> words = randomWords(random, 400);
+        List<String> edited = new ArrayList<>(words);
+        for (int i = 0; i < 4; i++) {
+            edited.set(random.nextInt(edited.size()), "changed");
+        }
+        String original = String.join(" ", words);
+
+        // when
+        int[] originalSignature = minHasher.signature(original);
+        int[] editedSignature = minHasher.signature(String.join(" ", edited));
+        int[] unrelatedSignature = minHasher.signature(String.join(" ", randomWords(random, 400)));
+
+        // then
+        Assertions.assertEquals(1.0, MinHasher.similarity(originalSignature, minHasher.signature(original.toUpperCase())));
+        Assertions.assertTrue(MinHasher.similarity(originalSignature, editedSignature) > 0.8);
+        Assertions.assertTrue(MinHasher.similarity(originalSignature, unrelatedSignature) < 0.2);
+        Assertions.assertNotEquals(List.of(), commonBands(originalSignature, editedSignature));
+        Assertions.assertEquals(List.of(), commonBands(originalSignature, unrelatedSignature));
+    }
+
+    @Test
+    void testTextWithoutWordsHasNoSignature() {
+        // when
+        int[] signature = minHasher.signature(" ... -- !!");
+        int[] shortText = minHasher.signature("two words");
+
+        // then
+        Assertions.assertNull(signature);
+        Assertions.assertEquals(128, shortText.length);
+    }
+
+    @Test
+    void testSignatureSurvivesBytes() {
+        // given
+        int[] signature = minHasher.signature("the quick brown fox jumps over the lazy dog");
+
+        // when
+        int[] restored = MinHasher.fromBytes(MinHasher.toBytes(signature));
+
+        // then
+        Assertions.assertArrayEquals(signature, restored);
+        Assertions.assertEquals(512, MinHasher.toBytes(signature).length);
+    }
+
+    private List<Long> commonBands(int[] first, int[] second) {
+        List<Long> common = new ArrayList<>(minHasher.bandKeys(first));
+        common.retainAll(minHasher.bandKeys(second));
+        return common;
+    }
+
+    private List<String> randomWords(Random random, int count) {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 2 + random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            words.add(word.toString());
+        }
+        return words;
+    }
+}
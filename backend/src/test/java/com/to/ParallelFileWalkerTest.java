@@ -0,0 +1,58 @@
+package com.to;
+
+import com.to.logic.ParallelFileWalker;
+import com.to.model.ScanProgress;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+class ParallelFileWalkerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCancelStopsWalkAfterFilesInFlight() throws Exception {
+        // given
+        for (int i = 0; i < 50; i++) {
+            Files.writeString(tempDir.resolve("file" + i + ".txt"), "content " + i);
+        }
+        ScanProgress progress = new ScanProgress();
+        Set<Path> processed = ConcurrentHashMap.newKeySet();
+
+        // when
+        new ParallelFileWalker(1).walk(tempDir, progress, (file, attrs) -> {
+            processed.add(file);
+            progress.requestCancel();
+        });
+
+        // then
+        // with one worker at most the file queued while the first one ran is processed after the cancel
+        Assertions.assertFalse(processed.isEmpty());
+        Assertions.assertTrue(processed.size() <= 2, "processed " + processed.size() + " files");
+        Assertions.assertEquals(processed.size(), progress.getFilesDiscovered());
+    }
+
+    @Test
+    void testWalkProcessesEveryVisibleFile() throws Exception {
+        // given
+        Path nested = Files.createDirectories(tempDir.resolve("a").resolve("b"));
+        Files.writeString(tempDir.resolve("top.txt"), "top");
+        Files.writeString(nested.resolve("deep.txt"), "deep");
+        Files.writeString(nested.resolve(".hidden"), "hidden");
+        ScanProgress progress = new ScanProgress();
+        Set<Path> processed = ConcurrentHashMap.newKeySet();
+
+        // when
+        new ParallelFileWalker(4).walk(tempDir, progress, (file, attrs) -> processed.add(file));
+
+        // then
+        Assertions.assertEquals(Set.of(tempDir.resolve("top.txt"), nested.resolve("deep.txt")), processed);
+        Assertions.assertTrue(progress.isDiscoveryComplete());
+    }
+}
@@ -0,0 +1,78 @@
+package com.to;
+
+import com.to.config.ExtractionProperties;
+import com.to.logic.ExtractionStatus;
+import com.to.model.ExtractionResult;
+import com.to.service.PlainTextExtractor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class PlainTextExtractorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testUtf8TextIsDecoded() throws IOException {
+        // given
+        Path file = Files.writeString(tempDir.resolve("notes.txt"), "Zażółć gęślą jaźń", StandardCharsets.UTF_8);
+
+        // when
+        ExtractionResult result = new PlainTextExtractor(new ExtractionProperties()).extract(file.toFile());
+
+        // then
+        Assertions.assertEquals(ExtractionStatus.SUCCESS, result.getStatus());
+        Assertions.assertEquals("Zażółć gęślą jaźń", result.getText());
+    }
+
+    @Test
+    void testBomSelectsCharset() throws IOException {
+        // given
+        byte[] text = "hello".getBytes(StandardCharsets.UTF_16LE);
+        byte[] bytes = new byte[text.length + 2];
+        bytes[0] = (byte) 0xFF;
+        bytes[1] = (byte) 0xFE;
+        System.arraycopy(text, 0, bytes, 2, text.length);
+        Path file = Files.write(tempDir.resolve("utf16.txt"), bytes);
+
+        // when
+        ExtractionResult result = new PlainTextExtractor(new ExtractionProperties()).extract(file.toFile());
+
+        // then
+        Assertions.assertEquals("hello", result.getText());
+    }
+
+    @Test
+    void testInvalidUtf8FallsBackToConfiguredCharset() throws IOException {
+        // given
+        Path file = Files.write(tempDir.resolve("legacy.csv"), "café;1".getBytes(Charset.forName("windows-1252")));
+
+        // when
+        ExtractionResult result = new PlainTextExtractor(new ExtractionProperties()).extract(file.toFile());
+
+        // then
+        Assertions.assertEquals("café;1", result.getText());
+    }
+
+    @Test
+    void testTextIsTruncatedAtBudget() throws IOException {
+        // given
+        ExtractionProperties properties = new ExtractionProperties();
+        properties.setTextMaxChars(100_000);
+        Path file = Files.writeString(tempDir.resolve("big.csv"), "a".repeat(300_000));
+
+        // when
+        ExtractionResult result = new PlainTextExtractor(properties).extract(file.toFile());
+
+        // then
+        Assertions.assertEquals(ExtractionStatus.TRUNCATED, result.getStatus());
+        Assertions.assertEquals(100_000, result.getText().length());
+    }
+}
@@ -0,0 +1,146 @@
+package com.to;
+
+import com.to.config.ScanProperties;
+import com.to.logic.ScanJobStatus;
+import com.to.model.ScanJob;
+import com.to.model.ScanProgress;
+import com.to.service.ActionLogService;
+import com.to.service.FileManagementService;
+import com.to.service.FileProcessingService;
+import com.to.service.FileWatchService;
+import com.to.service.IndexLock;
+import com.to.service.ScanJobService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+class ScanJobServiceTest {
+
+    @Mock
+    private FileProcessingService fileProcessingService;
+
+    @Mock
+    private FileManagementService fileManagementService;
+
+    @Mock
+    private ActionLogService actionLogService;
+
+    @Mock
+    private FileWatchService fileWatchService;
+
+    @TempDir
+    Path tempDir;
+
+    private ScanJobService scanJobService;
+
+    @AfterEach
+    void cleanUp() {
+        if (scanJobService != null) {
+            scanJobService.shutdown();
+        }
+    }
+
+    @Test
+    void testQueuedAndRunningJobsCanBeCancelled() throws Exception {
+        // given
+        scanJobService = scanJobService(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            ScanProgress progress = invocation.getArgument(2);
+            started.countDown();
+            while (!progress.isCancelRequested()) {
+                Thread.sleep(10);
+            }
+            return null;
+        }).when(fileProcessingService).processDirectory(Mockito.any(File.class), Mockito.anyBoolean(), Mockito.any(ScanProgress.class));
+        ScanJob running = scanJobService.submit(directory("running"), true);
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        ScanJob queued = scanJobService.submit(directory("queued"), true);
+
+        // when
+        scanJobService.cancel(queued.getId());
+        scanJobService.cancel(running.getId());
+        awaitFinished(running);
+
+        // then
+        Assertions.assertEquals(ScanJobStatus.CANCELLED, queued.getStatus());
+        Assertions.assertNotNull(queued.getFinishedAt());
+        Assertions.assertNull(queued.getStartedAt());
+        Assertions.assertEquals(ScanJobStatus.CANCELLED, running.getStatus());
+        Assertions.assertNotNull(running.getFinishedAt());
+        Mockito.verify(fileProcessingService, Mockito.times(1))
+                .processDirectory(Mockito.any(File.class), Mockito.anyBoolean(), Mockito.any(ScanProgress.class));
+        Mockito.verify(fileWatchService, Mockito.never()).watch(Mockito.anyString());
+    }
+
+    @Test
+    void testFullScanWaitsUntilRunningFullScanFinished() throws Exception {
+        // given
+        scanJobService = scanJobService(2);
+        String first = directory("first");
+        String second = directory("second");
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            File directory = invocation.getArgument(0);
+            if (directory.getPath().equals(first)) {
+                firstStarted.countDown();
+                releaseFirst.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(fileProcessingService).processDirectory(Mockito.any(File.class), Mockito.anyBoolean(), Mockito.any(ScanProgress.class));
+        ScanJob firstJob = scanJobService.submit(first, false);
+        Assertions.assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+        // when
+        ScanJob secondJob = scanJobService.submit(second, false);
+        Mockito.verify(fileManagementService, Mockito.after(300).times(1)).deleteAllFiles();
+        ScanJobStatus secondWhileFirstRuns = secondJob.getStatus();
+        releaseFirst.countDown();
+        awaitFinished(firstJob);
+        awaitFinished(secondJob);
+
+        // then
+        Assertions.assertEquals(ScanJobStatus.QUEUED, secondWhileFirstRuns);
+        Assertions.assertEquals(ScanJobStatus.COMPLETED, firstJob.getStatus());
+        Assertions.assertEquals(ScanJobStatus.COMPLETED, secondJob.getStatus());
+        InOrder inOrder = Mockito.inOrder(fileManagementService, fileProcessingService);
+        inOrder.verify(fileManagementService).deleteAllFiles();
+        inOrder.verify(fileProcessingService).processDirectory(new File(first), false, firstJob.getProgress());
+        inOrder.verify(fileManagementService).deleteAllFiles();
+        inOrder.verify(fileProcessingService).processDirectory(new File(second), false, secondJob.getProgress());
+    }
+
+    private ScanJobService scanJobService(int concurrentJobs) {
+        ScanProperties scanProperties = new ScanProperties();
+        scanProperties.setMaxConcurrentJobs(concurrentJobs);
+        return new ScanJobService(fileProcessingService, fileManagementService, actionLogService, fileWatchService,
+                new IndexLock(), scanProperties);
+    }
+
+    private String directory(String name) throws IOException {
+        return Files.createDirectory(tempDir.resolve(name)).toAbsolutePath().toString();
+    }
+
+    private void awaitFinished(ScanJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(job.isFinished());
+    }
+}
@@ -4,18 +4,30 @@ const api = axios.create({
   baseURL: "http://localhost:8080/files",
 });
 
-export const fetchFiles = async () => {
-  const response = await api.get("/all");
+export const fetchFiles = async (cursor) => {
+  const response = await api.get("/all/page", {
+    params: { limit: 100, cursor },
+  });
   return response.data;
 };
 
-export const scanFolder = async (directoryPath) => {
+export const scanFolder = async (directoryPath, incremental = false) => {
   const response = await api.post("/scan", null, {
-    params: { directoryPath },
+    params: { directoryPath, incremental },
   });
   return response.data;
 };
 
+export const fetchScanJob = async (id) => {
+  const response = await api.get(`/scan/${id}`);
+  return response.data;
+};
+
+export const cancelScanJob = async (id) => {
+  const response = await api.delete(`/scan/${id}`);
+  return response.data;
+};
+
 export const deleteAllFiles = async () => {
   const response = await api.delete("/deleteAll");
   return response.data;
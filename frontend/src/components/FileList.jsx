@@ -4,28 +4,38 @@ import { Table, TableBody, TableCell, TableContainer, TableHead, TableRow, Paper
 import { openFile, handleDelete } from '../actions/fileActions.js';
 import NavHeader from './NavHeader.jsx';
 
-const fetchFiles = async (keyword = '') => {
+const fetchFiles = async (keyword, cursor) => {
+  const params = new URLSearchParams({ limit: '100' });
+  if (keyword) params.append('keyword', keyword);
+  if (cursor) params.append('cursor', cursor);
   const url = keyword
-      ? `http://localhost:8080/files/search?keyword=${encodeURIComponent(keyword)}`
-      : 'http://localhost:8080/files/all';
+      ? `http://localhost:8080/files/search?${params}`
+      : `http://localhost:8080/files/all/page?${params}`;
   const res = await fetch(url);
   if (!res.ok) {
     throw new Error('Failed to fetch files');
   }
-  return res.json();
+  const body = await res.json();
+  return {
+    items: keyword ? body.items.map((hit) => hit.file) : body.items,
+    nextCursor: body.nextCursor,
+  };
 };
 
 const FileList = () => {
   const [searchKeyword, setSearchKeyword] = useState('');
   const [currentKeyword, setCurrentKeyword] = useState('');
+  const [cursors, setCursors] = useState([null]);
+  const cursor = cursors[cursors.length - 1];
   const { data, error, isLoading, refetch } = useQuery({
-    queryKey: ['files', currentKeyword],
-    queryFn: () => fetchFiles(currentKeyword),
+    queryKey: ['files', currentKeyword, cursor],
+    queryFn: () => fetchFiles(currentKeyword, cursor),
   });
 
   const handleSearch = (e) => {
     e.preventDefault();
     setCurrentKeyword(searchKeyword);
+    setCursors([null]);
   };
 
   if (isLoading) {
@@ -66,7 +76,7 @@ const FileList = () => {
               </TableRow>
             </TableHead>
             <TableBody>
-              {data.map((file) => (
+              {data.items.map((file) => (
                   <TableRow key={file.id}>
                     <TableCell>{file.id}</TableCell>
                     <TableCell>{file.fileName}</TableCell>
@@ -97,6 +107,21 @@ const FileList = () => {
             </TableBody>
           </Table>
         </TableContainer>
+        <Button
+            variant="outlined"
+            disabled={cursors.length === 1}
+            onClick={() => setCursors(cursors.slice(0, -1))}
+        >
+          Previous
+        </Button>
+        <Button
+            variant="outlined"
+            style={{ marginLeft: '10px' }}
+            disabled={!data.nextCursor}
+            onClick={() => setCursors([...cursors, data.nextCursor])}
+        >
+          Next
+        </Button>
       </div>
   );
 };
@@ -15,8 +15,10 @@ import {
 import { openFile, handleDelete } from '../actions/fileActions.js';
 import NavHeader from "../components/NavHeader.jsx";
 
-const fetchDuplicates = async () => {
-  const res = await fetch('http://localhost:8080/files/duplicates');
+const fetchDuplicates = async (cursor) => {
+  const params = new URLSearchParams({ limit: '20' });
+  if (cursor) params.append('cursor', cursor);
+  const res = await fetch(`http://localhost:8080/files/duplicates?${params}`);
   if (!res.ok) {
     throw new Error('Failed to fetch duplicates');
   }
@@ -24,9 +26,11 @@ const fetchDuplicates = async () => {
 };
 
 const Duplicates = () => {
+  const [cursors, setCursors] = useState([null]);
+  const cursor = cursors[cursors.length - 1];
   const { data, error, isLoading, refetch} = useQuery({
-    queryKey: ['duplicates'],
-    queryFn: fetchDuplicates,
+    queryKey: ['duplicates', cursor],
+    queryFn: () => fetchDuplicates(cursor),
   });
 
   const [selectedFiles, setSelectedFiles] = useState([]);
@@ -95,10 +99,10 @@ const Duplicates = () => {
   return (
       <div>
         <NavHeader pageName="Duplicate Files"/>
-        {data.map((group, index) => (
+        {data.items.map((group, index) => (
               <TableContainer component={Paper} key={index} style={{marginBottom: '20px'}}>
                   <Typography variant="h6" style={{padding: '10px'}}>
-                      Group {index + 1}
+                      Group {Number(cursor) + index + 1}: {group.count} copies, {group.wastedBytes} bytes wasted
                   </Typography>
                   <Table>
                       <TableHead>
@@ -115,7 +119,7 @@ const Duplicates = () => {
                           </TableRow>
                       </TableHead>
                       <TableBody>
-                          {group.map((file) => (
+                          {group.files.map((file) => (
                               <TableRow key={file.id}>
                                   <TableCell>
                                       <Checkbox
@@ -153,6 +157,22 @@ const Duplicates = () => {
                   </Table>
               </TableContainer>
           ))}
+          <Button
+              variant="outlined"
+              style={{margin: '10px'}}
+              disabled={cursors.length === 1}
+              onClick={() => setCursors(cursors.slice(0, -1))}
+          >
+              Previous
+          </Button>
+          <Button
+              variant="outlined"
+              style={{margin: '10px'}}
+              disabled={!data.nextCursor}
+              onClick={() => setCursors([...cursors, data.nextCursor])}
+          >
+              Next
+          </Button>
           <div style={{margin: '20px', display: 'flex', alignItems: 'center'}}>
               <Checkbox
                   checked={archive}
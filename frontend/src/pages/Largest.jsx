@@ -1,4 +1,4 @@
-import React from 'react';
+import React, { useState } from 'react';
 import { useQuery } from '@tanstack/react-query';
 import {
   Table,
@@ -13,8 +13,10 @@ import {
 import { openFile, handleDelete } from '../actions/fileActions.js';
 import NavHeader from '../components/NavHeader.jsx';
 
-const fetchLargest = async () => {
-  const res = await fetch('http://localhost:8080/files/largest');
+const fetchLargest = async (cursor) => {
+  const params = new URLSearchParams({ limit: '50' });
+  if (cursor) params.append('cursor', cursor);
+  const res = await fetch(`http://localhost:8080/files/largest?${params}`);
   if (!res.ok) {
     throw new Error('Failed to fetch largest files');
   }
@@ -22,9 +24,11 @@ const fetchLargest = async () => {
 };
 
 const Largest = () => {
+  const [cursors, setCursors] = useState([null]);
+  const cursor = cursors[cursors.length - 1];
   const { data, error, isLoading, refetch} = useQuery({
-    queryKey: ['largest'],
-    queryFn: fetchLargest,
+    queryKey: ['largest', cursor],
+    queryFn: () => fetchLargest(cursor),
   });
 
   if (isLoading) {
@@ -53,7 +57,7 @@ const Largest = () => {
               </TableRow>
             </TableHead>
             <TableBody>
-              {data.map((file) => (
+              {data.items.map((file) => (
                 <TableRow key={file.id}>
                   <TableCell>{file.id}</TableCell>
                   <TableCell>{file.fileName}</TableCell>
@@ -84,6 +88,21 @@ const Largest = () => {
             </TableBody>
           </Table>
         </TableContainer>
+        <Button
+            variant="outlined"
+            disabled={cursors.length === 1}
+            onClick={() => setCursors(cursors.slice(0, -1))}
+        >
+          Previous
+        </Button>
+        <Button
+            variant="outlined"
+            style={{ marginLeft: '10px' }}
+            disabled={!data.nextCursor}
+            onClick={() => setCursors([...cursors, data.nextCursor])}
+        >
+          Next
+        </Button>
       </div>
   );
 };
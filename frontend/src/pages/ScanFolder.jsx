@@ -1,22 +1,53 @@
-import React, { useState } from "react";
-import { scanFolder } from "../api/api";
-import { Button, TextField, Typography, Container } from "@mui/material";
+import React, { useEffect, useState } from "react";
+import { cancelScanJob, fetchScanJob, scanFolder } from "../api/api";
+import { Button, Checkbox, FormControlLabel, TextField, Typography, Container } from "@mui/material";
 import {Link} from "react-router-dom";
 import NavHeader from "../components/NavHeader.jsx";
 
 const ScanFolder = () => {
   const [folderPath, setFolderPath] = useState("");
+  const [incremental, setIncremental] = useState(false);
   const [message, setMessage] = useState("");
+  const [job, setJob] = useState(null);
+
+  useEffect(() => {
+    if (!job || job.finished) return;
+    const timer = setTimeout(async () => {
+      try {
+        setJob(await fetchScanJob(job.id));
+      } catch (error) {
+        setMessage(error.message);
+      }
+    }, 1000);
+    return () => clearTimeout(timer);
+  }, [job]);
 
   const handleScan = async () => {
     try {
-      const response = await scanFolder(folderPath);
-      setMessage(response);
+      setMessage("");
+      setJob(await scanFolder(folderPath, incremental));
+    } catch (error) {
+      setMessage(error.response?.data || error.message);
+    }
+  };
+
+  const handleCancel = async () => {
+    try {
+      setJob(await cancelScanJob(job.id));
     } catch (error) {
       setMessage(error.message);
     }
   };
 
+  const describeJob = (scanJob) => {
+    const progress = scanJob.progress;
+    const eta = scanJob.etaSeconds != null ? `, ETA ${scanJob.etaSeconds}s` : "";
+    const errors = progress.filesFailed > 0 ? `, ${progress.filesFailed} errors` : "";
+    return `${scanJob.status}: ${progress.filesProcessed} of ${progress.filesDiscovered} files`
+      + ` (${Math.round(scanJob.filesPerSecond)} files/s${eta})${errors}`
+      + (scanJob.errorMessage ? ` - ${scanJob.errorMessage}` : "");
+  };
+
   return (
     <div>
       <NavHeader pageName="Scan Folder"/>
@@ -28,7 +59,15 @@ const ScanFolder = () => {
         onChange={(e) => setFolderPath(e.target.value)}
         style={{ marginBottom: "10px" }}
       />
-      <Button variant="contained" onClick={handleScan}>Scan</Button>
+      <FormControlLabel
+        control={<Checkbox checked={incremental} onChange={(e) => setIncremental(e.target.checked)} />}
+        label="Only rescan changed files"
+      />
+      <Button variant="contained" onClick={handleScan} disabled={job != null && !job.finished}>Scan</Button>
+      {job && !job.finished && (
+        <Button variant="outlined" color="error" onClick={handleCancel} style={{ marginLeft: "10px" }}>Cancel</Button>
+      )}
+      {job && <Typography variant="body1">{describeJob(job)}</Typography>}
       {message && <Typography variant="body1">{message}</Typography>}
       </Container>
     </div>